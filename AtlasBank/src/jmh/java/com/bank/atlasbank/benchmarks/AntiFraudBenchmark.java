@@ -0,0 +1,78 @@
+package com.bank.atlasbank.benchmarks;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.security.AntiFraudService;
+import com.bank.atlasbank.security.VelocityTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AntiFraudService#analyzeTransaction} con las reglas estáticas solas y con
+ * las ventanas de velocidad repartidas entre muchos clientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class AntiFraudBenchmark {
+
+    private static final int CUSTOMERS = 100_000;
+    private static final BigDecimal AMOUNT = new BigDecimal("250.00");
+
+    @Param({"false", "true"})
+    public boolean velocity;
+
+    private AntiFraudService service;
+    private Customer[] customers;
+
+    @Setup
+    public void setup() {
+        CustomerRepository repository = Stubs.of(CustomerRepository.class, Map.of("save", args -> args[0]));
+        PlatformTransactionManager transactions = Stubs.of(PlatformTransactionManager.class, Map.of(
+                "getTransaction", args -> new SimpleTransactionStatus(),
+                "commit", args -> null,
+                "rollback", args -> null));
+        service = new AntiFraudService(repository, event -> { }, new VelocityTracker(CUSTOMERS * 2), transactions, velocity,
+                5, 30, new BigDecimal("20000"), new BigDecimal("50000"), 10);
+        customers = new Customer[CUSTOMERS];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerId("C" + i);
+            customer.setStatus("ACTIVE");
+            customers[i] = customer;
+        }
+    }
+
+    @Benchmark
+    public boolean analyzeLocal() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            return service.analyzeTransaction(customers[random.nextInt(CUSTOMERS)], AMOUNT, "Local",
+                    (long) random.nextInt(1000));
+        } catch (BusinessException e) {
+            // Límite de velocidad superado: el movimiento se rechaza
+            return true;
+        }
+    }
+
+    @Benchmark
+    public boolean analyzeForeign() {
+        return service.analyzeTransaction(customers[ThreadLocalRandom.current().nextInt(CUSTOMERS)], AMOUNT, "Peru", null);
+    }
+}
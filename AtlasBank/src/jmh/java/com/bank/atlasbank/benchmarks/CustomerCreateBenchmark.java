@@ -0,0 +1,65 @@
+package com.bank.atlasbank.benchmarks;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.CreateCustomerRequest;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.customer.CustomerSearchIndex;
+import com.bank.atlasbank.customer.CustomerService;
+import com.bank.atlasbank.customer.CustomerUniquenessIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalización y validación de {@link CustomerService#create} con un repositorio
+ * en memoria que nunca encuentra duplicados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class CustomerCreateBenchmark {
+
+    private static final CreateCustomerRequest VALID = new CreateCustomerRequest(
+            "  CUST-0001 ", null, " Ana ", " Pérez ", " ana.perez@atlasbank.test ", " 3001234567 ", "secreto");
+    private static final CreateCustomerRequest MISSING_EMAIL = new CreateCustomerRequest(
+            "CUST-0002", "Luis Gómez", null, null, "   ", null, "secreto");
+
+    private CustomerService service;
+
+    @Setup
+    public void setup() {
+        CustomerRepository repository = Stubs.of(CustomerRepository.class, Map.of(
+                "findByCustomerId", args -> Optional.empty(),
+                "findByEmail", args -> Optional.empty(),
+                "save", args -> args[0],
+                "saveAndFlush", args -> args[0]));
+        service = new CustomerService(repository, event -> { },
+                new CustomerUniquenessIndex(repository, 1000, 0.01), new CustomerSearchIndex(repository, 8), 1000, 60);
+    }
+
+    @Benchmark
+    public Customer createValid() {
+        return service.create(VALID);
+    }
+
+    @Benchmark
+    public String createRejected() {
+        try {
+            service.create(MISSING_EMAIL);
+            return null;
+        } catch (BusinessException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bank.atlasbank.benchmarks;
+
+import com.bank.atlasbank.AtlasBankApplication;
+import com.bank.atlasbank.account.AccountService;
+import com.bank.atlasbank.account.AccountType;
+import com.bank.atlasbank.account.CreateAccountRequest;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.transaction.BankTransaction;
+import com.bank.atlasbank.transaction.TransactionService;
+import com.bank.atlasbank.transaction.TransferRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósitos, retiros y transferencias de extremo a extremo (servicio, JPA y H2 en
+ * memoria).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class MoneyMovementBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private Long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(AtlasBankApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--atlasbank.antifraud.velocity-enabled=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+
+        Customer customer = new Customer();
+        customer.setCustomerId("bench");
+        customer.setFullName("Benchmark");
+        customer.setEmail("bench@atlasbank.test");
+        customer.setPhone("");
+        customer.setPassword("bench");
+        customer.setStatus("ACTIVE");
+        context.getBean(CustomerRepository.class).save(customer);
+
+        AccountService accountService = context.getBean(AccountService.class);
+        accountIds = new Long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = accountService.create(new CreateAccountRequest(
+                    "bench", AccountType.SAVINGS, new BigDecimal("1000000000000"))).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public BankTransaction deposit() {
+        return transactionService.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public BankTransaction withdraw() {
+        return transactionService.withdraw(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public BankTransaction transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(ACCOUNTS);
+        int target = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        return transactionService.transfer(new TransferRequest(accountIds[source], accountIds[target], AMOUNT, "Local"));
+    }
+
+    private Long randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.atlasbank.benchmarks;
+
+import com.bank.atlasbank.savings.SavingsGoalService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo del redondeo al siguiente múltiplo de 1000 sobre montos variados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class RoundupBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private BigDecimal[] amounts;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        amounts = new BigDecimal[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextLong(1, 10_000_000), 2);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateRoundup() {
+        return SavingsGoalService.calculateRoundup(amounts[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+}
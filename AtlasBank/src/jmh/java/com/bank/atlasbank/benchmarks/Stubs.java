@@ -0,0 +1,26 @@
+package com.bank.atlasbank.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repositorios de mentira hechos con un proxy dinámico, para medir la lógica de
+ * los servicios sin BD ni el costo de un framework de mocks.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return handler.apply(args);
+        });
+    }
+}
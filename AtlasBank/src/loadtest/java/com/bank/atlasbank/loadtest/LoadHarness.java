@@ -0,0 +1,287 @@
+package com.bank.atlasbank.loadtest;
+
+import com.bank.atlasbank.AtlasBankApplication;
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.common.metrics.LatencyHistogram;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga contra la API HTTP con comprobación de conservación del dinero.
+ *
+ * Arranca AtlasBank con H2 en memoria en un puerto libre, crea los clientes y
+ * cuentas, y lanza una mezcla de depósitos, retiros y transferencias desde
+ * varios hilos. Al terminar compara el saldo de cada cuenta en BD con el esperado
+ * según las respuestas 2xx recibidas e informa el dinero perdido o creado.
+ *
+ * Se ejecuta con {@code mvn -Ploadtest -DskipTests verify} y acepta
+ * {@code -Dload.args="--threads=32 --operations=50000 --accounts-per-customer=1"}.
+ * Opciones: customers, accounts-per-customer, threads, operations,
+ * mix (depósito:retiro:transferencia, p. ej. 30:20:50), report.
+ *
+ * Sale con código 1 si el total en BD no coincide con saldo inicial + depósitos − retiros.
+ */
+public final class LoadHarness {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000.00");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private enum Op { DEPOSIT, WITHDRAW, TRANSFER }
+
+    private final Map<String, String> options;
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    private final Map<Op, LatencyHistogram> latencies = new HashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LongAdder depositedCents = new LongAdder();
+    private final LongAdder withdrawnCents = new LongAdder();
+    private final LongAdder unknownOutcomes = new LongAdder();
+
+    private String baseUrl;
+    private long[] accountIds;
+    private AtomicLongArray expectedCents;
+
+    private LoadHarness(Map<String, String> options) {
+        this.options = options;
+        for (Op op : Op.values()) latencies.put(op, new LatencyHistogram());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) continue;
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        boolean conserved = new LoadHarness(options).run();
+        System.exit(conserved ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        int customers = intOption("customers", 20);
+        int accountsPerCustomer = intOption("accounts-per-customer", 2);
+        int threads = intOption("threads", 16);
+        int operations = intOption("operations", 20_000);
+        int[] mix = parseMix(options.getOrDefault("mix", "30:20:50"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AtlasBankApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--atlasbank.antifraud.velocity-enabled=false",
+                        "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            createAccounts(customers, accountsPerCustomer);
+
+            long started = System.nanoTime();
+            runLoad(threads, operations, mix);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            return report(context.getBean(AccountRepository.class), seconds, operations, threads);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void createAccounts(int customers, int accountsPerCustomer) throws Exception {
+        accountIds = new long[customers * accountsPerCustomer];
+        int next = 0;
+        for (int c = 0; c < customers; c++) {
+            String customerId = "LOAD-" + c;
+            post("/api/customers", Map.of("customerId", customerId, "fullName", "Carga " + c,
+                    "email", "carga" + c + "@atlasbank.test", "password", "carga"));
+            for (int a = 0; a < accountsPerCustomer; a++) {
+                JsonNode account = post("/api/accounts", Map.of("customerId", customerId,
+                        "accountType", "SAVINGS", "initialBalance", INITIAL_BALANCE)).body;
+                accountIds[next++] = account.get("id").asLong();
+            }
+        }
+        expectedCents = new AtomicLongArray(accountIds.length);
+        for (int i = 0; i < accountIds.length; i++) {
+            expectedCents.set(i, INITIAL_BALANCE.movePointRight(2).longValueExact());
+        }
+    }
+
+    private void runLoad(int threads, int operations, int[] mix) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(operations);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        runOne(mix);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void runOne(int[] mix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+        Op op = roll < mix[0] ? Op.DEPOSIT : roll < mix[0] + mix[1] ? Op.WITHDRAW : Op.TRANSFER;
+        int source = random.nextInt(accountIds.length);
+        int target = accountIds.length < 2 ? source
+                : (source + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+        long cents = random.nextLong(100, 10_000);
+        BigDecimal amount = BigDecimal.valueOf(cents, 2);
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = switch (op) {
+                case DEPOSIT -> post("/api/transactions/deposit/" + accountIds[source], Map.of("amount", amount));
+                case WITHDRAW -> post("/api/transactions/withdraw/" + accountIds[source], Map.of("amount", amount));
+                case TRANSFER -> post("/api/transactions/transfer", Map.of("sourceAccountId", accountIds[source],
+                        "targetAccountId", accountIds[target], "amount", amount, "location", "Local"));
+            };
+        } catch (Exception e) {
+            // No se sabe si el servidor aplicó el movimiento
+            unknownOutcomes.increment();
+            failures.computeIfAbsent(op + " " + e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+            latencies.get(op).recordError();
+            return;
+        }
+
+        if (response.status / 100 != 2) {
+            String message = response.body != null && response.body.hasNonNull("message")
+                    ? response.body.get("message").asText() : "sin mensaje";
+            failures.computeIfAbsent(op + " " + response.status + " " + message, k -> new LongAdder()).increment();
+            latencies.get(op).recordError();
+            return;
+        }
+        latencies.get(op).record(System.nanoTime() - start);
+        switch (op) {
+            case DEPOSIT -> {
+                depositedCents.add(cents);
+                expectedCents.addAndGet(source, cents);
+            }
+            case WITHDRAW -> {
+                withdrawnCents.add(cents);
+                expectedCents.addAndGet(source, -cents);
+            }
+            case TRANSFER -> {
+                expectedCents.addAndGet(source, -cents);
+                expectedCents.addAndGet(target, cents);
+            }
+        }
+    }
+
+    private boolean report(AccountRepository repository, double seconds, int operations, int threads)
+            throws IOException {
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < accountIds.length; i++) indexById.put(accountIds[i], i);
+
+        long actualTotal = 0;
+        long expectedTotal = 0;
+        long drift = 0;
+        int mismatched = 0;
+        for (Account account : repository.findAllById(indexById.keySet())) {
+            long actual = account.getTotalBalance().movePointRight(2).longValueExact();
+            long expected = expectedCents.get(indexById.get(account.getId()));
+            actualTotal += actual;
+            expectedTotal += expected;
+            drift += Math.abs(actual - expected);
+            if (actual != expected) mismatched++;
+        }
+        long initialTotal = INITIAL_BALANCE.movePointRight(2).longValueExact() * accountIds.length;
+        long conservedTotal = initialTotal + depositedCents.sum() - withdrawnCents.sum();
+        boolean conserved = unknownOutcomes.sum() == 0 && actualTotal == conservedTotal && mismatched == 0;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", threads);
+        report.put("accounts", accountIds.length);
+        report.put("operations", operations);
+        report.put("seconds", seconds);
+        report.put("throughputPerSecond", operations / seconds);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latencies.forEach((op, histogram) -> latency.put(op.name(), histogram.summary()));
+        report.put("latency", latency);
+        Map<String, Long> failureCounts = new LinkedHashMap<>();
+        failures.forEach((reason, count) -> failureCounts.put(reason, count.sum()));
+        report.put("failures", failureCounts);
+        report.put("unknownOutcomes", unknownOutcomes.sum());
+        report.put("expectedTotal", BigDecimal.valueOf(conservedTotal, 2));
+        report.put("actualTotal", BigDecimal.valueOf(actualTotal, 2));
+        report.put("lostOrCreated", BigDecimal.valueOf(actualTotal - conservedTotal, 2));
+        report.put("perAccountExpectedTotal", BigDecimal.valueOf(expectedTotal, 2));
+        report.put("accountsWithLostUpdates", mismatched);
+        report.put("absoluteDrift", BigDecimal.valueOf(drift, 2));
+        report.put("conserved", conserved);
+
+        String rendered = json.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        System.out.println(rendered);
+        Path output = Path.of(options.getOrDefault("report", "target/loadtest-report.json"));
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+        Files.writeString(output, rendered);
+        System.out.println(conserved
+                ? "OK: el dinero se conservó"
+                : "FALLO: el dinero no se conservó (" + mismatched + " cuentas con diferencias)");
+        return conserved;
+    }
+
+    private Response post(String path, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode node = response.body().length == 0 ? null : json.readTree(response.body());
+        if (path.startsWith("/api/customers") || path.startsWith("/api/accounts")) {
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("No se pudo preparar la carga: " + path + " -> " + response.statusCode());
+            }
+        }
+        return new Response(response.statusCode(), node);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 3) throw new IllegalArgumentException("mix debe ser depósito:retiro:transferencia");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+
+    private record Response(int status, JsonNode body) {
+    }
+}
@@ -2,8 +2,10 @@ package com.bank.atlasbank;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AtlasBankApplication {
 
     public static void main(String[] args) {
@@ -5,6 +5,7 @@ import com.bank.atlasbank.admin.AdminRepository;
 import com.bank.atlasbank.customer.Customer;
 import com.bank.atlasbank.customer.CustomerRepository;
 import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
  * Garantiza que siempre haya al menos un admin y un cliente funcionales.
  */
 @Component
+@DependsOn("sequenceAligner")
 public class DataInitializer {
 
     private final AdminRepository adminRepository;
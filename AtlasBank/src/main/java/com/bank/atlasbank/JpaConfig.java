@@ -0,0 +1,30 @@
+package com.bank.atlasbank;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class JpaConfig implements HibernatePropertiesCustomizer {
+
+    private final int batchSize;
+    private final int batchFetchSize;
+
+    public JpaConfig(@Value("${atlasbank.jpa.batch-size:50}") int batchSize,
+                     @Value("${atlasbank.jpa.batch-fetch-size:50}") int batchFetchSize) {
+        this.batchSize = batchSize;
+        this.batchFetchSize = batchFetchSize;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        // Batching de INSERT/UPDATE; requiere ids por secuencia (IDENTITY lo desactiva)
+        hibernateProperties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.putIfAbsent("hibernate.order_inserts", true);
+        hibernateProperties.putIfAbsent("hibernate.order_updates", true);
+        // Relaciones LAZY que no cubre un grafo: se inicializan por lotes con IN, no una a una
+        hibernateProperties.putIfAbsent("hibernate.default_batch_fetch_size", batchFetchSize);
+    }
+}
@@ -0,0 +1,49 @@
+package com.bank.atlasbank;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Las tablas de clientes, cuentas y movimientos pasaron de IDENTITY a secuencias.
+ * En una BD existente las secuencias nacen en 1 aunque ya haya filas, así que al
+ * arrancar se adelantan por encima del id máximo para no chocar con la PK.
+ */
+@Component
+public class SequenceAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceAligner.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[][] SEQUENCES = {
+            {"customers", "customers_seq"},
+            {"accounts", "accounts_seq"},
+            {"bank_transactions", "bank_transactions_seq"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // La EntityManagerFactory garantiza que el esquema ya fue creado/actualizado
+    public SequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        for (String[] entry : SEQUENCES) {
+            String table = entry[0];
+            String sequence = entry[1];
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            Long next = jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+            // Con el optimizador pooled el valor leído es el tope del bloque
+            if (maxId != null && maxId > 0 && next != null && next - ALLOCATION_SIZE < maxId) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + ALLOCATION_SIZE + 1));
+                log.info("Secuencia {} alineada por encima de id {}", sequence, maxId);
+            }
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.bank.atlasbank.account;
 
 import com.bank.atlasbank.customer.Customer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "accounts")
+@NamedEntityGraph(name = Account.WITH_CUSTOMER, attributeNodes = @NamedAttributeNode("customer"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Account {
 
+    /** Grafo para los casos que leen el cliente: movimientos, caché de consulta y listados. */
+    public static final String WITH_CUSTOMER = "Account.customer";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -24,10 +34,19 @@ public class Account {
     @Column(nullable = false)
     private AccountType accountType;
 
+    // En cuentas con saldo repartido es solo la franja 0; ver getTotalBalance()
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
 
-    @ManyToOne(optional = false)
+    // Número de franjas de saldo; null o 1 para cuentas normales
+    @Column(name = "balance_slots")
+    private Integer balanceSlots;
+
+    @Formula("(case when balance_slots > 1 then (select coalesce(sum(s.balance), 0) "
+            + "from account_balance_slots s where s.account_id = id) else 0 end)")
+    private BigDecimal slotBalance;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id")
     private Customer customer;
 
@@ -71,6 +90,8 @@ public class Account {
         this.clabe = clabe;
     }
 
+    /** Saldo de la fila de la cuenta (franja 0). Para el saldo real usar {@link #getTotalBalance()}. */
+    @JsonIgnore
     public BigDecimal getBalance() {
         return balance;
     }
@@ -79,6 +100,26 @@ public class Account {
         this.balance = balance;
     }
 
+    @JsonProperty("balance")
+    public BigDecimal getTotalBalance() {
+        if (slotBalance == null || slotBalance.signum() == 0) return balance;
+        return balance == null ? slotBalance : balance.add(slotBalance);
+    }
+
+    public Integer getBalanceSlots() {
+        return balanceSlots;
+    }
+
+    @JsonIgnore
+    public boolean isSharded() {
+        return balanceSlots != null && balanceSlots > 1;
+    }
+
+    // Mantiene al día el total en memoria tras mover saldo de las franjas 1..K-1
+    void applySlotDelta(BigDecimal delta) {
+        slotBalance = slotBalance == null ? delta : slotBalance.add(delta);
+    }
+
     public Customer getCustomer() {
         return customer;
     }
@@ -0,0 +1,51 @@
+package com.bank.atlasbank.account;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Saldo total de una cuenta al cierre de {@code businessDate}: incluye todos los
+ * movimientos con {@code createdAt} anterior a las 00:00 del día siguiente. Las filas
+ * las inserta en bloque {@link BalanceCheckpointService}; la restricción única sirve
+ * además de índice para buscar el punto de control más cercano a una fecha.
+ */
+@Entity
+@Table(name = "account_balance_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_checkpoint", columnNames = {"account_id", "business_date"}))
+public class AccountBalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_checkpoints_seq")
+    @SequenceGenerator(name = "account_balance_checkpoints_seq", sequenceName = "account_balance_checkpoints_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "closing_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingBalance;
+
+    protected AccountBalanceCheckpoint() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.atlasbank.account;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface AccountBalanceCheckpointRepository extends JpaRepository<AccountBalanceCheckpoint, Long> {
+
+    /** Último cierre anterior a {@code date}; una búsqueda en el índice único. */
+    Optional<AccountBalanceCheckpoint> findFirstByAccountIdAndBusinessDateLessThanOrderByBusinessDateDesc(
+            Long accountId, LocalDate date);
+
+    /** Primer cierre en {@code date} o después, para cuentas sin cierres anteriores. */
+    Optional<AccountBalanceCheckpoint> findFirstByAccountIdAndBusinessDateGreaterThanEqualOrderByBusinessDateAsc(
+            Long accountId, LocalDate date);
+
+    @Query("select max(c.businessDate) from AccountBalanceCheckpoint c")
+    Optional<LocalDate> findLatestBusinessDate();
+}
@@ -0,0 +1,54 @@
+package com.bank.atlasbank.account;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Franja de saldo 1..K-1 de una cuenta con saldo repartido; la franja 0 es la
+ * columna {@code balance} de la propia cuenta. Solo se accede con sentencias
+ * directas de {@link AccountBalanceSlotRepository}, nunca cargando la entidad.
+ */
+@Entity
+@Table(name = "account_balance_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_slot", columnNames = {"account_id", "slot"}))
+public class AccountBalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_slots_seq")
+    @SequenceGenerator(name = "account_balance_slots_seq", sequenceName = "account_balance_slots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    protected AccountBalanceSlot() {
+    }
+
+    AccountBalanceSlot(Long accountId, int slot) {
+        this.accountId = accountId;
+        this.slot = slot;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
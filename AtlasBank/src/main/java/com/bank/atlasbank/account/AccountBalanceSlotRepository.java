@@ -0,0 +1,26 @@
+package com.bank.atlasbank.account;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    /** Suma atómica en BD: solo bloquea la fila de esa franja hasta el commit. */
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountBalanceSlot s set s.balance = s.balance + :delta where s.accountId = :accountId and s.slot = :slot")
+    int addToSlot(@Param("accountId") Long accountId, @Param("slot") int slot, @Param("delta") BigDecimal delta);
+
+    /** Bloquea todas las franjas de la cuenta en orden y devuelve [slot, balance]. */
+    @Query(value = "select slot, balance from account_balance_slots where account_id = :accountId order by slot for update",
+            nativeQuery = true)
+    List<Object[]> lockSlots(@Param("accountId") Long accountId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from AccountBalanceSlot s where s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -1,9 +1,12 @@
 package com.bank.atlasbank.account;
 
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -11,29 +14,47 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService service;
+    private final BalanceCheckpointService balanceCheckpointService;
+    // Compatibilidad: devuelve las entidades completas en lugar de AccountView
+    private final boolean legacyEntities;
 
-    public AccountController(AccountService service) {
+    public AccountController(AccountService service,
+                             BalanceCheckpointService balanceCheckpointService,
+                             @Value("${atlasbank.api.legacy-entities:false}") boolean legacyEntities) {
         this.service = service;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.legacyEntities = legacyEntities;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Account create(@Valid @RequestBody CreateAccountRequest request) {
-        return service.create(request);
+    public Object create(@Valid @RequestBody CreateAccountRequest request) {
+        return render(service.create(request));
     }
 
     @GetMapping
-    public List<Account> findAll() {
-        return service.findAll();
+    public List<?> findAll() {
+        return legacyEntities ? service.findAll() : service.findAllViews();
     }
 
     @GetMapping("/{id}")
-    public Account findById(@PathVariable Long id) {
-        return service.findById(id);
+    public Object findById(@PathVariable Long id) {
+        return render(service.findCachedById(id));
+    }
+
+    /** Saldo en un instante (ISO, p. ej. 2026-03-31T23:59:59), a partir del cierre diario más cercano. */
+    @GetMapping("/{id}/balance")
+    public BalanceAsOf balanceAsOf(@PathVariable Long id,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return balanceCheckpointService.balanceAsOf(id, at);
     }
 
     @GetMapping("/customer/{customerId}")
-    public List<Account> findByCustomer(@PathVariable String customerId) {
-        return service.findByCustomerId(customerId);
+    public List<?> findByCustomer(@PathVariable String customerId) {
+        return legacyEntities ? service.findByCustomerId(customerId) : service.findViewsByCustomerId(customerId);
+    }
+
+    private Object render(Account account) {
+        return legacyEntities ? account : AccountView.from(account);
     }
 }
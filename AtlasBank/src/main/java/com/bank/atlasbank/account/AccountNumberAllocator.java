@@ -0,0 +1,172 @@
+package com.bank.atlasbank.account;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Asigna números de cuenta y CLABEs únicos sin consultar la BD por cada apertura.
+ *
+ * Cada nodo reserva bloques de {@code atlasbank.account-numbers.block-size} números
+ * consecutivos adelantando la marca de agua de {@link AccountNumberBlock} en su propia
+ * transacción: el bloque es {@code [marca, marca + tamaño)}. Como la marca solo avanza,
+ * dos nodos nunca reciben números repetidos aunque usen tamaños de bloque distintos o
+ * el tamaño cambie entre reinicios. Dentro del bloque la asignación es un
+ * {@code getAndIncrement}; solo al agotarse se reserva otro.
+ *
+ * Los números se piden antes de abrir la transacción de la apertura: así la reserva
+ * nunca espera una segunda conexión del pool con la primera retenida, y si la apertura
+ * se revierte el bloque sigue reservado. Si el bloque se agota con una transacción en
+ * curso se lanza {@link IllegalStateException} en vez de anidar la reserva.
+ *
+ * Del mismo número de serie salen ambos identificadores:
+ * <ul>
+ *     <li>número de cuenta {@code AT-} + 10 dígitos + dígito Luhn</li>
+ *     <li>CLABE de 18 dígitos: banco 012, plaza 180, 11 dígitos de cuenta y dígito de control</li>
+ * </ul>
+ */
+@Component
+public class AccountNumberAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountNumberAllocator.class);
+
+    static final long MAX_SERIAL = 9_999_999_999L;
+    private static final String BANK_CODE = "012";
+    private static final String PLAZA_CODE = "180";
+    private static final int[] CLABE_WEIGHTS = {3, 7, 1};
+
+    private final LongSupplier blockSource;
+    private final long blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+
+    @Autowired
+    public AccountNumberAllocator(AccountNumberBlockRepository blocks,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${atlasbank.account-numbers.block-size:1000}") long blockSize) {
+        this.blockSize = blockSize;
+        this.blockSource = () -> reserveBlock(blocks, transactionTemplate);
+    }
+
+    AccountNumberAllocator(LongSupplier blockSource, long blockSize) {
+        this.blockSize = blockSize;
+        this.blockSource = blockSource;
+    }
+
+    private long reserveBlock(AccountNumberBlockRepository blocks, TransactionTemplate transactionTemplate) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    if (blocks.advance(AccountNumberBlock.HIGH_WATER, blockSize) == 0) {
+                        // Primera reserva contra esta BD
+                        blocks.saveAndFlush(new AccountNumberBlock(1 + blockSize));
+                        return 1L;
+                    }
+                    return blocks.findNextSerial(AccountNumberBlock.HIGH_WATER).orElseThrow() - blockSize;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Otro nodo creó la fila al mismo tiempo; la siguiente vuelta la adelanta
+                if (attempt > 0) throw e;
+            }
+        }
+    }
+
+    public AccountNumbers next() {
+        long serial = nextSerial();
+        return new AccountNumbers(accountNumber(serial), clabe(serial));
+    }
+
+    /** {@code count} números para una apertura masiva, no necesariamente consecutivos. */
+    public List<AccountNumbers> next(int count) {
+        List<AccountNumbers> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(next());
+        }
+        return numbers;
+    }
+
+    long nextSerial() {
+        while (true) {
+            Block block = current.get();
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                return serial;
+            }
+            refill(block);
+        }
+    }
+
+    // Solo se entra aquí una vez por bloque; el resto de hilos reintenta con el nuevo
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) return;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los números de cuenta se reservan antes de abrir la transacción");
+        }
+        long start = blockSource.getAsLong();
+        long end = start + blockSize;
+        if (end - 1 > MAX_SERIAL) {
+            throw new IllegalStateException("Se agotaron los números de cuenta disponibles");
+        }
+        current.set(new Block(start, end));
+        log.debug("Reservado bloque de números de cuenta [{}, {})", start, end);
+    }
+
+    static String accountNumber(long serial) {
+        String digits = String.format("%010d", serial);
+        return "AT-" + digits + luhnDigit(digits);
+    }
+
+    static String clabe(long serial) {
+        String body = BANK_CODE + PLAZA_CODE + String.format("%011d", serial);
+        return body + clabeCheckDigit(body);
+    }
+
+    static int luhnDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    static int clabeCheckDigit(String first17) {
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += ((first17.charAt(i) - '0') * CLABE_WEIGHTS[i % 3]) % 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public record AccountNumbers(String accountNumber, String clabe) {
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
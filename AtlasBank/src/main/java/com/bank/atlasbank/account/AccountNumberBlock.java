@@ -0,0 +1,36 @@
+package com.bank.atlasbank.account;
+
+import jakarta.persistence.*;
+
+/**
+ * Marca de agua de los números de cuenta: el siguiente número de serie que nadie ha
+ * reservado. Hay una sola fila y solo la adelanta {@link AccountNumberAllocator}.
+ */
+@Entity
+@Table(name = "account_number_blocks")
+public class AccountNumberBlock {
+
+    static final int HIGH_WATER = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "next_serial", nullable = false)
+    private long nextSerial;
+
+    protected AccountNumberBlock() {
+    }
+
+    AccountNumberBlock(long nextSerial) {
+        this.id = HIGH_WATER;
+        this.nextSerial = nextSerial;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getNextSerial() {
+        return nextSerial;
+    }
+}
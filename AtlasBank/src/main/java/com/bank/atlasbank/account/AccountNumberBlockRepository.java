@@ -0,0 +1,19 @@
+package com.bank.atlasbank.account;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, Integer> {
+
+    /** Suma atómica en BD: la fila queda bloqueada hasta el commit de la reserva. */
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountNumberBlock b set b.nextSerial = b.nextSerial + :size where b.id = :id")
+    int advance(@Param("id") int id, @Param("size") long size);
+
+    @Query("select b.nextSerial from AccountNumberBlock b where b.id = :id")
+    Optional<Long> findNextSerial(@Param("id") int id);
+}
@@ -0,0 +1,12 @@
+package com.bank.atlasbank.account;
+
+import java.math.BigDecimal;
+
+/**
+ * Se publica al abrir una cuenta, con el saldo con el que nace.
+ */
+public record AccountOpenedEvent(
+        Long accountId,
+        BigDecimal initialBalance
+) {
+}
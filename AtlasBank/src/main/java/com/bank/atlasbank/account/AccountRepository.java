@@ -1,10 +1,68 @@
 package com.bank.atlasbank.account;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
-    java.util.List<Account> findByCustomer_CustomerId(String customerId);
+
+    @EntityGraph(Account.WITH_CUSTOMER)
+    List<Account> findByCustomer_CustomerId(String customerId);
+
+    // Cuenta con su cliente en una sola consulta (customer es LAZY)
+    @EntityGraph(Account.WITH_CUSTOMER)
+    Optional<Account> findWithCustomerById(Long id);
+
+    @EntityGraph(Account.WITH_CUSTOMER)
+    List<Account> findWithCustomerByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Account.WITH_CUSTOMER)
+    List<Account> findAllWithCustomerBy();
+
+    // Proyecciones para la API: columnas de la cuenta y el customerId, sin cargar al cliente
+    @Query("""
+            select new com.bank.atlasbank.account.AccountView(
+                a.id, a.accountNumber, a.clabe, a.accountType, a.balance, a.slotBalance, c.customerId, a.createdAt)
+            from Account a join a.customer c order by a.id""")
+    List<AccountView> findAllViews();
+
+    @Query("""
+            select new com.bank.atlasbank.account.AccountView(
+                a.id, a.accountNumber, a.clabe, a.accountType, a.balance, a.slotBalance, c.customerId, a.createdAt)
+            from Account a join a.customer c where c.customerId = :customerId order by a.id""")
+    List<AccountView> findViewsByCustomerId(@Param("customerId") String customerId);
+
+    @Query("select a.balance from Account a where a.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") Long id);
+
+    /** Saldo de la fila bloqueándola hasta el fin de la transacción. */
+    @Query(value = "select balance from accounts where id = :id for update", nativeQuery = true)
+    Optional<BigDecimal> lockBalanceById(@Param("id") Long id);
+
+    /**
+     * Bloquea las filas en orden de id hasta el fin de la transacción. Se llama antes de
+     * cargar las cuentas, así la carga ya lee el saldo confirmado. Las cuentas con saldo
+     * repartido se saltan: sus abonos no tocan la fila y sus cargos la bloquean ellos mismos.
+     */
+    @Query(value = """
+            select id from accounts
+            where id in (:ids) and (balance_slots is null or balance_slots <= 1)
+            order by id for update""", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :delta where a.id = :id")
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Account a set a.balanceSlots = :slots where a.id = :id")
+    int updateBalanceSlots(@Param("id") Long id, @Param("slots") Integer slots);
 }
@@ -1,14 +1,24 @@
 package com.bank.atlasbank.account;
 
+import com.bank.atlasbank.common.cache.BoundedCache;
+import com.bank.atlasbank.common.cache.CacheStats;
 import com.bank.atlasbank.common.exception.BusinessException;
 import com.bank.atlasbank.customer.Customer;
 import com.bank.atlasbank.customer.CustomerService;
+import com.bank.atlasbank.customer.CustomerStatusChangedEvent;
+import com.bank.atlasbank.customer.CustomerUpdatedEvent;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,52 +29,181 @@ public class AccountService {
 
     private final AccountRepository repository;
     private final CustomerService customerService;
+    private final AccountNumberAllocator numberAllocator;
+    private final BalanceSlotService balanceSlots;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedCache<Long, Account> byId;
 
-    public AccountService(AccountRepository repository, CustomerService customerService) {
+    public AccountService(AccountRepository repository,
+                          CustomerService customerService,
+                          AccountNumberAllocator numberAllocator,
+                          BalanceSlotService balanceSlots,
+                          ApplicationEventPublisher eventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${atlasbank.cache.accounts.max-entries:10000}") int maxEntries,
+                          @Value("${atlasbank.cache.ttl-seconds:60}") long ttlSeconds) {
         this.repository = repository;
         this.customerService = customerService;
+        this.numberAllocator = numberAllocator;
+        this.balanceSlots = balanceSlots;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.byId = new BoundedCache<>("accounts", maxEntries, ttlSeconds * 1000);
     }
 
-    @Transactional
+    /**
+     * El número de cuenta se reserva antes de abrir la transacción; ver
+     * {@link AccountNumberAllocator}.
+     */
     public Account create(CreateAccountRequest request) {
         log.info("Procesando apertura de cuenta para cliente: {}", request.customerId());
-        Customer customer = customerService.findByCustomerId(request.customerId());
-
-        Account account = new Account();
-        account.setCustomer(customer);
-        account.setAccountType(request.accountType());
-        account.setBalance(request.initialBalance());
-        account.setAccountNumber(generateAccountNumber());
-        account.setClabe(generateClabe());
-        
-        Account saved = repository.save(account);
+        AccountNumberAllocator.AccountNumbers numbers = numberAllocator.next();
+
+        Account saved = transactionTemplate.execute(status -> {
+            Customer customer = customerService.findByCustomerId(request.customerId());
+
+            Account account = new Account();
+            account.setCustomer(customer);
+            account.setAccountType(request.accountType());
+            account.setBalance(request.initialBalance());
+            account.setAccountNumber(numbers.accountNumber());
+            account.setClabe(numbers.clabe());
+
+            Account created = repository.save(account);
+            eventPublisher.publishEvent(new AccountOpenedEvent(created.getId(), created.getTotalBalance()));
+            return created;
+        });
         log.info("Apertura exitosa. ID: {}, Número: {}", saved.getId(), saved.getAccountNumber());
         return saved;
     }
 
-    private String generateClabe() {
-        return "012" + (long)(Math.random() * 1000000000000000L);
+    /** Reserva números para {@link #openAll}; se llama antes de abrir la transacción del alta. */
+    public List<AccountNumberAllocator.AccountNumbers> reserveNumbers(int count) {
+        return numberAllocator.next(count);
+    }
+
+    /**
+     * Abre una cuenta por cliente con inserciones por lotes; pensado para altas masivas
+     * de clientes recién guardados en la misma transacción. {@code numbers} viene de
+     * {@link #reserveNumbers}, uno por cliente y en el mismo orden.
+     */
+    @Transactional
+    public List<Account> openAll(List<Customer> customers, List<AccountNumberAllocator.AccountNumbers> numbers,
+                                 AccountType accountType, BigDecimal initialBalance) {
+        List<Account> accounts = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Account account = new Account();
+            account.setCustomer(customers.get(i));
+            account.setAccountType(accountType);
+            account.setBalance(initialBalance);
+            account.setAccountNumber(numbers.get(i).accountNumber());
+            account.setClabe(numbers.get(i).clabe());
+            accounts.add(account);
+        }
+        List<Account> saved = repository.saveAll(accounts);
+        saved.forEach(a -> eventPublisher.publishEvent(new AccountOpenedEvent(a.getId(), a.getTotalBalance())));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Account> findAll() {
-        return repository.findAll();
+        return repository.findAllWithCustomerBy();
     }
 
+    @Transactional(readOnly = true)
+    public List<AccountView> findAllViews() {
+        return repository.findAllViews();
+    }
+
+    /**
+     * Lee siempre de la BD (o del contexto de persistencia de la transacción en
+     * curso). Es la búsqueda que usan los movimientos de dinero.
+     */
     public Account findById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new BusinessException("Cuenta no encontrada: " + id));
     }
 
+    /** Igual que {@link #findById}, cargando también al cliente en la misma consulta. */
+    public Account findWithCustomerById(Long id) {
+        return repository.findWithCustomerById(id)
+                .orElseThrow(() -> new BusinessException("Cuenta no encontrada: " + id));
+    }
+
+    /**
+     * Bloquea en la BD las filas de las cuentas, en orden de id, hasta el fin de la
+     * transacción en curso. Los movimientos lo llaman antes de cargar las cuentas: leen
+     * el saldo confirmado y nadie más lo cambia hasta el commit, tampoco desde otro nodo
+     * ni desde el cierre de intereses. Las cuentas con saldo repartido no se bloquean, así
+     * sus abonos no se esperan entre sí; {@link BalanceSlotService} bloquea la fila solo
+     * para los cargos.
+     */
+    public void lockForUpdate(Collection<Long> accountIds) {
+        repository.lockByIdIn(accountIds);
+    }
+
+    /**
+     * Búsqueda servida desde caché, solo para consultas. El saldo puede tener
+     * hasta un commit de retraso; nunca usar para validar ni mover dinero.
+     */
+    public Account findCachedById(Long id) {
+        return byId.get(id, key -> repository.findWithCustomerById(key).orElse(null))
+                .orElseThrow(() -> new BusinessException("Cuenta no encontrada: " + id));
+    }
+
+    public CacheStats cacheStats() {
+        return byId.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (event.sourceAccountId() != null) byId.invalidate(event.sourceAccountId());
+        if (event.targetAccountId() != null) byId.invalidate(event.targetAccountId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountUpdated(AccountUpdatedEvent event) {
+        byId.invalidate(event.accountId());
+    }
+
+    // Las cuentas en caché llevan embebido a su cliente
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerStatusChanged(CustomerStatusChangedEvent event) {
+        invalidateByCustomer(event.customerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerUpdated(CustomerUpdatedEvent event) {
+        invalidateByCustomer(event.customerId());
+    }
+
+    private void invalidateByCustomer(String customerId) {
+        if (customerId == null) return;
+        byId.invalidateIf(account -> account.getCustomer() != null
+                && customerId.equals(account.getCustomer().getCustomerId()));
+    }
+
+    @Transactional(readOnly = true)
     public List<Account> findByCustomerId(String customerId) {
         return repository.findByCustomer_CustomerId(customerId);
     }
 
+    @Transactional(readOnly = true)
+    public List<AccountView> findViewsByCustomerId(String customerId) {
+        return repository.findViewsByCustomerId(customerId);
+    }
+
     @Transactional
     public void deposit(Long accountId, BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException("El monto a depositar debe ser mayor a cero");
         }
         Account account = findById(accountId);
+        if (account.isSharded()) {
+            balanceSlots.credit(account, amount);
+            return;
+        }
         account.setBalance(account.getBalance().add(amount));
     }
 
@@ -74,13 +213,21 @@ public class AccountService {
             throw new BusinessException("El monto a retirar debe ser mayor a cero");
         }
         Account account = findById(accountId);
+        if (account.isSharded()) {
+            balanceSlots.debit(account, amount);
+            return;
+        }
         if (account.getBalance().compareTo(amount) < 0) {
             throw new BusinessException("Saldo insuficiente");
         }
         account.setBalance(account.getBalance().subtract(amount));
     }
 
-    private String generateAccountNumber() {
-        return "AT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    /** Activa (K > 1) o desactiva el saldo repartido en K franjas de una cuenta. */
+    @Transactional
+    public Account configureBalanceSlots(Long accountId, int slots) {
+        Account account = balanceSlots.configure(accountId, slots);
+        eventPublisher.publishEvent(new AccountUpdatedEvent(accountId));
+        return account;
     }
 }
@@ -0,0 +1,8 @@
+package com.bank.atlasbank.account;
+
+/**
+ * Se publica cuando cambia la configuración de una cuenta fuera de un movimiento
+ * (por ejemplo, el número de franjas de saldo), para invalidar cachés.
+ */
+public record AccountUpdatedEvent(Long accountId) {
+}
@@ -0,0 +1,32 @@
+package com.bank.atlasbank.account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cuenta tal como la expone la API. En lugar del cliente embebido lleva solo su
+ * {@code customerId}; {@code balance} es el saldo total, franjas incluidas.
+ */
+public record AccountView(
+        Long id,
+        String accountNumber,
+        String clabe,
+        AccountType accountType,
+        BigDecimal balance,
+        String customerId,
+        LocalDateTime createdAt
+) {
+    // Constructor de las consultas: saldo de la fila más el de las franjas
+    public AccountView(Long id, String accountNumber, String clabe, AccountType accountType,
+                       BigDecimal balance, BigDecimal slotBalance, String customerId, LocalDateTime createdAt) {
+        this(id, accountNumber, clabe, accountType,
+                slotBalance == null ? balance : balance.add(slotBalance), customerId, createdAt);
+    }
+
+    public static AccountView from(Account account) {
+        return new AccountView(account.getId(), account.getAccountNumber(), account.getClabe(),
+                account.getAccountType(), account.getTotalBalance(),
+                account.getCustomer() == null ? null : account.getCustomer().getCustomerId(),
+                account.getCreatedAt());
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.atlasbank.account;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Saldo de una cuenta en {@code at}, movimientos de ese instante incluidos.
+ * {@code checkpointDate} es el cierre diario del que se partió (null si no había
+ * ninguno y se partió del saldo actual) y {@code replayedTransactions} los
+ * movimientos que hubo que aplicar desde él.
+ */
+public record BalanceAsOf(
+        Long accountId,
+        String accountNumber,
+        LocalDateTime at,
+        BigDecimal balance,
+        LocalDate checkpointDate,
+        long replayedTransactions
+) {
+}
@@ -0,0 +1,216 @@
+package com.bank.atlasbank.account;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cierres diarios de saldo por cuenta y consultas de saldo a una fecha.
+ *
+ * Si se configura {@code atlasbank.balance-checkpoints.cron} (desactivado por omisión),
+ * tras cada medianoche se registra el saldo de cierre del día anterior de todas las
+ * cuentas, en bloques de ids de
+ * {@code chunk-size} cuentas con un único INSERT ... SELECT por bloque: saldo total
+ * actual menos el neto de los movimientos posteriores a ese día, que a esa hora son
+ * solo los de unos minutos. Si la aplicación estuvo parada se rellenan los días que
+ * falten, como mucho {@code max-catch-up-days}. Los cierres con más de
+ * {@code retention-days} días se borran en la misma pasada.
+ *
+ * El saldo en un instante parte del último cierre anterior a ese día y suma solo los
+ * movimientos desde entonces, así que el coste depende de la distancia al cierre y no
+ * de la antigüedad de la cuenta.
+ */
+@Service
+public class BalanceCheckpointService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    private static final String CHECKPOINT_CHUNK = """
+            insert into account_balance_checkpoints (id, account_id, business_date, closing_balance)
+            select nextval('account_balance_checkpoints_seq'), a.id, ?, %s - coalesce(n.net, 0)
+            from accounts a
+            left join (%s) n on n.account_id = a.id
+            where a.id >= ? and a.id < ? and a.created_at < ?
+              and not exists (select 1 from account_balance_checkpoints c
+                              where c.account_id = a.id and c.business_date = ?)"""
+            .formatted(BalanceSql.totalBalance("a"), BalanceSql.RANGE_NET_SINCE);
+
+    // Neto y número de movimientos de una cuenta en un intervalo, por los índices (cuenta, fecha)
+    private static final String REPLAY_AFTER_CHECKPOINT = accountNet("t.created_at >= ? and t.created_at <= ?");
+    private static final String REPLAY_BEFORE_CHECKPOINT = accountNet("t.created_at > ? and t.created_at < ?");
+    private static final String REPLAY_SINCE = accountNet("t.created_at > ?");
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final int chunkSize;
+    private final int maxCatchUpDays;
+    private final int retentionDays;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BalanceCheckpointService(AccountRepository accountRepository,
+                                    AccountBalanceCheckpointRepository checkpointRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${atlasbank.balance-checkpoints.chunk-size:5000}") int chunkSize,
+                                    @Value("${atlasbank.balance-checkpoints.max-catch-up-days:31}") int maxCatchUpDays,
+                                    @Value("${atlasbank.balance-checkpoints.retention-days:400}") int retentionDays) {
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxCatchUpDays = Math.max(1, maxCatchUpDays);
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "${atlasbank.balance-checkpoints.cron:-}")
+    public void scheduledCheckpoint() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate oldest = yesterday.minusDays(maxCatchUpDays - 1L);
+        LocalDate from = checkpointRepository.findLatestBusinessDate()
+                .map(latest -> latest.plusDays(1))
+                .filter(next -> next.isAfter(oldest))
+                .orElse(oldest);
+        try {
+            for (LocalDate day = from; !day.isAfter(yesterday); day = day.plusDays(1)) {
+                checkpoint(day);
+            }
+        } catch (BusinessException e) {
+            log.warn("Cierre de saldos omitido: {}", e.getMessage());
+        }
+        purgeExpired();
+    }
+
+    /**
+     * Borra los cierres con más de {@code retention-days} días; 0 o menos los conserva
+     * todos. Las consultas anteriores al cierre más antiguo siguen respondiéndose
+     * deshaciendo movimientos desde él, solo que más despacio.
+     */
+    public int purgeExpired() {
+        if (retentionDays <= 0) return 0;
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "delete from account_balance_checkpoints where business_date < ?", cutoff));
+        int count = deleted == null ? 0 : deleted;
+        if (count > 0) {
+            log.info("Cierres de saldo anteriores a {} borrados: {}", cutoff, count);
+        }
+        return count;
+    }
+
+    /** Registra el cierre de {@code businessDate} de las cuentas que aún no lo tengan. */
+    public Map<String, Object> checkpoint(LocalDate businessDate) {
+        if (businessDate == null || !businessDate.isBefore(LocalDate.now())) {
+            throw new BusinessException("Solo se registran cierres de días terminados");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("Ya hay un cierre de saldos en curso");
+        }
+        try {
+            long start = System.nanoTime();
+            Map<String, Object> range = jdbcTemplate.queryForMap("select min(id) as lo, max(id) as hi from accounts");
+            long first = range.get("lo") == null ? 1 : ((Number) range.get("lo")).longValue();
+            long last = range.get("hi") == null ? 0 : ((Number) range.get("hi")).longValue();
+            Timestamp dayEnd = Timestamp.valueOf(businessDate.plusDays(1).atStartOfDay());
+
+            long inserted = 0;
+            for (long from = first; from <= last; from += chunkSize) {
+                long chunkFrom = from;
+                long to = from + chunkSize;
+                Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(CHECKPOINT_CHUNK, businessDate,
+                        chunkFrom, to, dayEnd, chunkFrom, to, dayEnd, chunkFrom, to, dayEnd, businessDate));
+                inserted += rows == null ? 0 : rows;
+            }
+
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Cierre de saldos {}: {} cuentas en {} ms", businessDate, inserted, durationMs);
+            return Map.of("businessDate", businessDate, "accounts", inserted, "durationMs", durationMs);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Saldo de la cuenta en {@code at}, incluidos los movimientos de ese mismo instante. */
+    public BalanceAsOf balanceAsOf(Long accountId, LocalDateTime at) {
+        if (at == null || at.isAfter(LocalDateTime.now())) {
+            throw new BusinessException("La fecha de consulta no puede ser futura");
+        }
+        return snapshotTemplate.execute(status -> {
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new BusinessException("Cuenta no encontrada: " + accountId));
+            if (at.isBefore(account.getCreatedAt())) {
+                throw new BusinessException("La cuenta no existía en " + at);
+            }
+
+            LocalDate day = at.toLocalDate();
+            AccountBalanceCheckpoint before = checkpointRepository
+                    .findFirstByAccountIdAndBusinessDateLessThanOrderByBusinessDateDesc(accountId, day).orElse(null);
+            if (before != null) {
+                Replay replay = replay(REPLAY_AFTER_CHECKPOINT, accountId,
+                        Timestamp.valueOf(before.getBusinessDate().plusDays(1).atStartOfDay()), Timestamp.valueOf(at));
+                return new BalanceAsOf(accountId, account.getAccountNumber(), at,
+                        before.getClosingBalance().add(replay.net()), before.getBusinessDate(), replay.count());
+            }
+
+            // Sin cierres anteriores: se deshacen hacia atrás los movimientos hasta el siguiente
+            // cierre o, si tampoco lo hay, hasta el saldo actual
+            AccountBalanceCheckpoint after = checkpointRepository
+                    .findFirstByAccountIdAndBusinessDateGreaterThanEqualOrderByBusinessDateAsc(accountId, day).orElse(null);
+            if (after != null) {
+                Replay replay = replay(REPLAY_BEFORE_CHECKPOINT, accountId,
+                        Timestamp.valueOf(at), Timestamp.valueOf(after.getBusinessDate().plusDays(1).atStartOfDay()));
+                return new BalanceAsOf(accountId, account.getAccountNumber(), at,
+                        after.getClosingBalance().subtract(replay.net()), after.getBusinessDate(), replay.count());
+            }
+            Replay replay = replay(REPLAY_SINCE, accountId, Timestamp.valueOf(at));
+            return new BalanceAsOf(accountId, account.getAccountNumber(), at,
+                    account.getTotalBalance().subtract(replay.net()), null, replay.count());
+        });
+    }
+
+    private Replay replay(String sql, Long accountId, Timestamp... bounds) {
+        Object[] args = new Object[2 + 2 * bounds.length];
+        args[0] = accountId;
+        System.arraycopy(bounds, 0, args, 1, bounds.length);
+        args[1 + bounds.length] = accountId;
+        System.arraycopy(bounds, 0, args, 2 + bounds.length, bounds.length);
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new Replay(rs.getBigDecimal(1), rs.getLong(2)), args);
+    }
+
+    private static String accountNet(String condition) {
+        return """
+                select coalesce(sum(m.delta), 0), count(*) from (
+                    select %1$s as delta
+                    from bank_transactions t
+                    where t.source_account_id = ? and %2$s
+                    union all
+                    select t.amount
+                    from bank_transactions t
+                    where t.target_account_id = ? and %2$s
+                ) m""".formatted(BalanceSql.SOURCE_DELTA, condition);
+    }
+
+    private record Replay(BigDecimal net, long count) {
+    }
+}
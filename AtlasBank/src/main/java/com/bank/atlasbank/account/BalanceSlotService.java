@@ -0,0 +1,135 @@
+package com.bank.atlasbank.account;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Saldo repartido en K franjas para cuentas muy concurridas (recaudo, nómina).
+ *
+ * La franja 0 es la columna {@code balance} de la cuenta y las franjas 1..K-1 viven
+ * en {@code account_balance_slots}. Los abonos suman con un UPDATE atómico sobre una
+ * franja 1..K-1 al azar, así que solo compiten entre sí los que caen en la misma
+ * franja y nunca con los cargos. Por eso quien mueve dinero no bloquea antes la fila de
+ * estas cuentas (ver {@link AccountService#lockForUpdate}). Los cargos bloquean la fila de la cuenta y, si la
+ * franja 0 no alcanza, bloquean el resto de franjas en orden y toman prestado de
+ * ellas; como el total se calcula con todo bloqueado, "Saldo insuficiente" es exacto.
+ *
+ * Debe invocarse dentro de una transacción activa. Los cargos validan antes de
+ * modificar nada, y por eso {@code credit} y {@code debit} no pasan por un proxy
+ * transaccional: una {@link BusinessException}
+ * no marca para rollback la transacción de quien llama (un lote rechaza solo ese
+ * movimiento).
+ */
+@Service
+public class BalanceSlotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSlotService.class);
+
+    static final int MAX_SLOTS = 64;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BalanceSlotService(AccountRepository accountRepository, AccountBalanceSlotRepository slotRepository) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+    }
+
+    public void credit(Account account, BigDecimal amount) {
+        requireTransaction();
+        int slot = 1 + ThreadLocalRandom.current().nextInt(account.getBalanceSlots() - 1);
+        if (slotRepository.addToSlot(account.getId(), slot, amount) == 1) {
+            account.applySlotDelta(amount);
+            return;
+        }
+        // Las franjas se reconfiguraron desde que se cargó la cuenta
+        accountRepository.addToBalance(account.getId(), amount);
+        entityManager.refresh(account);
+    }
+
+    public void debit(Account account, BigDecimal amount) {
+        requireTransaction();
+        Long id = account.getId();
+        BigDecimal row = accountRepository.lockBalanceById(id)
+                .orElseThrow(() -> new BusinessException("Cuenta no encontrada: " + id));
+
+        if (row.compareTo(amount) < 0) {
+            List<Object[]> slots = slotRepository.lockSlots(id);
+            BigDecimal total = row;
+            for (Object[] slot : slots) {
+                total = total.add((BigDecimal) slot[1]);
+            }
+            if (total.compareTo(amount) < 0) {
+                throw new BusinessException("Saldo insuficiente");
+            }
+
+            BigDecimal need = amount.subtract(row);
+            BigDecimal borrowed = BigDecimal.ZERO;
+            for (int i = 0; i < slots.size() && borrowed.compareTo(need) < 0; i++) {
+                BigDecimal available = (BigDecimal) slots.get(i)[1];
+                if (available.signum() <= 0) continue;
+                BigDecimal take = available.min(need.subtract(borrowed));
+                slotRepository.addToSlot(id, ((Number) slots.get(i)[0]).intValue(), take.negate());
+                borrowed = borrowed.add(take);
+            }
+            accountRepository.addToBalance(id, borrowed);
+        }
+
+        accountRepository.addToBalance(id, amount.negate());
+        entityManager.refresh(account);
+    }
+
+    /**
+     * Reparte el saldo de la cuenta en {@code slots} franjas (1 o menos lo desactiva).
+     * El saldo existente se consolida en la franja 0 antes de recrear las demás.
+     */
+    @Transactional
+    public Account configure(Long accountId, int slots) {
+        if (slots > MAX_SLOTS) {
+            throw new BusinessException("El número de franjas no puede superar " + MAX_SLOTS);
+        }
+        accountRepository.lockBalanceById(accountId)
+                .orElseThrow(() -> new BusinessException("Cuenta no encontrada: " + accountId));
+
+        BigDecimal consolidated = BigDecimal.ZERO;
+        for (Object[] slot : slotRepository.lockSlots(accountId)) {
+            consolidated = consolidated.add((BigDecimal) slot[1]);
+        }
+        accountRepository.addToBalance(accountId, consolidated);
+        slotRepository.deleteByAccountId(accountId);
+
+        if (slots > 1) {
+            List<AccountBalanceSlot> created = new ArrayList<>(slots - 1);
+            for (int i = 1; i < slots; i++) {
+                created.add(new AccountBalanceSlot(accountId, i));
+            }
+            slotRepository.saveAll(created);
+        }
+        accountRepository.updateBalanceSlots(accountId, slots > 1 ? slots : null);
+
+        Account account = accountRepository.findWithCustomerById(accountId).orElseThrow();
+        entityManager.refresh(account);
+        log.info("Cuenta {}: saldo repartido en {} franjas", accountId, Math.max(slots, 1));
+        return account;
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BalanceSlotService requiere una transacción activa");
+        }
+    }
+}
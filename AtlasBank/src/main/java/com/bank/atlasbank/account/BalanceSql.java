@@ -0,0 +1,43 @@
+package com.bank.atlasbank.account;
+
+/**
+ * Fragmentos SQL del saldo compartidos por los procesos por lotes que leen con
+ * JDBC (intereses, estados de cuenta y cierres diarios).
+ */
+public final class BalanceSql {
+
+    /**
+     * Efecto de cada movimiento {@code t} sobre el saldo de su cuenta origen:
+     * DEPOSIT/INTEREST abonan y WITHDRAW/TRANSFER cargan. El abono de una TRANSFER
+     * al destino es {@code t.amount}.
+     */
+    public static final String SOURCE_DELTA =
+            "case when t.type in ('WITHDRAW', 'TRANSFER') then -t.amount else t.amount end";
+
+    /**
+     * Neto por cuenta de los movimientos desde un instante, para un bloque de ids.
+     * Parámetros: desde, hasta (excluido) e instante, dos veces (lado origen y destino).
+     * Columnas: {@code account_id}, {@code net}.
+     */
+    public static final String RANGE_NET_SINCE = """
+            select m.account_id, sum(m.delta) as net from (
+                select t.source_account_id as account_id, %s as delta
+                from bank_transactions t
+                where t.source_account_id >= ? and t.source_account_id < ? and t.created_at >= ?
+                union all
+                select t.target_account_id, t.amount
+                from bank_transactions t
+                where t.target_account_id >= ? and t.target_account_id < ? and t.created_at >= ?
+            ) m group by m.account_id""".formatted(SOURCE_DELTA);
+
+    private BalanceSql() {
+    }
+
+    /** Saldo total de la cuenta {@code alias} como {@link Account#getTotalBalance()}: franja 0 más el resto. */
+    public static String totalBalance(String alias) {
+        return """
+                %1$s.balance + case when %1$s.balance_slots > 1 then
+                    (select coalesce(sum(s.balance), 0) from account_balance_slots s where s.account_id = %1$s.id)
+                    else 0 end""".formatted(alias);
+    }
+}
@@ -1,8 +1,19 @@
 package com.bank.atlasbank.admin;
 
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.account.AccountView;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Map;
 import java.util.Optional;
 
@@ -13,6 +24,10 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    // Compatibilidad: devuelve las entidades completas en lugar de las vistas de la API
+    @Value("${atlasbank.api.legacy-entities:false}")
+    private boolean legacyEntities;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
         String username = credentials.get("username");
@@ -37,26 +52,115 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getDashboardStats());
     }
 
+    /**
+     * Monitoreo en vivo por SSE: eventos {@code transaction}, {@code fraud-block},
+     * {@code stats} (solo los campos que cambiaron) y {@code dropped} cuando la consola
+     * no dio abasto y se descartaron movimientos.
+     */
+    @GetMapping(value = "/monitoring/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMonitoring() {
+        return adminService.subscribeMonitoring();
+    }
+
+    @GetMapping("/monitoring")
+    public ResponseEntity<?> getMonitoringStats() {
+        return ResponseEntity.ok(adminService.getMonitoringStats());
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(adminService.getCacheStats());
+    }
+
+    @GetMapping("/signup-index")
+    public ResponseEntity<?> getSignupIndexStats() {
+        return ResponseEntity.ok(adminService.getSignupIndexStats());
+    }
+
+    @GetMapping("/customer-search-index")
+    public ResponseEntity<?> getCustomerSearchIndexStats() {
+        return ResponseEntity.ok(adminService.getCustomerSearchIndexStats());
+    }
+
+    @GetMapping("/metrics/transfers")
+    public ResponseEntity<?> getTransferMetrics() {
+        return ResponseEntity.ok(adminService.getTransferMetrics());
+    }
+
+    @GetMapping("/journal")
+    public ResponseEntity<?> getJournalStatus() throws IOException {
+        return ResponseEntity.ok(adminService.getJournalStatus());
+    }
+
+    @GetMapping("/journal/verify")
+    public ResponseEntity<?> verifyJournal() {
+        return ResponseEntity.ok(adminService.verifyJournal());
+    }
+
+    /** Cierre de intereses del día indicado (hoy si no se indica); relanzarlo retoma los bloques pendientes. */
+    @PostMapping("/interest/accrue")
+    public ResponseEntity<?> accrueInterest(@RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(adminService.accrueInterest(date));
+    }
+
+    @GetMapping("/interest/runs/{date}")
+    public ResponseEntity<?> getInterestAccrual(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(adminService.getInterestAccrual(date));
+    }
+
+    /** Cierre de saldos del día indicado (ayer si no se indica) para las cuentas que aún no lo tengan. */
+    @PostMapping("/balance-checkpoints")
+    public ResponseEntity<?> checkpointBalances(@RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(adminService.checkpointBalances(date));
+    }
+
+    /** Estados de cuenta del mes indicado (AAAA-MM, el anterior si no se indica) en CSV o TXT; relanzarlo solo genera los que falten. */
+    @PostMapping("/statements")
+    public ResponseEntity<?> generateStatements(@RequestParam(required = false)
+                                                @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+                                                @RequestParam(required = false) String format) {
+        return ResponseEntity.ok(adminService.generateStatements(month, format));
+    }
+
+    @PutMapping("/accounts/{id}/balance-slots")
+    public ResponseEntity<?> configureBalanceSlots(@PathVariable Long id, @RequestBody Map<String, Integer> body) {
+        Integer slots = body.get("slots");
+        if (slots == null) return ResponseEntity.badRequest().build();
+        Account account = adminService.configureBalanceSlots(id, slots);
+        return ResponseEntity.ok(legacyEntities ? account : AccountView.from(account));
+    }
+
     @GetMapping("/customers")
     public ResponseEntity<?> getCustomers() {
-        return ResponseEntity.ok(adminService.getAllCustomers());
+        return ResponseEntity.ok(legacyEntities ? adminService.getAllCustomers() : adminService.getAllCustomerViews());
+    }
+
+    /** Búsqueda paginada por prefijo o subcadena de nombre, email, customerId o teléfono. */
+    @GetMapping("/customers/search")
+    public ResponseEntity<?> searchCustomers(@RequestParam(required = false) String q,
+                                             @RequestParam(required = false) String status,
+                                             @RequestParam(required = false) Integer page,
+                                             @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(adminService.searchCustomers(q, status, page, size));
     }
 
     @PutMapping("/customers/{id}/status")
     public ResponseEntity<?> updateCustomerStatus(@PathVariable Long id, @RequestBody Map<String, String> body) {
         String status = body.get("status");
         if (status == null) return ResponseEntity.badRequest().build();
-        return ResponseEntity.ok(adminService.updateCustomerStatus(id, status));
+        return ResponseEntity.ok(render(adminService.updateCustomerStatus(id, status)));
     }
 
     @PostMapping("/customers/{id}/lock")
     public ResponseEntity<?> lockCustomer(@PathVariable Long id) {
-        return ResponseEntity.ok(adminService.lockCustomer(id));
+        return ResponseEntity.ok(render(adminService.lockCustomer(id)));
     }
 
     @PostMapping("/customers/{id}/unlock")
     public ResponseEntity<?> unlockCustomer(@PathVariable Long id) {
-        return ResponseEntity.ok(adminService.unlockCustomer(id));
+        return ResponseEntity.ok(render(adminService.unlockCustomer(id)));
     }
 
     @PostMapping("/customers/{id}/reset-password")
@@ -69,6 +173,10 @@ public class AdminController {
         }
 
         if (newPassword == null) return ResponseEntity.badRequest().build();
-        return ResponseEntity.ok(adminService.resetPassword(id, newPassword));
+        return ResponseEntity.ok(render(adminService.resetPassword(id, newPassword)));
+    }
+
+    private Object render(Customer customer) {
+        return legacyEntities ? customer : CustomerView.from(customer);
     }
 }
@@ -2,15 +2,37 @@ package com.bank.atlasbank.admin;
 
 import com.bank.atlasbank.customer.Customer;
 import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.customer.CustomerSearchIndex;
+import com.bank.atlasbank.customer.CustomerSearchPage;
+import com.bank.atlasbank.customer.CustomerService;
+import com.bank.atlasbank.customer.CustomerStatusChangedEvent;
+import com.bank.atlasbank.customer.CustomerUniquenessIndex;
+import com.bank.atlasbank.customer.CustomerUpdatedEvent;
+import com.bank.atlasbank.customer.CustomerView;
+import com.bank.atlasbank.account.Account;
 import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.account.AccountService;
+import com.bank.atlasbank.account.BalanceCheckpointService;
+import com.bank.atlasbank.common.cache.CacheStats;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.interest.InterestAccrualResult;
+import com.bank.atlasbank.interest.InterestAccrualService;
+import com.bank.atlasbank.journal.JournalService;
+import com.bank.atlasbank.statement.StatementRunResult;
+import com.bank.atlasbank.statement.StatementService;
+import com.bank.atlasbank.transaction.IdempotencyService;
 import com.bank.atlasbank.transaction.TransactionRepository;
+import com.bank.atlasbank.transaction.TransferMetrics;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.annotation.PostConstruct;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,17 +45,56 @@ public class AdminService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final Environment environment;
+    private final DashboardStatsAggregator statsAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CustomerService customerService;
+    private final AccountService accountService;
+    private final JournalService journalService;
+    private final TransferMetrics transferMetrics;
+    private final IdempotencyService idempotencyService;
+    private final CustomerUniquenessIndex uniquenessIndex;
+    private final CustomerSearchIndex searchIndex;
+    private final InterestAccrualService interestAccrualService;
+    private final StatementService statementService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final MonitoringFeed monitoringFeed;
 
     public AdminService(AdminRepository adminRepository, 
                         CustomerRepository customerRepository,
                         AccountRepository accountRepository,
                         TransactionRepository transactionRepository,
-                        Environment environment) {
+                        Environment environment,
+                        DashboardStatsAggregator statsAggregator,
+                        ApplicationEventPublisher eventPublisher,
+                        CustomerService customerService,
+                        AccountService accountService,
+                        JournalService journalService,
+                        TransferMetrics transferMetrics,
+                        IdempotencyService idempotencyService,
+                        CustomerUniquenessIndex uniquenessIndex,
+                        CustomerSearchIndex searchIndex,
+                        InterestAccrualService interestAccrualService,
+                        StatementService statementService,
+                        BalanceCheckpointService balanceCheckpointService,
+                        MonitoringFeed monitoringFeed) {
         this.adminRepository = adminRepository;
         this.customerRepository = customerRepository;
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
         this.environment = environment;
+        this.statsAggregator = statsAggregator;
+        this.eventPublisher = eventPublisher;
+        this.customerService = customerService;
+        this.accountService = accountService;
+        this.journalService = journalService;
+        this.transferMetrics = transferMetrics;
+        this.idempotencyService = idempotencyService;
+        this.uniquenessIndex = uniquenessIndex;
+        this.searchIndex = searchIndex;
+        this.interestAccrualService = interestAccrualService;
+        this.statementService = statementService;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.monitoringFeed = monitoringFeed;
     }
 
     @PostConstruct
@@ -41,38 +102,88 @@ public class AdminService {
     }
 
     public Map<String, Object> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        long totalUsers = customerRepository.count();
-        long pendingAccounts = customerRepository.findAll().stream()
-                .filter(c -> "PENDING".equalsIgnoreCase(c.getStatus()))
-                .count();
+        return statsAggregator.snapshot();
+    }
+
+    public SseEmitter subscribeMonitoring() {
+        return monitoringFeed.subscribe();
+    }
+
+    public Map<String, Object> getMonitoringStats() {
+        return monitoringFeed.stats();
+    }
+
+    public List<CacheStats> getCacheStats() {
+        return List.of(customerService.cacheStats(), accountService.cacheStats(), idempotencyService.cacheStats());
+    }
+
+    public Map<String, Object> getSignupIndexStats() {
+        return uniquenessIndex.stats();
+    }
+
+    public Map<String, Object> getCustomerSearchIndexStats() {
+        return searchIndex.stats();
+    }
+
+    public Map<String, Object> getTransferMetrics() {
+        return transferMetrics.snapshot();
+    }
+
+    public Map<String, Object> getJournalStatus() throws IOException {
+        return journalService.status();
+    }
+
+    public List<Map<String, Object>> verifyJournal() {
+        if (!journalService.isEnabled()) {
+            throw new BusinessException("El diario de movimientos no está habilitado");
+        }
+        return journalService.verify();
+    }
+
+    public InterestAccrualResult accrueInterest(LocalDate businessDate) {
+        return interestAccrualService.accrue(businessDate == null ? LocalDate.now() : businessDate);
+    }
+
+    public InterestAccrualResult getInterestAccrual(LocalDate businessDate) {
+        return interestAccrualService.status(businessDate);
+    }
 
-        LocalDateTime last24h = LocalDateTime.now().minusDays(1);
-        BigDecimal volume24h = transactionRepository.findAll().stream()
-                .filter(tx -> tx.getCreatedAt() != null && tx.getCreatedAt().isAfter(last24h))
-                .map(tx -> tx.getAmount())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Map<String, Object> checkpointBalances(LocalDate businessDate) {
+        return balanceCheckpointService.checkpoint(businessDate == null ? LocalDate.now().minusDays(1) : businessDate);
+    }
 
-        long riskAlerts = transactionRepository.findAll().stream()
-                .filter(tx -> tx.getAmount().compareTo(new BigDecimal("5000")) >= 0)
-                .count();
+    public StatementRunResult generateStatements(YearMonth month, String format) {
+        return statementService.generate(month == null ? YearMonth.now().minusMonths(1) : month,
+                format == null ? null : StatementService.parseFormat(format));
+    }
 
-        stats.put("totalUsers", totalUsers);
-        stats.put("pendingAccounts", pendingAccounts);
-        stats.put("volume24h", volume24h);
-        stats.put("riskAlerts", riskAlerts);
-        return stats;
+    public Account configureBalanceSlots(Long accountId, int slots) {
+        return accountService.configureBalanceSlots(accountId, slots);
     }
 
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<CustomerView> getAllCustomerViews() {
+        return customerRepository.findAllViews();
+    }
+
+    public CustomerSearchPage searchCustomers(String query, String status, Integer page, Integer size) {
+        return searchIndex.search(query, status, page, size);
+    }
+
+    @Transactional
     public Customer updateCustomerStatus(Long id, String status) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
+        String previousStatus = customer.getStatus();
         customer.setStatus(status.toUpperCase());
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerStatusChangedEvent(saved.getId(), saved.getCustomerId(), previousStatus, saved.getStatus()));
+        return saved;
     }
 
     public Customer lockCustomer(Long id) {
@@ -83,11 +194,14 @@ public class AdminService {
         return updateCustomerStatus(id, "ACTIVE");
     }
 
+    @Transactional
     public Customer resetPassword(Long id, String newPassword) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
         customer.setPassword(newPassword);
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerUpdatedEvent(saved.getCustomerId()));
+        return saved;
     }
 
     public Optional<Admin> authenticate(String username, String password) {
@@ -0,0 +1,133 @@
+package com.bank.atlasbank.admin;
+
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.customer.CustomerStatusChangedEvent;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import com.bank.atlasbank.transaction.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estadísticas del panel de administración mantenidas de forma incremental.
+ *
+ * Los contadores se actualizan con los eventos confirmados de movimientos y de
+ * cambios de estado de clientes. El volumen de 24h se guarda en cubetas de un
+ * minuto, así que leerlas cuesta lo mismo sin importar cuántas filas existan.
+ * Al arrancar se reconstruye todo desde la BD.
+ */
+@Component
+public class DashboardStatsAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsAggregator.class);
+
+    static final BigDecimal RISK_THRESHOLD = new BigDecimal("5000");
+    private static final int WINDOW_MINUTES = 24 * 60;
+
+    private final CustomerRepository customerRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong pendingAccounts = new AtomicLong();
+    private final AtomicLong riskAlerts = new AtomicLong();
+
+    private final long[] bucketMinute = new long[WINDOW_MINUTES];
+    private final BigDecimal[] bucketVolume = new BigDecimal[WINDOW_MINUTES];
+
+    public DashboardStatsAggregator(CustomerRepository customerRepository,
+                                    TransactionRepository transactionRepository) {
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        Arrays.fill(bucketVolume, BigDecimal.ZERO);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long users = customerRepository.count();
+        long pending = customerRepository.countByStatusIgnoreCase("PENDING");
+        long alerts = transactionRepository.countByAmountGreaterThanEqual(RISK_THRESHOLD);
+        LocalDateTime since = LocalDateTime.now().minusDays(1);
+
+        synchronized (bucketVolume) {
+            Arrays.fill(bucketMinute, 0L);
+            Arrays.fill(bucketVolume, BigDecimal.ZERO);
+            for (Object[] row : transactionRepository.findAmountsCreatedAfter(since)) {
+                addVolume((LocalDateTime) row[0], (BigDecimal) row[1]);
+            }
+        }
+        totalUsers.set(users);
+        pendingAccounts.set(pending);
+        riskAlerts.set(alerts);
+        log.info("Estadísticas del panel reconstruidas: {} clientes, {} pendientes, {} alertas", users, pending, alerts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (event.amount() == null) return;
+        if (event.amount().compareTo(RISK_THRESHOLD) >= 0) {
+            riskAlerts.incrementAndGet();
+        }
+        LocalDateTime createdAt = event.createdAt() == null ? LocalDateTime.now() : event.createdAt();
+        synchronized (bucketVolume) {
+            addVolume(createdAt, event.amount());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerStatusChanged(CustomerStatusChangedEvent event) {
+        if (event.previousStatus() == null) {
+            totalUsers.incrementAndGet();
+        } else if ("PENDING".equalsIgnoreCase(event.previousStatus())) {
+            pendingAccounts.decrementAndGet();
+        }
+        if ("PENDING".equalsIgnoreCase(event.newStatus())) {
+            pendingAccounts.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long now = toMinute(LocalDateTime.now());
+        BigDecimal volume = BigDecimal.ZERO;
+        synchronized (bucketVolume) {
+            for (int i = 0; i < WINDOW_MINUTES; i++) {
+                if (now - bucketMinute[i] < WINDOW_MINUTES) {
+                    volume = volume.add(bucketVolume[i]);
+                }
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", totalUsers.get());
+        stats.put("pendingAccounts", pendingAccounts.get());
+        stats.put("volume24h", volume);
+        stats.put("riskAlerts", riskAlerts.get());
+        return stats;
+    }
+
+    // Llamar con el monitor de bucketVolume tomado
+    private void addVolume(LocalDateTime createdAt, BigDecimal amount) {
+        long minute = toMinute(createdAt);
+        if (toMinute(LocalDateTime.now()) - minute >= WINDOW_MINUTES) return;
+        int slot = (int) Math.floorMod(minute, (long) WINDOW_MINUTES);
+        if (bucketMinute[slot] != minute) {
+            bucketMinute[slot] = minute;
+            bucketVolume[slot] = BigDecimal.ZERO;
+        }
+        bucketVolume[slot] = bucketVolume[slot].add(amount);
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+    }
+}
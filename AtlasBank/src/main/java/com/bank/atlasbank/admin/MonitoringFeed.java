@@ -0,0 +1,292 @@
+package com.bank.atlasbank.admin;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.security.FraudBlockedEvent;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canal SSE del monitoreo del panel de administración.
+ *
+ * Empuja a las consolas conectadas los movimientos confirmados, los bloqueos del
+ * antifraude y, cada intervalo, solo los campos de {@link DashboardStatsAggregator}
+ * que cambiaron. Quien publica serializa cada evento una vez y lo deja en el buffer
+ * acotado de cada consola sin bloquearse; un grupo pequeño de hilos escribe en las
+ * conexiones. Una consola cuyo envío lleva demasiado tiempo bloqueado se cierra y su
+ * hilo, que sigue atascado en la escritura hasta que el contenedor la corte, se repone
+ * con uno nuevo para que el resto de consolas no se quede sin emisores.
+ */
+@Component
+public class MonitoringFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoringFeed.class);
+
+    static final String TRANSACTION = "transaction";
+    static final String FRAUD_BLOCK = "fraud-block";
+    static final String STATS = "stats";
+    static final String DROPPED = "dropped";
+
+    private static final int BATCH = 64;
+
+    private final DashboardStatsAggregator statsAggregator;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long stallTimeoutMs;
+
+    private final ConcurrentHashMap<Long, MonitoringSubscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    // Hilos atascados en consolas ya cerradas, repuestos con hilos extra en el grupo
+    private int stalledSenders;
+
+    // Solo lo toca el hilo del planificador
+    private Map<String, Object> lastStats;
+
+    public MonitoringFeed(DashboardStatsAggregator statsAggregator,
+                          ObjectMapper objectMapper,
+                          @Value("${atlasbank.monitoring.buffer-size:256}") int bufferSize,
+                          @Value("${atlasbank.monitoring.max-subscribers:500}") int maxSubscribers,
+                          @Value("${atlasbank.monitoring.sender-threads:4}") int senderThreads,
+                          @Value("${atlasbank.monitoring.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${atlasbank.monitoring.stall-timeout-ms:15000}") long stallTimeoutMs) {
+        this.statsAggregator = statsAggregator;
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.stallTimeoutMs = stallTimeoutMs;
+        this.senderThreads = Math.max(1, senderThreads);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(this.senderThreads, this.senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "monitoring-sender-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Abre una conexión nueva; lo primero que recibe son las estadísticas completas. */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessException("Se alcanzó el máximo de consolas de monitoreo conectadas (" + maxSubscribers + ")");
+        }
+        MonitoringSubscriber subscriber = new MonitoringSubscriber(subscriberIds.incrementAndGet(), emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.put(subscriber.id(), subscriber);
+
+        subscriber.offerStats(statsAggregator.snapshot());
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        broadcast(TRANSACTION, event, false);
+    }
+
+    // Llega tras el commit de la transacción propia del bloqueo, no de la transferencia
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFraudBlocked(FraudBlockedEvent event) {
+        broadcast(FRAUD_BLOCK, event, true);
+    }
+
+    @Scheduled(fixedDelayString = "${atlasbank.monitoring.stats-interval-ms:2000}")
+    public void publishStats() {
+        if (subscribers.isEmpty()) {
+            lastStats = null;
+            return;
+        }
+        // Las consolas nuevas ya recibieron la foto completa al suscribirse
+        Map<String, Object> current = statsAggregator.snapshot();
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (lastStats != null) {
+            for (Map.Entry<String, Object> entry : current.entrySet()) {
+                if (!sameValue(lastStats.get(entry.getKey()), entry.getValue())) {
+                    delta.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        lastStats = current;
+
+        long now = System.currentTimeMillis();
+        for (MonitoringSubscriber subscriber : subscribers.values()) {
+            if (subscriber.stalledFor(now) > stallTimeoutMs) {
+                evicted.incrementAndGet();
+                log.warn("Consola de monitoreo {} sin drenar desde hace {} ms; se cierra", subscriber.id(), subscriber.stalledFor(now));
+                remove(subscriber);
+                subscriber.emitter().complete();
+                // complete() no desbloquea al hilo que está escribiendo: se repone
+                if (subscriber.abandonDrain()) {
+                    resizeSenders(1);
+                }
+                continue;
+            }
+            if (delta.isEmpty()) {
+                subscriber.offerHeartbeat();
+            } else {
+                subscriber.offerStats(delta);
+            }
+            schedule(subscriber);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long queued = 0;
+        long dropped = 0;
+        long delivered = 0;
+        for (MonitoringSubscriber subscriber : subscribers.values()) {
+            queued += subscriber.queued();
+            dropped += subscriber.droppedTotal();
+            delivered += subscriber.delivered();
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("bufferSize", bufferSize);
+        stats.put("published", published.get());
+        stats.put("queued", queued);
+        stats.put("delivered", delivered);
+        stats.put("dropped", dropped);
+        stats.put("evicted", evicted.get());
+        synchronized (senders) {
+            stats.put("stalledSenders", stalledSenders);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (MonitoringSubscriber subscriber : subscribers.values()) {
+            remove(subscriber);
+            subscriber.emitter().complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private void broadcast(String event, Object payload, boolean critical) {
+        if (subscribers.isEmpty()) return;
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo serializar el evento de monitoreo {}: {}", event, e.getMessage());
+            return;
+        }
+        published.incrementAndGet();
+        MonitoringSubscriber.Message message = new MonitoringSubscriber.Message(event, data, critical);
+        for (MonitoringSubscriber subscriber : subscribers.values()) {
+            subscriber.offer(message);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(MonitoringSubscriber subscriber) {
+        if (!subscriber.markScheduled()) return;
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.drainFinished();
+        }
+    }
+
+    /** Suma o quita un hilo por cada emisor atascado, sin bajar nunca del tamaño configurado. */
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            stalledSenders = Math.max(0, stalledSenders + delta);
+            int size = senderThreads + stalledSenders;
+            if (size > senders.getMaximumPoolSize()) {
+                senders.setMaximumPoolSize(size);
+                senders.setCorePoolSize(size);
+            } else {
+                senders.setCorePoolSize(size);
+                senders.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private void drain(MonitoringSubscriber subscriber) {
+        subscriber.drainStarted();
+        try {
+            while (subscriber.hasPending()) {
+                long dropped = subscriber.takeDroppedNotice();
+                if (dropped > 0) {
+                    send(subscriber, DROPPED, objectMapper.writeValueAsString(Map.of("count", dropped)));
+                }
+                List<MonitoringSubscriber.Message> batch = subscriber.takeBatch(BATCH);
+                for (MonitoringSubscriber.Message message : batch) {
+                    send(subscriber, message.event(), message.data());
+                }
+                Map<String, Object> stats = subscriber.takeStats();
+                if (stats != null) {
+                    send(subscriber, STATS, objectMapper.writeValueAsString(stats));
+                }
+                if (subscriber.takeHeartbeat()) {
+                    subscriber.emitter().send(SseEmitter.event().comment("latido"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // La consola se desconectó o la conexión ya se había cerrado
+            remove(subscriber);
+        } finally {
+            if (subscriber.drainFinished()) {
+                // Era un hilo atascado que ya se había repuesto: el grupo vuelve a su tamaño
+                resizeSenders(-1);
+            }
+        }
+        // Lo que llegó entre el último hasPending() y drainFinished()
+        if (subscriber.hasPending()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static void send(MonitoringSubscriber subscriber, String event, String data) throws IOException {
+        subscriber.emitter().send(SseEmitter.event().name(event).data(data));
+    }
+
+    private void remove(MonitoringSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber.id(), subscriber);
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
@@ -0,0 +1,186 @@
+package com.bank.atlasbank.admin;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Una consola conectada al canal de monitoreo con su buffer acotado.
+ *
+ * Los movimientos entran mientras haya sitio y si no se descartan y se cuentan. Las
+ * alertas de fraude desplazan al movimiento más antiguo. Los deltas de estadísticas
+ * no ocupan el buffer: se fusionan en un único mapa con el último valor de cada campo.
+ */
+final class MonitoringSubscriber {
+
+    /** Mensaje ya serializado; el mismo texto se comparte entre todas las consolas. */
+    record Message(String event, String data, boolean critical) {
+    }
+
+    private final long id;
+    private final SseEmitter emitter;
+    private final int capacity;
+
+    // Protegidos por el monitor de this
+    private final ArrayDeque<Message> queue;
+    private Map<String, Object> pendingStats;
+    private boolean heartbeatDue;
+    private long droppedSinceNotice;
+    private long droppedTotal;
+    private long delivered;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long drainStartedAt;
+    private volatile boolean closed;
+    // Protegido por el monitor de this, junto con drainStartedAt al cambiarlo
+    private boolean drainAbandoned;
+
+    MonitoringSubscriber(long id, SseEmitter emitter, int capacity) {
+        this.id = id;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    long id() {
+        return id;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /** Encola sin bloquear; false si el mensaje (u otro desplazado por él) se descartó. */
+    synchronized boolean offer(Message message) {
+        if (closed) return false;
+        if (queue.size() < capacity) {
+            queue.addLast(message);
+            return true;
+        }
+        if (message.critical()) {
+            Iterator<Message> it = queue.iterator();
+            while (it.hasNext()) {
+                if (!it.next().critical()) {
+                    it.remove();
+                    queue.addLast(message);
+                    dropped();
+                    return false;
+                }
+            }
+        }
+        dropped();
+        return false;
+    }
+
+    synchronized void offerStats(Map<String, Object> delta) {
+        if (closed) return;
+        if (pendingStats == null) {
+            pendingStats = new LinkedHashMap<>(delta);
+        } else {
+            pendingStats.putAll(delta);
+        }
+    }
+
+    /** Latido solo si la consola no tiene nada pendiente que ya le sirva de señal de vida. */
+    synchronized void offerHeartbeat() {
+        if (!closed && queue.isEmpty() && pendingStats == null) {
+            heartbeatDue = true;
+        }
+    }
+
+    synchronized boolean hasPending() {
+        return !closed && (!queue.isEmpty() || pendingStats != null || heartbeatDue || droppedSinceNotice > 0);
+    }
+
+    /** Aviso de descartes pendiente (y lo da por entregado), o -1 si no hay. */
+    synchronized long takeDroppedNotice() {
+        if (droppedSinceNotice == 0) return -1;
+        long count = droppedSinceNotice;
+        droppedSinceNotice = 0;
+        return count;
+    }
+
+    synchronized List<Message> takeBatch(int max) {
+        int n = Math.min(max, queue.size());
+        List<Message> batch = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            batch.add(queue.pollFirst());
+        }
+        delivered += n;
+        return batch;
+    }
+
+    synchronized Map<String, Object> takeStats() {
+        Map<String, Object> stats = pendingStats;
+        pendingStats = null;
+        return stats;
+    }
+
+    synchronized boolean takeHeartbeat() {
+        boolean due = heartbeatDue;
+        heartbeatDue = false;
+        return due;
+    }
+
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    synchronized void drainStarted() {
+        drainStartedAt = System.currentTimeMillis();
+    }
+
+    /** true si el envío que termina se había dado por perdido con {@link #abandonDrain()}. */
+    synchronized boolean drainFinished() {
+        boolean abandoned = drainAbandoned;
+        drainAbandoned = false;
+        drainStartedAt = 0;
+        scheduled.set(false);
+        return abandoned;
+    }
+
+    /**
+     * Da por perdido el envío en curso, cuyo hilo sigue atascado en la conexión.
+     * true solo la primera vez y si había un envío en curso.
+     */
+    synchronized boolean abandonDrain() {
+        if (drainStartedAt == 0 || drainAbandoned) return false;
+        drainAbandoned = true;
+        return true;
+    }
+
+    /** Milisegundos que lleva bloqueado el envío en curso, o 0 si no hay ninguno. */
+    long stalledFor(long now) {
+        long started = drainStartedAt;
+        return started == 0 ? 0 : now - started;
+    }
+
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        pendingStats = null;
+    }
+
+    synchronized long droppedTotal() {
+        return droppedTotal;
+    }
+
+    synchronized long delivered() {
+        return delivered;
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    private void dropped() {
+        droppedSinceNotice++;
+        droppedTotal++;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bank.atlasbank.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caché LRU acotada por tamaño y por TTL, con contadores de aciertos, fallos y
+ * expulsiones.
+ *
+ * La carga se hace fuera del lock. Cualquier invalidación ocurrida mientras se
+ * cargaba descarta el valor leído, así una lectura lenta no reinstala un dato viejo
+ * aunque la invalidación llegue justo después del commit que lo cambió.
+ */
+public final class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long invalidationEpoch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedCache(String name, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Devuelve el valor en caché o lo carga; si el cargador devuelve null no se guarda nada. */
+    public Optional<V> get(K key, Function<K, V> loader) {
+        long epoch;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits.increment();
+                    return Optional.of(entry.value);
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            misses.increment();
+            epoch = invalidationEpoch;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (epoch == invalidationEpoch) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /** Guarda un valor ya conocido, sin pasar por el cargador. */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidationEpoch++;
+        if (entries.remove(key) != null) invalidations.increment();
+    }
+
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        invalidationEpoch++;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next().value)) {
+                it.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized CacheStats stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return new CacheStats(name, entries.size(), maxEntries, h, m,
+                h + m == 0 ? 0.0 : (double) h / (h + m), evictions.sum(), invalidations.sum());
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
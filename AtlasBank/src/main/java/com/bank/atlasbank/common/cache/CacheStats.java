@@ -0,0 +1,13 @@
+package com.bank.atlasbank.common.cache;
+
+public record CacheStats(
+        String name,
+        int size,
+        int maxEntries,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions,
+        long invalidations
+) {
+}
@@ -0,0 +1,74 @@
+package com.bank.atlasbank.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de lectura opcional ({@code atlasbank.datasource.replica.enabled=true}).
+ *
+ * El primario se sigue configurando con {@code spring.datasource.*}; la réplica con
+ * {@code atlasbank.datasource.replica.url/username/password} y su pool con
+ * {@code atlasbank.datasource.replica.hikari.*}. Las transacciones de solo lectura
+ * declaradas por los servicios van a la réplica; los movimientos de dinero, cualquier
+ * escritura y las lecturas sueltas de los repositorios, al primario.
+ */
+@Configuration
+@ConditionalOnProperty(name = "atlasbank.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("atlasbank.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${atlasbank.datasource.replica.url}") String url,
+                                              @Value("${atlasbank.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${atlasbank.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRouting(@Qualifier("primaryDataSource") DataSource primary,
+                                                  @Qualifier("replicaDataSource") DataSource replica,
+                                                  @Value("${atlasbank.datasource.replica.route-reads:true}") boolean routeReads) {
+        return new ReplicaRoutingDataSource(primary, replica, routeReads);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRouting) {
+        return new LazyConnectionDataSourceProxy(replicaRouting);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${atlasbank.datasource.replica.max-staleness-ms:2000}") long maxStalenessMs) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(maxStalenessMs));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
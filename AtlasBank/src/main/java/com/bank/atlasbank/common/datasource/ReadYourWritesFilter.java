@@ -0,0 +1,51 @@
+package com.bank.atlasbank.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Fija al primario las peticiones cuyo cliente escribió hace menos de
+ * {@code atlasbank.datasource.replica.max-staleness-ms}.
+ */
+class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long maxStalenessMs;
+
+    ReadYourWritesFilter(long maxStalenessMs) {
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (wroteRecently(request)) {
+            ReplicaRouting.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.clear();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return false;
+        for (Cookie cookie : cookies) {
+            if (ReplicaRouting.LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return System.currentTimeMillis() - Long.parseLong(cookie.getValue()) < maxStalenessMs;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
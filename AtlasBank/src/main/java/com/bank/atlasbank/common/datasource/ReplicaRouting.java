@@ -0,0 +1,54 @@
+package com.bank.atlasbank.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Estado por hilo de la guardia de lecturas tras escrituras.
+ *
+ * Un hilo queda fijado al primario en cuanto escribe, y también cuando la petición trae
+ * la cookie {@value #LAST_WRITE_COOKIE} con una escritura más reciente que la demora
+ * tolerada. Al escribir dentro de una petición web se renueva esa cookie, así que las
+ * lecturas siguientes del mismo cliente no ven una réplica atrasada.
+ */
+public final class ReplicaRouting {
+
+    public static final String LAST_WRITE_COOKIE = "atlasbank-last-write";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> COOKIE_SENT = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    /** Se invoca al tomar una conexión de escritura; fuera de una petición web no hace nada. */
+    static void recordWrite() {
+        if (COOKIE_SENT.get() != null) return;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            PINNED.set(Boolean.TRUE);
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                response.addCookie(cookie);
+                COOKIE_SENT.set(Boolean.TRUE);
+            }
+        }
+    }
+
+    public static void clear() {
+        PINNED.remove();
+        COOKIE_SENT.remove();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bank.atlasbank.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envía las transacciones {@code readOnly} a la réplica y todo lo demás al primario.
+ *
+ * Solo cuentan las declaradas por la aplicación: las transacciones por defecto de los
+ * repositorios de Spring Data (un {@code findById} fuera de una transacción) también son
+ * de solo lectura, pero suelen ser la lectura previa a un {@code save} y no deben ver
+ * una réplica atrasada.
+ *
+ * Debe envolverse en un {@code LazyConnectionDataSourceProxy}: la conexión real se pide
+ * con la primera sentencia, cuando la marca de solo lectura ya está publicada.
+ *
+ * El envío de lecturas a la réplica puede apagarse en caliente (réplica atrasada o en
+ * mantenimiento); entonces todo va al primario.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    // Nombre que reciben las transacciones que abre el propio repositorio
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+
+    private volatile boolean routeReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, boolean routeReads) {
+        this.routeReads = routeReads;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public boolean isRouteReads() {
+        return routeReads;
+    }
+
+    public void setRouteReads(boolean routeReads) {
+        this.routeReads = routeReads;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return routeReads && !ReplicaRouting.isPinnedToPrimary() && !repositoryDefault() ? Target.REPLICA : Target.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReplicaRouting.recordWrite();
+        }
+        return Target.PRIMARY;
+    }
+
+    private static boolean repositoryDefault() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && name.startsWith(REPOSITORY_TRANSACTION_PREFIX);
+    }
+}
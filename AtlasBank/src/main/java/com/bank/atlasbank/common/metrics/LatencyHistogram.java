@@ -0,0 +1,87 @@
+package com.bank.atlasbank.common.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales: cada potencia
+ * de dos se divide en {@value #SUB_BUCKETS} tramos, así el error relativo de un
+ * percentil queda por debajo del 7 %.
+ *
+ * Registrar una muestra es calcular un índice e incrementar un contador atómico;
+ * no reserva memoria. Los percentiles se calculan al pedir el resumen.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(indexOf(nanos));
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** Mayor valor que cae en la cubeta {@code index}. */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /** Resumen en microsegundos: cuentas, tasa de error, media, p50, p99, p999 y máximo. */
+    public Map<String, Object> summary() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long errorCount = errors.sum();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errorCount);
+        summary.put("errorRate", count + errorCount == 0 ? 0.0 : (double) errorCount / (count + errorCount));
+        summary.put("meanMicros", count == 0 ? 0.0 : totalNanos.sum() / 1000.0 / count);
+        summary.put("p50Micros", percentile(snapshot, count, 0.50));
+        summary.put("p99Micros", percentile(snapshot, count, 0.99));
+        summary.put("p999Micros", percentile(snapshot, count, 0.999));
+        summary.put("maxMicros", maxNanos.get() / 1000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] snapshot, long count, double quantile) {
+        if (count == 0) return 0.0;
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return upperBoundOf(i) / 1000.0;
+        }
+        return upperBoundOf(snapshot.length - 1) / 1000.0;
+    }
+}
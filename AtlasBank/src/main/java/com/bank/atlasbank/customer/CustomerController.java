@@ -1,10 +1,13 @@
 package com.bank.atlasbank.customer;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -15,18 +18,33 @@ public class CustomerController {
 
     private final CustomerService service;
     private final com.bank.atlasbank.account.AccountService accountService;
+    private final CustomerImportService importService;
+    // Compatibilidad: devuelve las entidades completas en lugar de CustomerView
+    private final boolean legacyEntities;
 
-    public CustomerController(CustomerService service, com.bank.atlasbank.account.AccountService accountService) {
+    public CustomerController(CustomerService service, com.bank.atlasbank.account.AccountService accountService,
+                              CustomerImportService importService,
+                              @Value("${atlasbank.api.legacy-entities:false}") boolean legacyEntities) {
         this.service = service;
         this.accountService = accountService;
+        this.importService = importService;
+        this.legacyEntities = legacyEntities;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Customer create(@Valid @RequestBody CreateCustomerRequest request) {
+    public Object create(@Valid @RequestBody CreateCustomerRequest request) {
         Customer c = service.create(request);
         accountService.create(new com.bank.atlasbank.account.CreateAccountRequest(c.getCustomerId(), com.bank.atlasbank.account.AccountType.SAVINGS, java.math.BigDecimal.ZERO));
-        return c;
+        return render(c);
+    }
+
+    /** Alta masiva: el cuerpo es un CSV con encabezado o NDJSON con un cliente por línea. */
+    @PostMapping("/import")
+    public CustomerImportResult importCustomers(@RequestParam(required = false) String format,
+                                                HttpServletRequest request) throws IOException {
+        CustomerImportService.Format importFormat = CustomerImportService.parseFormat(format, request.getContentType());
+        return importService.importCustomers(request.getInputStream(), importFormat);
     }
 
     @PostMapping("/login")
@@ -52,12 +70,16 @@ public class CustomerController {
     }
 
     @GetMapping
-    public List<Customer> findAll() {
-        return service.findAll();
+    public List<?> findAll() {
+        return legacyEntities ? service.findAll() : service.findAllViews();
     }
 
     @GetMapping("/{id}")
-    public Customer findById(@PathVariable Long id) {
-        return service.findById(id);
+    public Object findById(@PathVariable Long id) {
+        return render(service.findById(id));
+    }
+
+    private Object render(Customer customer) {
+        return legacyEntities ? customer : CustomerView.from(customer);
     }
 }
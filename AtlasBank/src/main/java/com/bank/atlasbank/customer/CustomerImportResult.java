@@ -0,0 +1,17 @@
+package com.bank.atlasbank.customer;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva. {@code errors} se corta en las primeras
+ * 1000 filas rechazadas; {@code rejected} las cuenta todas.
+ */
+public record CustomerImportResult(
+        long imported,
+        long rejected,
+        long durationMs,
+        List<RowError> errors
+) {
+    public record RowError(int line, String customerId, String message) {
+    }
+}
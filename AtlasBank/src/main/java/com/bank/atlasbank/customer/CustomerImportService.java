@@ -0,0 +1,296 @@
+package com.bank.atlasbank.customer;
+
+import com.bank.atlasbank.account.AccountNumberAllocator;
+import com.bank.atlasbank.account.AccountService;
+import com.bank.atlasbank.account.AccountType;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de clientes desde un stream CSV o NDJSON, cada uno con su cuenta
+ * SAVINGS por defecto.
+ *
+ * Las filas se procesan en bloques de {@code atlasbank.import.chunk-size}: la unicidad
+ * de customerId y email se valida para todo el bloque con dos consultas {@code in}
+ * (limitadas a lo que {@link CustomerUniquenessIndex} no descarta), y
+ * los clientes y cuentas válidos se insertan por lotes en una transacción por bloque.
+ * Una fila inválida se reporta y no detiene el resto; la memoria usada no depende del
+ * tamaño del archivo.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS =
+            List.of("customerId", "fullName", "firstName", "lastName", "email", "phone", "password");
+
+    public enum Format { CSV, NDJSON }
+
+    private final CustomerRepository repository;
+    private final CustomerUniquenessIndex uniquenessIndex;
+    private final CustomerSearchIndex searchIndex;
+    private final AccountService accountService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public CustomerImportService(CustomerRepository repository,
+                                 CustomerUniquenessIndex uniquenessIndex,
+                                 CustomerSearchIndex searchIndex,
+                                 AccountService accountService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${atlasbank.import.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.uniquenessIndex = uniquenessIndex;
+        this.searchIndex = searchIndex;
+        this.accountService = accountService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /** Formato pedido explícitamente o, si no, deducido del Content-Type (NDJSON por defecto). */
+    public static Format parseFormat(String value, String contentType) {
+        if (value == null || value.isBlank()) {
+            return contentType != null && contentType.toLowerCase().contains("csv") ? Format.CSV : Format.NDJSON;
+        }
+        try {
+            return Format.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato de importación no soportado: " + value);
+        }
+    }
+
+    public CustomerImportResult importCustomers(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+
+        int[] columns = format == Format.CSV ? readCsvHeader(reader) : null;
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = columns == null ? 0 : 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            try {
+                chunk.add(new Row(lineNumber, columns == null ? parseJson(line) : parseCsv(line, columns)));
+            } catch (BusinessException e) {
+                progress.reject(lineNumber, null, e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        progress.errors.sort(Comparator.comparingInt(CustomerImportResult.RowError::line));
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Importación {}: {} clientes creados, {} filas rechazadas en {} ms",
+                format, progress.imported, progress.rejected, durationMs);
+        return new CustomerImportResult(progress.imported, progress.rejected, durationMs, progress.errors);
+    }
+
+    private void importChunk(List<Row> rows, Progress progress) {
+        List<Customer> customers = new ArrayList<>(rows.size());
+        List<Row> accepted = new ArrayList<>(rows.size());
+        Set<String> ids = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Row row : rows) {
+            try {
+                Customer customer = validate(row.request());
+                if (ids.contains(customer.getCustomerId())) {
+                    throw new BusinessException("customerId repetido en el archivo");
+                }
+                if (emails.contains(customer.getEmail())) {
+                    throw new BusinessException("email repetido en el archivo");
+                }
+                // Solo una fila aceptada reserva su customerId y su email
+                ids.add(customer.getCustomerId());
+                emails.add(customer.getEmail());
+                customers.add(customer);
+                accepted.add(row);
+            } catch (BusinessException e) {
+                progress.reject(row.line(), row.request().customerId(), e.getMessage());
+            }
+        }
+        if (customers.isEmpty()) return;
+
+        // Solo se consultan los valores que el índice de unicidad no descarta
+        ids.removeIf(id -> !uniquenessIndex.mightContainCustomerId(id));
+        emails.removeIf(email -> !uniquenessIndex.mightContainEmail(email));
+        Set<String> existingIds = ids.isEmpty() ? Set.of() : new HashSet<>(repository.findExistingCustomerIds(ids));
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : new HashSet<>(repository.findExistingEmails(emails));
+        List<Customer> fresh = new ArrayList<>(customers.size());
+        List<Row> freshRows = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (existingIds.contains(customer.getCustomerId())) {
+                progress.reject(accepted.get(i).line(), customer.getCustomerId(), "Ya existe un cliente con ese customerId");
+            } else if (existingEmails.contains(customer.getEmail())) {
+                progress.reject(accepted.get(i).line(), customer.getCustomerId(), "Ya existe un cliente con ese email");
+            } else {
+                fresh.add(customer);
+                freshRows.add(accepted.get(i));
+            }
+        }
+        if (fresh.isEmpty()) return;
+
+        // Los números de cuenta se reservan fuera de la transacción del bloque
+        List<AccountNumberAllocator.AccountNumbers> numbers = accountService.reserveNumbers(fresh.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Customer> saved = repository.saveAll(fresh);
+                accountService.openAll(saved, numbers, AccountType.SAVINGS, BigDecimal.ZERO);
+                saved.forEach(c -> eventPublisher.publishEvent(
+                        new CustomerStatusChangedEvent(c.getId(), c.getCustomerId(), null, c.getStatus())));
+            });
+            fresh.forEach(c -> {
+                uniquenessIndex.add(c.getCustomerId(), c.getEmail());
+                searchIndex.add(c);
+            });
+            progress.imported += fresh.size();
+        } catch (DataAccessException e) {
+            // Normalmente una carrera con otra alta del mismo cliente: se rechaza el bloque entero
+            log.warn("Importación: bloque de {} filas rechazado: {}", fresh.size(), e.getMostSpecificCause().getMessage());
+            for (int i = 0; i < fresh.size(); i++) {
+                progress.reject(freshRows.get(i).line(), fresh.get(i).getCustomerId(),
+                        "No se pudo guardar el bloque; reintenta estas filas");
+            }
+        }
+    }
+
+    private Customer validate(CreateCustomerRequest request) {
+        Set<ConstraintViolation<CreateCustomerRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new BusinessException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining(" | ")));
+        }
+        return CustomerService.newCustomer(request);
+    }
+
+    private CreateCustomerRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, CreateCustomerRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    // Posición de cada columna conocida dentro de la fila, o -1 si no viene
+    private static int[] readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new BusinessException("El archivo CSV está vacío");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            positions.put(names.get(i).trim(), i);
+        }
+        if (!positions.containsKey("customerId") || !positions.containsKey("email")) {
+            throw new BusinessException("El encabezado CSV debe incluir customerId y email");
+        }
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = positions.getOrDefault(CSV_COLUMNS.get(i), -1);
+        }
+        return columns;
+    }
+
+    private static CreateCustomerRequest parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i] >= 0 && columns[i] < fields.size() ? fields.get(columns[i]) : null;
+        }
+        return new CreateCustomerRequest(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+    }
+
+    // Campos separados por coma; las comillas dobles admiten comas y "" escapadas (sin saltos de línea)
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BusinessException("Comillas sin cerrar en la fila CSV");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private record Row(int line, CreateCustomerRequest request) {
+    }
+
+    private static final class Progress {
+
+        private long imported;
+        private long rejected;
+        private final List<CustomerImportResult.RowError> errors = new ArrayList<>();
+
+        void reject(int line, String customerId, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CustomerImportResult.RowError(line, customerId, message));
+            }
+        }
+    }
+}
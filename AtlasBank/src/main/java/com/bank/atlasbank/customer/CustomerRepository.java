@@ -1,10 +1,65 @@
 package com.bank.atlasbank.customer;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     Optional<Customer> findByCustomerId(String customerId);
+    long countByStatusIgnoreCase(String status);
+
+    @Query("select c.customerId from Customer c where c.customerId in :customerIds")
+    List<String> findExistingCustomerIds(@Param("customerIds") Collection<String> customerIds);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Proyección para la API: solo las columnas que se muestran
+    @Query("""
+            select new com.bank.atlasbank.customer.CustomerView(
+                c.id, c.customerId, c.fullName, c.email, c.phone, c.status, c.roundupEnabled, c.createdAt)
+            from Customer c order by c.id""")
+    List<CustomerView> findAllViews();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.customerId, c.email from Customer c")
+    Stream<Object[]> streamIdentities();
+
+    @Query("""
+            select new com.bank.atlasbank.customer.CustomerView(
+                c.id, c.customerId, c.fullName, c.email, c.phone, c.status, c.roundupEnabled, c.createdAt)
+            from Customer c where c.id in :ids""")
+    List<CustomerView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Campos que indexa {@link CustomerSearchIndex}, en orden de id. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.id, c.customerId, c.fullName, c.email, c.phone, c.status from Customer c order by c.id")
+    Stream<Object[]> streamSearchFields();
+
+    // Búsqueda directa en BD mientras el índice en memoria no está listo
+    @Query(value = """
+            select new com.bank.atlasbank.customer.CustomerView(
+                c.id, c.customerId, c.fullName, c.email, c.phone, c.status, c.roundupEnabled, c.createdAt)
+            from Customer c
+            where (:status is null or c.status = :status)
+              and (:pattern is null or lower(c.fullName) like :pattern or lower(c.email) like :pattern
+                   or lower(c.customerId) like :pattern or c.phone like :pattern)
+            order by c.id""",
+            countQuery = """
+            select count(c) from Customer c
+            where (:status is null or c.status = :status)
+              and (:pattern is null or lower(c.fullName) like :pattern or lower(c.email) like :pattern
+                   or lower(c.customerId) like :pattern or c.phone like :pattern)""")
+    Page<CustomerView> searchViews(@Param("pattern") String pattern, @Param("status") String status, Pageable pageable);
 }
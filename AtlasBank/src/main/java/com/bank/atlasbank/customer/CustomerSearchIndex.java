@@ -0,0 +1,375 @@
+package com.bank.atlasbank.customer;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria para la búsqueda de clientes del panel de administración por
+ * nombre, email, customerId y teléfono, sin distinguir mayúsculas ni acentos.
+ *
+ * Cada cliente se reduce a palabras (las del nombre, el email, el customerId y los
+ * dígitos del teléfono) y cada palabra, precedida de dos marcas de inicio, a
+ * trigramas; cada trigrama guarda la lista ordenada de clientes que lo contienen. Un
+ * término de 3 o más caracteres se busca como subcadena intersecando las listas de
+ * sus trigramas; uno de 1 o 2 caracteres, como prefijo de palabra con el trigrama que
+ * empieza por las marcas. Los candidatos se confirman contra el texto normalizado del
+ * cliente, y primero salen los que coinciden por prefijo de palabra. En cuanto las
+ * coincidencias por prefijo llenan la página pedida se deja de recorrer y el total se
+ * estima por la proporción recorrida ({@link CustomerSearchPage#totalExact()} false).
+ *
+ * Se llena al arrancar desde la BD y se mantiene con cada alta ({@link #add}) y cada
+ * cambio de estado. Mientras carga, las búsquedas van a la BD con LIKE. Como
+ * {@link CustomerUniquenessIndex}, es por nodo.
+ */
+@Component
+public class CustomerSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    private static final char MARK = '\u0001';
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final CustomerRepository repository;
+    private final int maxTerms;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Por cliente, en orden de inserción (ordinal): id, texto normalizado y estado
+    private long[] ids = new long[1024];
+    private String[] texts = new String[1024];
+    private byte[] statuses = new byte[1024];
+    private int size;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<String> statusNames = new ArrayList<>();
+    private final Map<String, Postings> grams = new HashMap<>();
+    private volatile boolean ready;
+
+    public CustomerSearchIndex(CustomerRepository repository,
+                               @Value("${atlasbank.customer-search.max-terms:8}") int maxTerms) {
+        this.repository = repository;
+        this.maxTerms = Math.max(1, maxTerms);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.nanoTime();
+        // Las altas que lleguen durante la carga se añaden igualmente; index() ignora duplicados
+        try (Stream<Object[]> rows = repository.streamSearchFields()) {
+            rows.forEach(row -> {
+                lock.writeLock().lock();
+                try {
+                    index((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                            (String) row[5]);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+        ready = true;
+        log.info("Índice de búsqueda de clientes listo: {} clientes, {} trigramas en {} ms",
+                size, grams.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void add(Customer customer) {
+        lock.writeLock().lock();
+        try {
+            index(customer.getId(), customer.getCustomerId(), customer.getFullName(), customer.getEmail(),
+                    customer.getPhone(), customer.getStatus());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerStatusChanged(CustomerStatusChangedEvent event) {
+        // Las altas (sin estado previo) llegan por add(), con todos sus campos
+        if (event.previousStatus() == null || event.id() == null) return;
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalOf(event.id());
+            if (ordinal >= 0) statuses[ordinal] = statusCode(event.newStatus());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Página {@code page} (desde 0) de los clientes que contienen todos los términos de
+     * {@code query} y, si se indica, están en {@code status}.
+     */
+    public CustomerSearchPage search(String query, String status, Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) throw new BusinessException("La página no puede ser negativa");
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String statusFilter = status == null || status.isBlank() ? null : status.trim().toUpperCase(Locale.ROOT);
+        List<String> terms = terms(query);
+        if (terms.size() > maxTerms) {
+            throw new BusinessException("La búsqueda admite como mucho " + maxTerms + " términos");
+        }
+
+        if (!ready) {
+            String pattern = query == null || query.isBlank() ? null : "%" + query.trim().toLowerCase(Locale.ROOT) + "%";
+            Page<CustomerView> result = repository.searchViews(pattern, statusFilter,
+                    PageRequest.of(pageNumber, pageSize));
+            return new CustomerSearchPage(result.getContent(), result.getTotalElements(), true,
+                    pageNumber, pageSize, false);
+        }
+
+        long offset = (long) pageNumber * pageSize;
+        List<Long> pageIds = new ArrayList<>(pageSize);
+        Total total;
+        lock.readLock().lock();
+        try {
+            total = collect(terms, statusFilter, offset, pageSize, pageIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, CustomerView> views = pageIds.isEmpty() ? Map.of()
+                : repository.findViewsByIdIn(pageIds).stream()
+                        .collect(Collectors.toMap(CustomerView::id, Function.identity()));
+        List<CustomerView> items = pageIds.stream().map(views::get).filter(v -> v != null).toList();
+        return new CustomerSearchPage(items, total.count(), total.exact(), pageNumber, pageSize, true);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("customers", size);
+            stats.put("trigrams", grams.size());
+            stats.put("postings", grams.values().stream().mapToLong(p -> p.size).sum());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    // Recorre las coincidencias y guarda los ids de la página pedida, primero las de
+    // prefijo de palabra y luego el resto. Si las de prefijo llenan la página y sobra al
+    // menos una, el resto del recorrido no cambia la página: se corta y se estima el total
+    private Total collect(List<String> terms, String status, long offset, int limit, List<Long> pageIds) {
+        byte statusCode = -1;
+        if (status != null) {
+            int code = statusNames.indexOf(status);
+            if (code < 0) return new Total(0, true);
+            statusCode = (byte) code;
+        }
+
+        int[] candidates = candidates(terms);
+        String[] prefixes = terms.stream().map(term -> MARK + term).toArray(String[]::new);
+        int count = candidates == null ? size : candidates.length;
+        long wanted = offset + limit;
+        // De las coincidencias por subcadena solo hacen falta las que caben hasta el final de la página
+        int[] others = new int[(int) Math.min(Math.min(count, wanted), 1024)];
+        int otherCount = 0;
+        long othersTotal = 0;
+        long prefixTotal = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = candidates == null ? i : candidates[i];
+            if (statusCode >= 0 && statuses[ordinal] != statusCode) continue;
+            int match = match(texts[ordinal], terms, prefixes);
+            if (match == 0) continue;
+            if (match == 1) {
+                if (prefixTotal >= offset && pageIds.size() < limit) pageIds.add(ids[ordinal]);
+                prefixTotal++;
+                if (prefixTotal > wanted) {
+                    long found = prefixTotal + othersTotal;
+                    return new Total(Math.max(found, Math.round((double) found * count / (i + 1))), false);
+                }
+            } else {
+                if (otherCount < wanted) {
+                    if (otherCount == others.length) others = Arrays.copyOf(others, (int) Math.min(others.length * 2L, wanted));
+                    others[otherCount++] = ordinal;
+                }
+                othersTotal++;
+            }
+        }
+        long position = prefixTotal;
+        for (int i = 0; i < otherCount && pageIds.size() < limit; i++, position++) {
+            if (position >= offset) pageIds.add(ids[others[i]]);
+        }
+        return new Total(prefixTotal + othersTotal, true);
+    }
+
+    /** Ordinales que contienen todos los trigramas de la búsqueda, o null para todos. */
+    private int[] candidates(List<String> terms) {
+        if (terms.isEmpty()) return null;
+        List<Postings> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : queryGrams(term)) {
+                Postings postings = grams.get(gram);
+                if (postings == null) return new int[0];
+                lists.add(postings);
+            }
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        Postings smallest = lists.get(0);
+        int[] result = Arrays.copyOf(smallest.values, smallest.size);
+        int length = result.length;
+        for (int l = 1; l < lists.size() && length > 0; l++) {
+            Postings other = lists.get(l);
+            int kept = 0;
+            int from = 0;
+            if (other.size / 16 < length) {
+                // Listas de tamaño parecido: mezcla lineal
+                for (int i = 0; i < length && from < other.size; i++) {
+                    while (from < other.size && other.values[from] < result[i]) from++;
+                    if (from < other.size && other.values[from] == result[i]) result[kept++] = result[i];
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    int pos = Arrays.binarySearch(other.values, from, other.size, result[i]);
+                    if (pos >= 0) {
+                        result[kept++] = result[i];
+                        from = pos + 1;
+                    } else {
+                        from = -pos - 1;
+                    }
+                }
+            }
+            length = kept;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /** 0 = no coincide; 1 = todos los términos son prefijo de alguna palabra; 2 = subcadena. */
+    private static int match(String text, List<String> terms, String[] prefixes) {
+        int result = 1;
+        for (int i = 0; i < prefixes.length; i++) {
+            if (text.contains(prefixes[i])) continue;
+            String term = terms.get(i);
+            if (term.length() < 3 || !text.contains(term)) return 0;
+            result = 2;
+        }
+        return result;
+    }
+
+    private void index(Long id, String customerId, String fullName, String email, String phone, String status) {
+        if (id == null || ordinals.containsKey(id)) return;
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        int ordinal = size;
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(words(fullName));
+        words.addAll(words(email));
+        words.addAll(words(customerId));
+        String digits = phone == null ? "" : phone.replaceAll("[^0-9]", "");
+        if (!digits.isEmpty()) words.add(digits);
+
+        StringBuilder text = new StringBuilder();
+        for (String word : words) {
+            text.append(MARK).append(word);
+            String padded = "" + MARK + MARK + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.computeIfAbsent(padded.substring(i, i + 3), g -> new Postings()).add(ordinal);
+            }
+        }
+
+        ids[ordinal] = id;
+        texts[ordinal] = text.toString();
+        statuses[ordinal] = statusCode(status);
+        ordinals.put(id, ordinal);
+        size++;
+    }
+
+    private int ordinalOf(long id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    private byte statusCode(String status) {
+        String name = status == null ? "" : status.toUpperCase(Locale.ROOT);
+        int code = statusNames.indexOf(name);
+        if (code < 0) {
+            statusNames.add(name);
+            code = statusNames.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    private static List<String> queryGrams(String term) {
+        if (term.length() < 3) {
+            String padded = term.length() == 1 ? "" + MARK + MARK + term : MARK + term;
+            return List.of(padded);
+        }
+        List<String> result = new ArrayList<>(term.length() - 2);
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            result.add(term.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /** Términos de búsqueda normalizados; los que parecen teléfonos se quedan en dígitos. */
+    private static List<String> terms(String query) {
+        if (query == null) return List.of();
+        List<String> terms = new ArrayList<>();
+        for (String token : query.trim().split("\\s+")) {
+            if (token.matches("[+()0-9-]*[0-9][+()0-9-]*")) token = token.replaceAll("[^0-9]", "");
+            String term = normalize(token);
+            if (!term.isEmpty() && !terms.contains(term)) terms.add(term);
+        }
+        return terms;
+    }
+
+    private static List<String> words(String value) {
+        if (value == null) return List.of();
+        List<String> words = new ArrayList<>();
+        for (String word : normalize(value).split("\\s+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").replace(MARK, ' ').toLowerCase(Locale.ROOT);
+    }
+
+    private record Total(long count, boolean exact) {
+    }
+
+    /** Lista creciente de ordinales; se añaden en orden, así que queda ordenada. */
+    private static final class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) return;
+            if (size == values.length) values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            values[size++] = ordinal;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.atlasbank.customer;
+
+import java.util.List;
+
+/**
+ * Página de la búsqueda de clientes del panel de administración. {@code total} es el
+ * número de coincidencias de toda la búsqueda, o una estimación si {@code totalExact}
+ * es false (búsquedas amplias que el índice deja de recorrer al llenar la página);
+ * {@code indexed} es false mientras el índice en memoria se carga y la página sale de
+ * una consulta a la BD.
+ */
+public record CustomerSearchPage(
+        List<CustomerView> items,
+        long total,
+        boolean totalExact,
+        int page,
+        int size,
+        boolean indexed
+) {
+}
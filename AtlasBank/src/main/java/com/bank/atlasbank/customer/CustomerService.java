@@ -1,7 +1,14 @@
 package com.bank.atlasbank.customer;
 
+import com.bank.atlasbank.common.cache.BoundedCache;
+import com.bank.atlasbank.common.cache.CacheStats;
 import com.bank.atlasbank.common.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,12 +17,89 @@ import java.util.Optional;
 public class CustomerService {
 
     private final CustomerRepository repository;
-
-    public CustomerService(CustomerRepository repository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final CustomerUniquenessIndex uniquenessIndex;
+    private final CustomerSearchIndex searchIndex;
+    private final BoundedCache<String, Customer> byCustomerId;
+
+    public CustomerService(CustomerRepository repository,
+                           ApplicationEventPublisher eventPublisher,
+                           CustomerUniquenessIndex uniquenessIndex,
+                           CustomerSearchIndex searchIndex,
+                           @Value("${atlasbank.cache.customers.max-entries:10000}") int maxEntries,
+                           @Value("${atlasbank.cache.ttl-seconds:60}") long ttlSeconds) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.uniquenessIndex = uniquenessIndex;
+        this.searchIndex = searchIndex;
+        this.byCustomerId = new BoundedCache<>("customers", maxEntries, ttlSeconds * 1000);
     }
 
+    /**
+     * Las consultas de duplicados solo se hacen si el índice de unicidad dice que el
+     * valor puede existir; si no, se inserta directo y un choque con las restricciones
+     * únicas se traduce al mismo mensaje. Los errores salen en el mismo orden que sin
+     * índice: campos obligatorios, duplicados y por último el nombre.
+     */
     public Customer create(CreateCustomerRequest request) {
+        Customer customer = withRequiredFields(request);
+        String fullName = resolveFullName(request);
+        // Sin nombre se consulta siempre: un duplicado tiene prioridad sobre ese error
+        boolean lookupAnyway = fullName == null;
+
+        if (lookupAnyway || uniquenessIndex.mightContainCustomerId(customer.getCustomerId())) {
+            repository.findByCustomerId(customer.getCustomerId()).ifPresent(existing -> {
+                throw new BusinessException("Ya existe un cliente con ese customerId");
+            });
+        }
+
+        if (lookupAnyway || uniquenessIndex.mightContainEmail(customer.getEmail())) {
+            repository.findByEmail(customer.getEmail()).ifPresent(existing -> {
+                throw new BusinessException("Ya existe un cliente con ese email");
+            });
+        }
+
+        if (fullName == null) {
+            throw new BusinessException("fullName es obligatorio");
+        }
+        customer.setFullName(fullName);
+
+        Customer saved;
+        try {
+            saved = repository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateError(customer, e);
+        }
+        uniquenessIndex.add(saved.getCustomerId(), saved.getEmail());
+        searchIndex.add(saved);
+        eventPublisher.publishEvent(new CustomerStatusChangedEvent(saved.getId(), saved.getCustomerId(), null, saved.getStatus()));
+        return saved;
+    }
+
+    // Camino raro (alta en otro nodo o carrera): se averigua qué valor chocó
+    private RuntimeException duplicateError(Customer customer, DataIntegrityViolationException cause) {
+        if (repository.findByCustomerId(customer.getCustomerId()).isPresent()) {
+            return new BusinessException("Ya existe un cliente con ese customerId");
+        }
+        if (repository.findByEmail(customer.getEmail()).isPresent()) {
+            return new BusinessException("Ya existe un cliente con ese email");
+        }
+        return cause;
+    }
+
+    /** Normaliza y valida la solicitud, sin comprobar unicidad ni guardar nada. */
+    static Customer newCustomer(CreateCustomerRequest request) {
+        Customer customer = withRequiredFields(request);
+        String fullName = resolveFullName(request);
+        if (fullName == null) {
+            throw new BusinessException("fullName es obligatorio");
+        }
+        customer.setFullName(fullName);
+        return customer;
+    }
+
+    // Todo menos el nombre, que se valida después de los duplicados
+    private static Customer withRequiredFields(CreateCustomerRequest request) {
         String customerId = normalize(request.customerId());
         String email = normalize(request.email());
         String phone = normalizeOrEmpty(request.phone());
@@ -31,26 +115,12 @@ public class CustomerService {
             throw new BusinessException("password es obligatorio");
         }
 
-        repository.findByCustomerId(customerId).ifPresent(existing -> {
-            throw new BusinessException("Ya existe un cliente con ese customerId");
-        });
-
-        repository.findByEmail(email).ifPresent(existing -> {
-            throw new BusinessException("Ya existe un cliente con ese email");
-        });
-
-        String fullName = resolveFullName(request);
-        if (fullName == null) {
-            throw new BusinessException("fullName es obligatorio");
-        }
-
         Customer customer = new Customer();
         customer.setCustomerId(customerId);
-        customer.setFullName(fullName);
         customer.setEmail(email);
         customer.setPhone(phone);
         customer.setPassword(password);
-        return repository.save(customer);
+        return customer;
     }
 
     public Optional<Customer> authenticate(String customerId, String password) {
@@ -64,20 +134,50 @@ public class CustomerService {
                 .filter(customer -> password.equals(customer.getPassword()));
     }
 
+    @Transactional(readOnly = true)
     public List<Customer> findAll() {
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<CustomerView> findAllViews() {
+        return repository.findAllViews();
+    }
+
     public Customer findById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new BusinessException("Cliente no encontrado: " + id));
     }
 
     public Customer findByCustomerId(String customerId) {
-        return repository.findByCustomerId(customerId)
+        return lookupByCustomerId(customerId)
                 .orElseThrow(() -> new BusinessException("Identificador de cliente no válido: " + customerId));
     }
 
+    /**
+     * Búsqueda por customerId servida desde caché. Devuelve una instancia
+     * desacoplada y compartida: sirve para consultas y como referencia en
+     * relaciones, no para modificarla.
+     */
+    public Optional<Customer> lookupByCustomerId(String customerId) {
+        if (customerId == null) return Optional.empty();
+        return byCustomerId.get(customerId, id -> repository.findByCustomerId(id).orElse(null));
+    }
+
+    public CacheStats cacheStats() {
+        return byCustomerId.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerStatusChanged(CustomerStatusChangedEvent event) {
+        if (event.customerId() != null) byCustomerId.invalidate(event.customerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerUpdated(CustomerUpdatedEvent event) {
+        byCustomerId.invalidate(event.customerId());
+    }
+
     private static String resolveFullName(CreateCustomerRequest request) {
         String fullName = normalizeOrNull(request.fullName());
         if (fullName != null)
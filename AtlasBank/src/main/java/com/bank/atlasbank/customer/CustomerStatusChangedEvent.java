@@ -0,0 +1,13 @@
+package com.bank.atlasbank.customer;
+
+/**
+ * Cambio de estado de un cliente. {@code previousStatus} es null cuando el cliente
+ * acaba de registrarse.
+ */
+public record CustomerStatusChangedEvent(
+        Long id,
+        String customerId,
+        String previousStatus,
+        String newStatus
+) {
+}
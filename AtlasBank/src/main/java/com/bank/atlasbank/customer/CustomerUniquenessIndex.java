@@ -0,0 +1,90 @@
+package com.bank.atlasbank.customer;
+
+import com.bank.atlasbank.common.cache.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Índice probabilístico de los customerId y emails registrados, para saltarse las
+ * consultas de duplicados en el alta cuando el valor seguro no existe.
+ *
+ * Se llena al arrancar desde la BD y con cada alta. Mientras no termina de cargarse
+ * responde siempre "quizá", así que las altas consultan la BD como antes. Es por
+ * nodo: lo insertado en otro nodo no aparece aquí y lo cubren las restricciones
+ * únicas de la tabla.
+ */
+@Component
+public class CustomerUniquenessIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerUniquenessIndex.class);
+
+    private final CustomerRepository repository;
+    private final long expectedCustomers;
+    private final double falsePositiveRate;
+    private volatile BloomFilter customerIds;
+    private volatile BloomFilter emails;
+    private volatile boolean ready;
+
+    public CustomerUniquenessIndex(CustomerRepository repository,
+                                   @Value("${atlasbank.signup.bloom.expected-customers:1000000}") long expectedCustomers,
+                                   @Value("${atlasbank.signup.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.expectedCustomers = expectedCustomers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.customerIds = new BloomFilter(expectedCustomers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedCustomers, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.nanoTime();
+        long existing = repository.count();
+        if (existing * 2 > expectedCustomers) {
+            // Margen para seguir creciendo sin degradar la tasa de falsos positivos
+            customerIds = new BloomFilter(existing * 2, falsePositiveRate);
+            emails = new BloomFilter(existing * 2, falsePositiveRate);
+        }
+        // Un alta que se cuele entre el cambio de filtro y la lectura solo pierde el atajo:
+        // su duplicado lo detecta la restricción única
+        try (Stream<Object[]> rows = repository.streamIdentities()) {
+            rows.forEach(row -> add((String) row[0], (String) row[1]));
+        }
+        ready = true;
+        log.info("Índice de unicidad de clientes listo: {} clientes en {} ms",
+                customerIds.insertions(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void add(String customerId, String email) {
+        if (customerId != null) customerIds.put(customerId);
+        if (email != null) emails.put(email);
+    }
+
+    /** false = seguro que no existe; true = puede existir, hay que consultar la BD. */
+    public boolean mightContainCustomerId(String customerId) {
+        return !ready || customerIds.mightContain(customerId);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return !ready || emails.mightContain(email);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("insertions", customerIds.insertions());
+        stats.put("expectedInsertions", customerIds.expectedInsertions());
+        stats.put("bitsPerFilter", customerIds.bitSize());
+        stats.put("hashes", customerIds.hashCount());
+        return stats;
+    }
+}
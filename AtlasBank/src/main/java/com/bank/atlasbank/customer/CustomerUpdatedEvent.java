@@ -0,0 +1,9 @@
+package com.bank.atlasbank.customer;
+
+/**
+ * Se publica cuando cambian datos de un cliente distintos del estado
+ * (contraseña, preferencia de redondeo...). Los cambios de estado usan
+ * {@link CustomerStatusChangedEvent}.
+ */
+public record CustomerUpdatedEvent(String customerId) {
+}
@@ -0,0 +1,24 @@
+package com.bank.atlasbank.customer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cliente tal como lo expone la API: sin contraseña ni relaciones. Los listados
+ * lo construyen directamente en la consulta ({@link CustomerRepository#findAllViews()}).
+ */
+public record CustomerView(
+        Long id,
+        String customerId,
+        String fullName,
+        String email,
+        String phone,
+        String status,
+        boolean roundupEnabled,
+        LocalDateTime createdAt
+) {
+    public static CustomerView from(Customer customer) {
+        return new CustomerView(customer.getId(), customer.getCustomerId(), customer.getFullName(),
+                customer.getEmail(), customer.getPhone(), customer.getStatus(), customer.isRoundupEnabled(),
+                customer.getCreatedAt());
+    }
+}
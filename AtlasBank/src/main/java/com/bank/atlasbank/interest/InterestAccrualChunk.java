@@ -0,0 +1,59 @@
+package com.bank.atlasbank.interest;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Punto de control de un bloque {@code [firstAccountId, endAccountId)} ya acreditado.
+ * Se inserta en la misma transacción que los abonos del bloque: si existe, el bloque
+ * está completo; si no, no se aplicó nada de él.
+ */
+@Entity
+@Table(name = "interest_accrual_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_interest_chunk", columnNames = {"business_date", "first_account_id"})
+})
+public class InterestAccrualChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "interest_accrual_chunks_seq")
+    @SequenceGenerator(name = "interest_accrual_chunks_seq", sequenceName = "interest_accrual_chunks_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "first_account_id", nullable = false)
+    private long firstAccountId;
+
+    @Column(nullable = false)
+    private long endAccountId;
+
+    private int accounts;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal interest;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+    protected InterestAccrualChunk() {
+    }
+
+    InterestAccrualChunk(LocalDate businessDate, long firstAccountId, long endAccountId, int accounts, BigDecimal interest) {
+        this.businessDate = businessDate;
+        this.firstAccountId = firstAccountId;
+        this.endAccountId = endAccountId;
+        this.accounts = accounts;
+        this.interest = interest;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public LocalDate getBusinessDate() { return businessDate; }
+    public long getFirstAccountId() { return firstAccountId; }
+    public long getEndAccountId() { return endAccountId; }
+    public int getAccounts() { return accounts; }
+    public BigDecimal getInterest() { return interest; }
+}
@@ -0,0 +1,20 @@
+package com.bank.atlasbank.interest;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InterestAccrualChunkRepository extends JpaRepository<InterestAccrualChunk, Long> {
+
+    @Query("select c.firstAccountId from InterestAccrualChunk c where c.businessDate = :date")
+    List<Long> findCompletedStarts(@Param("date") LocalDate date);
+
+    /** {@code [bloques, cuentas, interés]} ya acreditados en el día. */
+    @Query("""
+            select count(c), coalesce(sum(c.accounts), 0), coalesce(sum(c.interest), 0)
+            from InterestAccrualChunk c where c.businessDate = :date""")
+    List<Object[]> summarize(@Param("date") LocalDate date);
+}
@@ -0,0 +1,21 @@
+package com.bank.atlasbank.interest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resultado de una ejecución del cierre de intereses. {@code skippedChunks} son los
+ * bloques que ya estaban acreditados por una ejecución anterior del mismo día; con
+ * {@code failedChunks > 0} la ejecución queda en RUNNING y se puede relanzar.
+ */
+public record InterestAccrualResult(
+        LocalDate businessDate,
+        InterestAccrualRun.Status status,
+        int processedChunks,
+        int skippedChunks,
+        int failedChunks,
+        long accounts,
+        BigDecimal totalInterest,
+        long durationMs
+) {
+}
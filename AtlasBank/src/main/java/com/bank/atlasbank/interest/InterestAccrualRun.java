@@ -0,0 +1,74 @@
+package com.bank.atlasbank.interest;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ejecución del cierre de intereses de un día. Fija el tamaño de bloque y el rango de
+ * ids al empezar, así un reinicio reparte exactamente los mismos bloques y salta los
+ * que ya tienen su {@link InterestAccrualChunk}.
+ */
+@Entity
+@Table(name = "interest_accrual_runs")
+public class InterestAccrualRun {
+
+    public enum Status { RUNNING, COMPLETED }
+
+    @Id
+    @Column(name = "business_date")
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private long firstAccountId;
+
+    @Column(nullable = false)
+    private long lastAccountId;
+
+    private long accounts;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalInterest = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    protected InterestAccrualRun() {
+    }
+
+    InterestAccrualRun(LocalDate businessDate, int chunkSize, long firstAccountId, long lastAccountId) {
+        this.businessDate = businessDate;
+        this.chunkSize = chunkSize;
+        this.firstAccountId = firstAccountId;
+        this.lastAccountId = lastAccountId;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    void complete(long accounts, BigDecimal totalInterest) {
+        this.status = Status.COMPLETED;
+        this.accounts = accounts;
+        this.totalInterest = totalInterest;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public LocalDate getBusinessDate() { return businessDate; }
+    public Status getStatus() { return status; }
+    public int getChunkSize() { return chunkSize; }
+    public long getFirstAccountId() { return firstAccountId; }
+    public long getLastAccountId() { return lastAccountId; }
+    public long getAccounts() { return accounts; }
+    public BigDecimal getTotalInterest() { return totalInterest; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
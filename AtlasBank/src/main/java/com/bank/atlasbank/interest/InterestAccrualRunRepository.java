@@ -0,0 +1,8 @@
+package com.bank.atlasbank.interest;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+
+public interface InterestAccrualRunRepository extends JpaRepository<InterestAccrualRun, LocalDate> {
+}
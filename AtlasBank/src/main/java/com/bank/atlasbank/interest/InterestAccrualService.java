@@ -0,0 +1,260 @@
+package com.bank.atlasbank.interest;
+
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.account.AccountType;
+import com.bank.atlasbank.account.BalanceSql;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.transaction.BankTransaction;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import com.bank.atlasbank.transaction.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cierre diario de intereses. Recorre todas las cuentas en bloques de ids
+ * {@code [inicio, inicio + chunk-size)} repartidos en un pool de
+ * {@code atlasbank.interest.parallelism} hilos. Cada bloque, en su propia transacción:
+ * <ol>
+ *     <li>lee id, tipo y saldo total (franjas incluidas) de sus cuentas por la PK,</li>
+ *     <li>calcula el interés del día con la tasa anual de su tipo / 365,</li>
+ *     <li>suma los abonos con un UPDATE atómico en lote e inserta un movimiento
+ *     INTEREST por cuenta (inserciones por lotes de Hibernate),</li>
+ *     <li>registra su {@link InterestAccrualChunk}.</li>
+ * </ol>
+ * Un bloque fallido no detiene a los demás; relanzar el mismo día procesa solo los
+ * bloques sin punto de control.
+ *
+ * El abono relativo no pasa por las entidades, así que cada bloque bloquea en la BD las
+ * filas de sus cuentas antes de leerlas, igual que los movimientos en línea antes de
+ * cargar la cuenta. Así ningún depósito o retiro, de este nodo o de otro, escribe su
+ * saldo absoluto encima del interés. Los bloques no comparten filas, así que escalan
+ * con los hilos hasta donde den el pool de conexiones y la BD; un movimiento en línea
+ * sobre una cuenta del bloque espera solo a que ese bloque confirme.
+ */
+@Service
+public class InterestAccrualService {
+
+    private static final Logger log = LoggerFactory.getLogger(InterestAccrualService.class);
+
+    private static final BigDecimal DAYS_IN_YEAR = BigDecimal.valueOf(365);
+
+    private static final String CHUNK_ACCOUNTS = """
+            select a.id, a.account_type, c.customer_id, %s
+            from accounts a join customers c on c.id = a.customer_id
+            where a.id >= ? and a.id < ?
+            order by a.id""".formatted(BalanceSql.totalBalance("a"));
+
+    private static final String LOCK_CHUNK = "select id from accounts where id >= ? and id < ? order by id for update";
+
+    private final InterestAccrualRunRepository runRepository;
+    private final InterestAccrualChunkRepository chunkRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<AccountType, BigDecimal> annualRates = new EnumMap<>(AccountType.class);
+    private final int chunkSize;
+    private final int parallelism;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InterestAccrualService(InterestAccrualRunRepository runRepository,
+                                  InterestAccrualChunkRepository chunkRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${atlasbank.interest.savings-rate:0.03}") BigDecimal savingsRate,
+                                  @Value("${atlasbank.interest.checking-rate:0}") BigDecimal checkingRate,
+                                  @Value("${atlasbank.interest.investment-rate:0.06}") BigDecimal investmentRate,
+                                  @Value("${atlasbank.interest.chunk-size:5000}") int chunkSize,
+                                  @Value("${atlasbank.interest.parallelism:0}") int parallelism,
+                                  @Value("${atlasbank.jpa.batch-size:50}") int batchSize) {
+        this.runRepository = runRepository;
+        this.chunkRepository = chunkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.annualRates.put(AccountType.SAVINGS, savingsRate);
+        this.annualRates.put(AccountType.CHECKING, checkingRate);
+        this.annualRates.put(AccountType.INVESTMENT, investmentRate);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /** Interés de un día sobre {@code balance}, redondeado al centavo. */
+    public BigDecimal dailyInterest(AccountType type, BigDecimal balance) {
+        BigDecimal rate = annualRates.get(type);
+        if (rate == null || rate.signum() <= 0 || balance == null || balance.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(rate).divide(DAYS_IN_YEAR, 2, RoundingMode.HALF_EVEN);
+    }
+
+    @Scheduled(cron = "${atlasbank.interest.cron:-}")
+    public void scheduledAccrual() {
+        try {
+            accrue(LocalDate.now());
+        } catch (BusinessException e) {
+            log.warn("Cierre de intereses omitido: {}", e.getMessage());
+        }
+    }
+
+    public InterestAccrualResult accrue(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("Ya hay un cierre de intereses en curso");
+        }
+        try {
+            return run(businessDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public InterestAccrualResult status(LocalDate businessDate) {
+        InterestAccrualRun run = runRepository.findById(businessDate)
+                .orElseThrow(() -> new BusinessException("No hay cierre de intereses para " + businessDate));
+        return summary(run, 0, 0, 0, 0);
+    }
+
+    private InterestAccrualResult run(LocalDate businessDate) {
+        long start = System.nanoTime();
+        InterestAccrualRun run = runRepository.findById(businessDate).orElseGet(() -> begin(businessDate));
+        if (run.getStatus() == InterestAccrualRun.Status.COMPLETED) {
+            return summary(run, 0, 0, 0, 0);
+        }
+
+        Set<Long> done = new HashSet<>(chunkRepository.findCompletedStarts(businessDate));
+        List<Long> pending = new ArrayList<>();
+        int skipped = 0;
+        for (long from = run.getFirstAccountId(); from <= run.getLastAccountId(); from += run.getChunkSize()) {
+            if (done.contains(from)) {
+                skipped++;
+            } else {
+                pending.add(from);
+            }
+        }
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "interest-accrual-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int failed = 0;
+        try {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (Long from : pending) {
+                long to = from + run.getChunkSize();
+                futures.add(pool.submit(() -> accrueChunk(businessDate, from, to)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Intereses {}: bloque desde la cuenta {} fallido: {}",
+                            businessDate, pending.get(i), e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Cierre de intereses interrumpido");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        InterestAccrualResult result = summary(run, pending.size() - failed, skipped, failed, durationMs);
+        if (failed == 0) {
+            run.complete(result.accounts(), result.totalInterest());
+            runRepository.save(run);
+            result = summary(run, result.processedChunks(), skipped, 0, durationMs);
+        }
+        log.info("Intereses {}: {} bloques procesados, {} ya hechos, {} fallidos; {} cuentas, {} en {} ms",
+                businessDate, result.processedChunks(), skipped, failed, result.accounts(),
+                result.totalInterest(), durationMs);
+        return result;
+    }
+
+    private InterestAccrualRun begin(LocalDate businessDate) {
+        Map<String, Object> range = jdbcTemplate.queryForMap("select min(id) as lo, max(id) as hi from accounts");
+        long first = range.get("lo") == null ? 1 : ((Number) range.get("lo")).longValue();
+        long last = range.get("hi") == null ? 0 : ((Number) range.get("hi")).longValue();
+        return runRepository.save(new InterestAccrualRun(businessDate, chunkSize, first, last));
+    }
+
+    private void accrueChunk(LocalDate businessDate, long from, long to) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Filas bloqueadas antes de leer: el saldo leído es el confirmado y nadie lo cambia hasta el commit
+            jdbcTemplate.queryForList(LOCK_CHUNK, Long.class, from, to);
+            List<Accrual> accruals = new ArrayList<>();
+            jdbcTemplate.query(CHUNK_ACCOUNTS, rs -> {
+                BigDecimal interest = dailyInterest(AccountType.valueOf(rs.getString(2)), rs.getBigDecimal(4));
+                if (interest.signum() > 0) {
+                    accruals.add(new Accrual(rs.getLong(1), rs.getString(3), interest));
+                }
+            }, from, to);
+
+            jdbcTemplate.batchUpdate("update accounts set balance = balance + ? where id = ?", accruals, batchSize,
+                    (ps, accrual) -> {
+                        ps.setBigDecimal(1, accrual.interest());
+                        ps.setLong(2, accrual.accountId());
+                    });
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (Accrual accrual : accruals) {
+                BankTransaction tx = new BankTransaction();
+                tx.setType(TransactionType.INTEREST);
+                tx.setAmount(accrual.interest());
+                tx.setSourceAccount(entityManager.getReference(Account.class, accrual.accountId()));
+                entityManager.persist(tx);
+                eventPublisher.publishEvent(new TransactionPostedEvent(tx.getId(), TransactionType.INTEREST,
+                        accrual.interest(), accrual.accountId(), null, accrual.customerId(), tx.getCreatedAt()));
+                total = total.add(accrual.interest());
+            }
+            entityManager.persist(new InterestAccrualChunk(businessDate, from, to, accruals.size(), total));
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private InterestAccrualResult summary(InterestAccrualRun run, int processed, int skipped, int failed, long durationMs) {
+        if (run.getStatus() == InterestAccrualRun.Status.COMPLETED) {
+            return new InterestAccrualResult(run.getBusinessDate(), run.getStatus(), processed, skipped, failed,
+                    run.getAccounts(), run.getTotalInterest(), durationMs);
+        }
+        Object[] totals = chunkRepository.summarize(run.getBusinessDate()).get(0);
+        return new InterestAccrualResult(run.getBusinessDate(), run.getStatus(), processed, skipped, failed,
+                ((Number) totals[1]).longValue(), (BigDecimal) totals[2], durationMs);
+    }
+
+    private record Accrual(long accountId, String customerId, BigDecimal interest) {
+    }
+}
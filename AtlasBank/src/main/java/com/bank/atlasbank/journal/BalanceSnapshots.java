@@ -0,0 +1,130 @@
+package com.bank.atlasbank.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Fotos de saldos por cuenta hasta una secuencia del diario. Se escriben a un
+ * temporal, se sincronizan y se renombran, así una foto a medias nunca se lee.
+ */
+final class BalanceSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshots.class);
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int MAGIC = 0x41544C53;
+    private static final int KEEP = 2;
+
+    record Snapshot(long sequence, Map<Long, BigDecimal> balances) {
+    }
+
+    private BalanceSnapshots() {
+    }
+
+    /**
+     * Escribe la foto y borra las anteriores salvo las últimas {@value #KEEP}.
+     *
+     * @return la secuencia de la foto más antigua que se conserva
+     */
+    static long write(Path dir, long sequence, Map<Long, BigDecimal> balances) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + balances.size() * 24);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeLong(sequence);
+        out.writeInt(balances.size());
+        for (Map.Entry<Long, BigDecimal> entry : balances.entrySet()) {
+            byte[] unscaled = entry.getValue().unscaledValue().toByteArray();
+            out.writeLong(entry.getKey());
+            out.writeInt(entry.getValue().scale());
+            out.writeShort(unscaled.length);
+            out.write(unscaled);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Path target = dir.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        List<Path> all = list(dir);
+        for (int i = 0; i < all.size() - KEEP; i++) {
+            Files.deleteIfExists(all.get(i));
+        }
+        return sequenceOf(all.get(Math.max(0, all.size() - KEEP)));
+    }
+
+    /** La foto válida más reciente; las dañadas se ignoran. */
+    static Optional<Snapshot> loadLatest(Path dir) throws IOException {
+        List<Path> all = list(dir);
+        for (int i = all.size() - 1; i >= 0; i--) {
+            Optional<Snapshot> snapshot = read(all.get(i));
+            if (snapshot.isPresent()) return snapshot;
+            log.warn("Diario: foto de saldos {} dañada, se ignora", all.get(i).getFileName());
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Snapshot> read(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        if (data.length < 20) return Optional.empty();
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - 4, 4).getInt()) return Optional.empty();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) return Optional.empty();
+        long sequence = in.readLong();
+        int count = in.readInt();
+        Map<Long, BigDecimal> balances = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            long accountId = in.readLong();
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readShort()];
+            in.readFully(unscaled);
+            balances.put(accountId, new BigDecimal(new BigInteger(unscaled), scale));
+        }
+        return Optional.of(new Snapshot(sequence, balances));
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(Path::getFileName))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bank.atlasbank.journal;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Entrada del diario. {@code OPEN} fija el saldo inicial de una cuenta; el resto
+ * son deltas que se aplican sobre ese saldo al reproducir el diario.
+ */
+public record JournalRecord(
+        long sequence,
+        Kind kind,
+        long transactionId,
+        long sourceAccountId,
+        long targetAccountId,
+        BigDecimal amount
+) {
+
+    public static final long NONE = -1L;
+
+    // El orden forma parte del formato en disco: los nuevos tipos van al final
+    public enum Kind { OPEN, DEPOSIT, WITHDRAW, TRANSFER, INTEREST }
+
+    public JournalRecord withSequence(long sequence) {
+        return new JournalRecord(sequence, kind, transactionId, sourceAccountId, targetAccountId, amount);
+    }
+
+    /** Aplica el movimiento sobre un mapa de saldos por id de cuenta. */
+    public void applyTo(Map<Long, BigDecimal> balances) {
+        switch (kind) {
+            case OPEN -> balances.put(sourceAccountId, amount);
+            case DEPOSIT, INTEREST -> balances.merge(sourceAccountId, amount, BigDecimal::add);
+            case WITHDRAW -> balances.merge(sourceAccountId, amount.negate(), BigDecimal::add);
+            case TRANSFER -> {
+                balances.merge(sourceAccountId, amount.negate(), BigDecimal::add);
+                balances.merge(targetAccountId, amount, BigDecimal::add);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.bank.atlasbank.journal;
+
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.account.AccountOpenedEvent;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modo diario opcional ({@code atlasbank.journal.enabled}): cada movimiento
+ * confirmado y cada apertura de cuenta se anexa a un {@link SegmentedJournal} y
+ * se mantiene en memoria el saldo resultante por cuenta.
+ *
+ * Anexar no espera al fsync: el hilo que confirma sigue de inmediato y el
+ * {@link SegmentedJournal} baja a disco cada {@code flush-interval-ms}.
+ *
+ * Cada {@code snapshot-every} registros se guarda una foto de saldos y se borran los
+ * segmentos que ya cubren las fotos conservadas; al arrancar se carga la última y se
+ * reproduce solo lo posterior. Si el diario está vacío se siembra con el saldo actual
+ * de cada cuenta en BD.
+ *
+ * La BD sigue siendo la fuente de verdad; el diario es una traza reproducible
+ * que puede contrastarse con ella desde {@code /api/admin/journal/verify}.
+ */
+@Service
+public class JournalService {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalService.class);
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final AccountRepository accountRepository;
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+    private final long snapshotEvery;
+    private final long durableTimeoutMs;
+
+    private final Map<Long, BigDecimal> balances = new HashMap<>();
+    private final Object snapshotLock = new Object();
+    private volatile SegmentedJournal journal;
+    private long snapshotSequence;
+    private boolean snapshotPending;
+
+    public JournalService(AccountRepository accountRepository,
+                          @Value("${atlasbank.journal.enabled:false}") boolean enabled,
+                          @Value("${atlasbank.journal.dir:./journal}") String dir,
+                          @Value("${atlasbank.journal.segment-size-mb:64}") int segmentSizeMb,
+                          @Value("${atlasbank.journal.flush-interval-ms:5}") long flushIntervalMs,
+                          @Value("${atlasbank.journal.snapshot-every:10000}") long snapshotEvery,
+                          @Value("${atlasbank.journal.durable-timeout-ms:1000}") long durableTimeoutMs) {
+        this.accountRepository = accountRepository;
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotEvery = snapshotEvery;
+        this.durableTimeoutMs = durableTimeoutMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) return;
+        long after = 0;
+        Files.createDirectories(dir);
+        synchronized (this) {
+            var snapshot = BalanceSnapshots.loadLatest(dir);
+            if (snapshot.isPresent()) {
+                balances.putAll(snapshot.get().balances());
+                after = snapshot.get().sequence();
+            }
+            snapshotSequence = after;
+            journal = SegmentedJournal.open(dir, segmentSize, flushIntervalMs, after, r -> r.applyTo(balances));
+        }
+        log.info("Diario abierto en {}: foto en {}, última secuencia {}, {} cuentas",
+                dir, after, journal.lastSequence(), balances.size());
+
+        if (journal.lastSequence() == 0) {
+            for (Account account : accountRepository.findAll()) {
+                append(new JournalRecord(0, JournalRecord.Kind.OPEN, JournalRecord.NONE,
+                        account.getId(), JournalRecord.NONE, account.getTotalBalance()));
+            }
+            log.info("Diario sembrado con {} cuentas existentes", balances.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        SegmentedJournal current = journal;
+        if (current == null) return;
+        snapshot();
+        current.close();
+        journal = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountOpened(AccountOpenedEvent event) {
+        if (journal == null) return;
+        append(new JournalRecord(0, JournalRecord.Kind.OPEN, JournalRecord.NONE,
+                event.accountId(), JournalRecord.NONE, event.initialBalance()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (journal == null) return;
+        JournalRecord.Kind kind = JournalRecord.Kind.valueOf(event.type().name());
+        long target = event.targetAccountId() == null ? JournalRecord.NONE : event.targetAccountId();
+        append(new JournalRecord(0, kind, event.transactionId(), event.sourceAccountId(), target, event.amount()));
+    }
+
+    public synchronized BigDecimal balanceOf(Long accountId) {
+        return balances.get(accountId);
+    }
+
+    public Map<String, Object> status() throws IOException {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        SegmentedJournal current = journal;
+        if (current != null) {
+            synchronized (this) {
+                status.put("lastSequence", current.lastSequence());
+                status.put("snapshotSequence", snapshotSequence);
+                status.put("accounts", balances.size());
+            }
+            status.put("durableSequence", current.durableSequence());
+            status.put("segments", current.segments().size());
+        }
+        return status;
+    }
+
+    /** Cuentas cuyo saldo reproducido no coincide con el de BD (como mucho 100). */
+    public List<Map<String, Object>> verify() {
+        Map<Long, BigDecimal> copy;
+        synchronized (this) {
+            copy = new HashMap<>(balances);
+        }
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (Account account : accountRepository.findAll()) {
+            BigDecimal replayed = copy.get(account.getId());
+            if (replayed == null || replayed.compareTo(account.getTotalBalance()) != 0) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("accountId", account.getId());
+                row.put("database", account.getTotalBalance());
+                row.put("journal", replayed);
+                mismatches.add(row);
+                if (mismatches.size() >= MAX_REPORTED_MISMATCHES) break;
+            }
+        }
+        return mismatches;
+    }
+
+    private void append(JournalRecord record) {
+        boolean snapshotDue;
+        synchronized (this) {
+            SegmentedJournal current = journal;
+            if (current == null) return;
+            long sequence = current.append(record);
+            record.withSequence(sequence).applyTo(balances);
+            snapshotDue = !snapshotPending && sequence - snapshotSequence >= snapshotEvery;
+            if (snapshotDue) snapshotPending = true;
+        }
+        if (snapshotDue) snapshot();
+    }
+
+    private void snapshot() {
+        synchronized (snapshotLock) {
+            long sequence;
+            Map<Long, BigDecimal> copy;
+            SegmentedJournal current;
+            synchronized (this) {
+                current = journal;
+                if (current == null) return;
+                sequence = current.lastSequence();
+                if (sequence == snapshotSequence) return;
+                copy = new HashMap<>(balances);
+            }
+            try {
+                // La foto solo es válida si lo que cubre ya está en disco
+                if (!current.awaitDurable(sequence, Math.max(durableTimeoutMs, 1000))) {
+                    log.warn("Diario: la secuencia {} no llegó a disco a tiempo; la foto se reintenta con el próximo registro", sequence);
+                    return;
+                }
+                long covered = BalanceSnapshots.write(dir, sequence, copy);
+                // Solo una foto escrita cuenta: si algo falla antes, el próximo registro la reintenta
+                synchronized (this) {
+                    snapshotSequence = sequence;
+                }
+                int pruned = current.pruneThrough(covered);
+                log.debug("Diario: foto de saldos en la secuencia {}, {} segmentos borrados", sequence, pruned);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                synchronized (this) {
+                    snapshotPending = false;
+                }
+            }
+        }
+    }
+}
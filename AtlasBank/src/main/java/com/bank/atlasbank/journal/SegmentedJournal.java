@@ -0,0 +1,338 @@
+package com.bank.atlasbank.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de solo anexado repartido en segmentos de tamaño fijo mapeados en memoria.
+ *
+ * Cada registro es {@code [longitud][crc32][datos]}; una longitud 0 marca el final
+ * del segmento. Los segmentos se llaman por la secuencia de su primer registro.
+ *
+ * Anexar solo copia bytes al mapeo. Un hilo aparte hace {@code force()} cada
+ * {@code flushIntervalMs} (o antes si alguien espera durabilidad), así varios
+ * registros comparten un mismo fsync (group commit).
+ *
+ * Al abrir se recorre el último tramo del diario: el primer registro incompleto,
+ * con CRC inválido o fuera de secuencia marca el final y lo que sigue se borra.
+ * Los segmentos ya cubiertos por una foto de saldos se borran con {@link #pruneThrough}.
+ */
+public class SegmentedJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedJournal.class);
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = 8;
+    private static final int MAX_PAYLOAD = 1024;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+
+    private MappedByteBuffer segment;
+    private long lastSequence;
+
+    private final Object flushMonitor = new Object();
+    private volatile long durableSequence;
+    private volatile boolean flushRequested;
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    private SegmentedJournal(Path dir, int segmentSize, long flushIntervalMs) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Abre el diario, descarta una cola rota si la hay y entrega a {@code replay}
+     * los registros con secuencia mayor que {@code afterSequence}.
+     */
+    public static SegmentedJournal open(Path dir, int segmentSize, long flushIntervalMs,
+                                        long afterSequence, Consumer<JournalRecord> replay) throws IOException {
+        Files.createDirectories(dir);
+        SegmentedJournal journal = new SegmentedJournal(dir, segmentSize, flushIntervalMs);
+        journal.recover(afterSequence, replay);
+        journal.flusher.start();
+        return journal;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    /** Anexa el registro asignándole la siguiente secuencia y la devuelve. */
+    public synchronized long append(JournalRecord record) {
+        if (closed) throw new IllegalStateException("El diario está cerrado");
+        long sequence = lastSequence + 1;
+        byte[] payload = encode(record.withSequence(sequence));
+        if (segment == null || segment.remaining() < HEADER + payload.length + 4) {
+            roll(sequence);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        segment.putInt(payload.length);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /** Bloquea hasta que {@code sequence} esté en disco o venza el plazo. */
+    public boolean awaitDurable(long sequence, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (flushMonitor) {
+            while (durableSequence < sequence) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0 || closed) return durableSequence >= sequence;
+                flushRequested = true;
+                flushMonitor.notifyAll();
+                flushMonitor.wait(wait);
+            }
+        }
+        return true;
+    }
+
+    public List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Borra los segmentos cuyos registros son todos {@code <= sequence}; el segmento
+     * en uso nunca se borra.
+     *
+     * @return cuántos segmentos se borraron
+     */
+    public synchronized int pruneThrough(long sequence) throws IOException {
+        List<Path> files = segments();
+        int pruned = 0;
+        for (int i = 0; i < files.size() - 1; i++) {
+            // El segmento i termina justo antes del primer registro del siguiente
+            if (sequenceOf(files.get(i + 1)) - 1 > sequence) break;
+            Files.delete(files.get(i));
+            pruned++;
+        }
+        return pruned;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            flush();
+            closed = true;
+        }
+        synchronized (flushMonitor) {
+            flushMonitor.notifyAll();
+        }
+        try {
+            flusher.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            segment = null;
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            synchronized (flushMonitor) {
+                if (!flushRequested) {
+                    try {
+                        flushMonitor.wait(flushIntervalMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                flushRequested = false;
+            }
+            MappedByteBuffer current;
+            long target;
+            synchronized (this) {
+                if (closed) return;
+                current = segment;
+                target = lastSequence;
+            }
+            // El fsync va fuera del monitor para no frenar a quien anexa; los registros
+            // anteriores a este segmento ya bajaron a disco en roll()
+            force(current, target);
+        }
+    }
+
+    // Llamar con el monitor del diario tomado
+    private void flush() {
+        force(segment, lastSequence);
+    }
+
+    private void force(MappedByteBuffer buffer, long target) {
+        if (buffer != null && target > durableSequence) {
+            buffer.force();
+        }
+        synchronized (flushMonitor) {
+            if (target > durableSequence) durableSequence = target;
+            flushMonitor.notifyAll();
+        }
+    }
+
+    private void roll(long firstSequence) {
+        if (segment != null) {
+            segment.force();
+        }
+        segment = map(dir.resolve(segmentName(firstSequence)));
+    }
+
+    private MappedByteBuffer map(Path file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (raf.length() < segmentSize) raf.setLength(segmentSize);
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover(long afterSequence, Consumer<JournalRecord> replay) throws IOException {
+        List<Path> files = segments();
+        // Se empieza por el último segmento que puede contener afterSequence + 1
+        int first = 0;
+        for (int i = 0; i < files.size(); i++) {
+            if (sequenceOf(files.get(i)) <= afterSequence + 1) first = i;
+        }
+
+        long expected = files.isEmpty() ? afterSequence + 1 : Math.min(sequenceOf(files.get(first)), afterSequence + 1);
+        long last = expected - 1;
+        boolean torn = false;
+        for (int i = first; i < files.size(); i++) {
+            Path file = files.get(i);
+            if (torn) {
+                Files.delete(file);
+                log.warn("Diario: segmento {} descartado tras un registro incompleto", file.getFileName());
+                continue;
+            }
+            if (sequenceOf(file) != last + 1) {
+                throw new IOException("Diario incompleto: falta el segmento anterior a " + file.getFileName());
+            }
+            MappedByteBuffer buffer = map(file);
+            while (true) {
+                int start = buffer.position();
+                JournalRecord record = readRecord(buffer, last + 1);
+                if (record == null) {
+                    if (!isCleanEnd(buffer, start)) {
+                        torn = true;
+                        log.warn("Diario: registro incompleto en {} posición {}, se descarta la cola", file.getFileName(), start);
+                    }
+                    zeroFrom(buffer, start);
+                    buffer.position(start);
+                    break;
+                }
+                last = record.sequence();
+                if (record.sequence() > afterSequence) replay.accept(record);
+            }
+            segment = buffer;
+        }
+        if (segment != null) segment.force();
+        lastSequence = Math.max(last, afterSequence);
+        durableSequence = lastSequence;
+    }
+
+    private static boolean isCleanEnd(ByteBuffer buffer, int start) {
+        return buffer.limit() - start < 4 || buffer.getInt(start) == 0;
+    }
+
+    private static JournalRecord readRecord(ByteBuffer buffer, long expectedSequence) {
+        if (buffer.remaining() < HEADER) return null;
+        int start = buffer.position();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > MAX_PAYLOAD || length > buffer.remaining()) {
+            buffer.position(start);
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        JournalRecord record = (int) crc.getValue() == checksum ? decode(payload) : null;
+        if (record == null || record.sequence() != expectedSequence) {
+            buffer.position(start);
+            return null;
+        }
+        return record;
+    }
+
+    private static void zeroFrom(ByteBuffer buffer, int start) {
+        for (int i = start; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) buffer.put(i, (byte) 0);
+        }
+    }
+
+    static byte[] encode(JournalRecord record) {
+        byte[] unscaled = record.amount().unscaledValue().toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 1 + 8 + 8 + 8 + 4 + 2 + unscaled.length);
+        buffer.putLong(record.sequence());
+        buffer.put((byte) record.kind().ordinal());
+        buffer.putLong(record.transactionId());
+        buffer.putLong(record.sourceAccountId());
+        buffer.putLong(record.targetAccountId());
+        buffer.putInt(record.amount().scale());
+        buffer.putShort((short) unscaled.length);
+        buffer.put(unscaled);
+        return buffer.array();
+    }
+
+    static JournalRecord decode(byte[] payload) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            long sequence = buffer.getLong();
+            JournalRecord.Kind kind = JournalRecord.Kind.values()[buffer.get()];
+            long transactionId = buffer.getLong();
+            long source = buffer.getLong();
+            long target = buffer.getLong();
+            int scale = buffer.getInt();
+            byte[] unscaled = new byte[buffer.getShort()];
+            buffer.get(unscaled);
+            return new JournalRecord(sequence, kind, transactionId, source, target,
+                    new BigDecimal(new BigInteger(unscaled), scale));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.atlasbank.savings;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Redondeo pendiente de abonar a una meta de ahorro. Se inserta en la misma
+ * transacción que el movimiento y lo consume {@link RoundupWorker}.
+ */
+@Entity
+@Table(name = "savings_roundup_outbox")
+public class RoundupOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "savings_roundup_outbox_seq")
+    @SequenceGenerator(name = "savings_roundup_outbox_seq", sequenceName = "savings_roundup_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String customerId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public RoundupOutboxEntry() {}
+
+    public RoundupOutboxEntry(String customerId, BigDecimal amount) {
+        this.customerId = customerId;
+        this.amount = amount;
+    }
+
+    public Long getId() { return id; }
+    public String getCustomerId() { return customerId; }
+    public BigDecimal getAmount() { return amount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,20 @@
+package com.bank.atlasbank.savings;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface RoundupOutboxRepository extends JpaRepository<RoundupOutboxEntry, Long> {
+
+    // -2 = SKIP LOCKED donde el dialecto lo soporta: varios nodos pueden drenar a la vez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from RoundupOutboxEntry e order by e.id")
+    List<RoundupOutboxEntry> findPending(Pageable page);
+}
@@ -0,0 +1,37 @@
+package com.bank.atlasbank.savings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drena periódicamente la bandeja de redondeos pendientes.
+ */
+@Component
+public class RoundupWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(RoundupWorker.class);
+
+    private final SavingsGoalService savingsGoalService;
+    private final int batchSize;
+
+    public RoundupWorker(SavingsGoalService savingsGoalService,
+                         @Value("${atlasbank.savings.roundup-batch-size:500}") int batchSize) {
+        this.savingsGoalService = savingsGoalService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${atlasbank.savings.roundup-interval-ms:2000}")
+    public void drain() {
+        try {
+            int applied;
+            do {
+                applied = savingsGoalService.applyPendingRoundups(batchSize);
+            } while (applied == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron aplicar los redondeos pendientes: {}", e.getMessage());
+        }
+    }
+}
@@ -8,8 +8,11 @@ import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "savings_goals")
+@NamedEntityGraph(name = SavingsGoal.WITH_CUSTOMER, attributeNodes = @NamedAttributeNode("customer"))
 public class SavingsGoal {
 
+    public static final String WITH_CUSTOMER = "SavingsGoal.customer";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,7 +29,7 @@ public class SavingsGoal {
 
     private boolean completed = false;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
 
@@ -55,11 +58,15 @@ public class SavingsGoal {
 
     // Logic for suggesting weekly savings
     public BigDecimal getWeeklySuggestion() {
+        return weeklySuggestion(targetAmount, currentAmount, deadline);
+    }
+
+    static BigDecimal weeklySuggestion(BigDecimal targetAmount, BigDecimal currentAmount, LocalDate deadline) {
         if (deadline == null || targetAmount == null) return BigDecimal.ZERO;
         long weeks = ChronoUnit.WEEKS.between(LocalDate.now(), deadline);
         if (weeks <= 0) weeks = 1;
         
-        BigDecimal remaining = targetAmount.subtract(currentAmount);
+        BigDecimal remaining = targetAmount.subtract(currentAmount == null ? BigDecimal.ZERO : currentAmount);
         if (remaining.compareTo(BigDecimal.ZERO) <= 0) return BigDecimal.ZERO;
         
         return remaining.divide(new BigDecimal(weeks), 2, BigDecimal.ROUND_HALF_UP);
@@ -1,6 +1,8 @@
 package com.bank.atlasbank.savings;
 
 import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerView;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,29 +15,35 @@ import java.util.Map;
 public class SavingsGoalController {
 
     private final SavingsGoalService savingsGoalService;
+    // Compatibilidad: devuelve las entidades completas en lugar de SavingsGoalView
+    private final boolean legacyEntities;
 
-    public SavingsGoalController(SavingsGoalService savingsGoalService) {
+    public SavingsGoalController(SavingsGoalService savingsGoalService,
+                                 @Value("${atlasbank.api.legacy-entities:false}") boolean legacyEntities) {
         this.savingsGoalService = savingsGoalService;
+        this.legacyEntities = legacyEntities;
     }
 
     @PostMapping("/goals/{customerId}")
-    public ResponseEntity<SavingsGoal> createGoal(@PathVariable String customerId, @RequestBody SavingsGoal goal) {
-        return ResponseEntity.ok(savingsGoalService.createGoal(customerId, goal));
+    public ResponseEntity<?> createGoal(@PathVariable String customerId, @RequestBody SavingsGoal goal) {
+        return ResponseEntity.ok(render(savingsGoalService.createGoal(customerId, goal)));
     }
 
     @GetMapping("/goals/{customerId}")
-    public ResponseEntity<List<SavingsGoal>> getGoals(@PathVariable String customerId) {
-        return ResponseEntity.ok(savingsGoalService.getGoalsByCustomer(customerId));
+    public ResponseEntity<List<?>> getGoals(@PathVariable String customerId) {
+        return ResponseEntity.ok(legacyEntities ? savingsGoalService.getGoalsByCustomer(customerId)
+                : savingsGoalService.getGoalViewsByCustomer(customerId));
     }
 
     @PostMapping("/goals/{goalId}/add-funds")
-    public ResponseEntity<SavingsGoal> addFunds(@PathVariable Long goalId, @RequestBody Map<String, BigDecimal> body) {
-        return ResponseEntity.ok(savingsGoalService.addFunds(goalId, body.get("amount")));
+    public ResponseEntity<?> addFunds(@PathVariable Long goalId, @RequestBody Map<String, BigDecimal> body) {
+        return ResponseEntity.ok(render(savingsGoalService.addFunds(goalId, body.get("amount"))));
     }
 
     @PutMapping("/roundup/{customerId}")
-    public ResponseEntity<Customer> toggleRoundup(@PathVariable String customerId, @RequestBody Map<String, Boolean> body) {
-        return ResponseEntity.ok(savingsGoalService.toggleRoundup(customerId, body.get("enabled")));
+    public ResponseEntity<?> toggleRoundup(@PathVariable String customerId, @RequestBody Map<String, Boolean> body) {
+        Customer customer = savingsGoalService.toggleRoundup(customerId, body.get("enabled"));
+        return ResponseEntity.ok(legacyEntities ? customer : CustomerView.from(customer));
     }
 
     @GetMapping("/suggestion/{goalId}")
@@ -43,4 +51,8 @@ public class SavingsGoalController {
         // This is a simple logic, but could be expanded
         return ResponseEntity.ok(Map.of("weeklySuggestion", BigDecimal.TEN)); // Placeholder if needed or just use logic in entity
     }
+
+    private Object render(SavingsGoal goal) {
+        return legacyEntities ? goal : SavingsGoalView.from(goal);
+    }
 }
@@ -1,10 +1,29 @@
 package com.bank.atlasbank.savings;
 
 import com.bank.atlasbank.customer.Customer;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface SavingsGoalRepository extends JpaRepository<SavingsGoal, Long> {
+    @EntityGraph(SavingsGoal.WITH_CUSTOMER)
     List<SavingsGoal> findByCustomer(Customer customer);
+
+    @EntityGraph(SavingsGoal.WITH_CUSTOMER)
+    Optional<SavingsGoal> findWithCustomerById(Long id);
+
+    @Query("""
+            select new com.bank.atlasbank.savings.SavingsGoalView(
+                g.id, g.name, g.targetAmount, g.currentAmount, g.deadline, g.completed)
+            from SavingsGoal g where g.customer.id = :customerId""")
+    List<SavingsGoalView> findViewsByCustomerId(@Param("customerId") Long customerId);
+
     List<SavingsGoal> findByCustomerAndCompleted(Customer customer, boolean completed);
+    @EntityGraph(SavingsGoal.WITH_CUSTOMER)
+    List<SavingsGoal> findByCustomer_CustomerIdInAndCompletedFalseOrderByIdAsc(Collection<String> customerIds);
 }
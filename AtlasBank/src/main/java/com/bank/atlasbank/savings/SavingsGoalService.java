@@ -2,38 +2,73 @@ package com.bank.atlasbank.savings;
 
 import com.bank.atlasbank.customer.Customer;
 import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.customer.CustomerService;
+import com.bank.atlasbank.customer.CustomerUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SavingsGoalService {
 
+    private static final Logger log = LoggerFactory.getLogger(SavingsGoalService.class);
+    private static final BigDecimal ROUNDUP_UNIT = new BigDecimal("1000");
+
     private final SavingsGoalRepository savingsGoalRepository;
     private final CustomerRepository customerRepository;
+    private final RoundupOutboxRepository outboxRepository;
+    private final CustomerService customerService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SavingsGoalService(SavingsGoalRepository savingsGoalRepository, CustomerRepository customerRepository) {
+    public SavingsGoalService(SavingsGoalRepository savingsGoalRepository,
+                              CustomerRepository customerRepository,
+                              RoundupOutboxRepository outboxRepository,
+                              CustomerService customerService,
+                              ApplicationEventPublisher eventPublisher) {
         this.savingsGoalRepository = savingsGoalRepository;
         this.customerRepository = customerRepository;
+        this.outboxRepository = outboxRepository;
+        this.customerService = customerService;
+        this.eventPublisher = eventPublisher;
     }
 
     public SavingsGoal createGoal(String customerId, SavingsGoal goal) {
-        Customer customer = customerRepository.findByCustomerId(customerId)
+        Customer customer = customerService.lookupByCustomerId(customerId)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
         goal.setCustomer(customer);
         return savingsGoalRepository.save(goal);
     }
 
     public List<SavingsGoal> getGoalsByCustomer(String customerId) {
-        Customer customer = customerRepository.findByCustomerId(customerId)
+        Customer customer = customerService.lookupByCustomerId(customerId)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
         return savingsGoalRepository.findByCustomer(customer);
     }
 
+    @Transactional(readOnly = true)
+    public List<SavingsGoalView> getGoalViewsByCustomer(String customerId) {
+        Customer customer = customerService.lookupByCustomerId(customerId)
+                .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
+        return savingsGoalRepository.findViewsByCustomerId(customer.getId());
+    }
+
+    @Transactional
     public SavingsGoal addFunds(Long goalId, BigDecimal amount) {
-        SavingsGoal goal = savingsGoalRepository.findById(goalId)
+        SavingsGoal goal = savingsGoalRepository.findWithCustomerById(goalId)
                 .orElseThrow(() -> new RuntimeException("Meta no encontrada"));
         
         goal.setCurrentAmount(goal.getCurrentAmount().add(amount));
@@ -47,24 +82,68 @@ public class SavingsGoalService {
         Customer customer = customerRepository.findByCustomerId(customerId)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
         customer.setRoundupEnabled(enabled);
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerUpdatedEvent(saved.getCustomerId()));
+        return saved;
     }
 
-    public void processRoundup(String customerId, BigDecimal transactionAmount) {
-        Customer customer = customerRepository.findByCustomerId(customerId).orElse(null);
+    /**
+     * Registra el redondeo de un movimiento en la bandeja de salida, dentro de la
+     * transacción del movimiento. No consulta la BD: usa el cliente ya cargado.
+     */
+    public void enqueueRoundup(Customer customer, BigDecimal transactionAmount) {
         if (customer == null || !customer.isRoundupEnabled()) return;
 
-        // Calculate roundup to next 1000 (standard in COP) or integer if small
-        // For this demo, let's roundup to the nearest 1000
-        BigDecimal nextThousand = transactionAmount.divide(new BigDecimal("1000"), 0, BigDecimal.ROUND_CEILING).multiply(new BigDecimal("1000"));
-        BigDecimal roundupAmount = nextThousand.subtract(transactionAmount);
-
+        BigDecimal roundupAmount = calculateRoundup(transactionAmount);
         if (roundupAmount.compareTo(BigDecimal.ZERO) > 0) {
-            // Find an active goal to add funds to
-            List<SavingsGoal> activeGoals = savingsGoalRepository.findByCustomerAndCompleted(customer, false);
-            if (!activeGoals.isEmpty()) {
-                addFunds(activeGoals.get(0).getId(), roundupAmount);
+            outboxRepository.save(new RoundupOutboxEntry(customer.getCustomerId(), roundupAmount));
+        }
+    }
+
+    // Calculate roundup to next 1000 (standard in COP)
+    public static BigDecimal calculateRoundup(BigDecimal transactionAmount) {
+        BigDecimal nextThousand = transactionAmount.divide(ROUNDUP_UNIT, 0, RoundingMode.CEILING).multiply(ROUNDUP_UNIT);
+        return nextThousand.subtract(transactionAmount);
+    }
+
+    /**
+     * Aplica hasta {@code limit} redondeos pendientes. Se agrupan por cliente y cada
+     * meta modificada se guarda una sola vez; los montos se reparten en orden igual
+     * que antes: siempre a la primera meta incompleta, pasando a la siguiente cuando
+     * una se completa.
+     *
+     * @return cuántas entradas de la bandeja se consumieron
+     */
+    @Transactional
+    public int applyPendingRoundups(int limit) {
+        List<RoundupOutboxEntry> pending = outboxRepository.findPending(PageRequest.of(0, limit));
+        if (pending.isEmpty()) return 0;
+
+        Set<String> customerIds = new LinkedHashSet<>();
+        pending.forEach(e -> customerIds.add(e.getCustomerId()));
+
+        Map<String, Deque<SavingsGoal>> openGoals = new HashMap<>();
+        for (SavingsGoal goal : savingsGoalRepository.findByCustomer_CustomerIdInAndCompletedFalseOrderByIdAsc(customerIds)) {
+            openGoals.computeIfAbsent(goal.getCustomer().getCustomerId(), id -> new ArrayDeque<>()).addLast(goal);
+        }
+
+        Set<SavingsGoal> touched = new LinkedHashSet<>();
+        for (RoundupOutboxEntry entry : pending) {
+            Deque<SavingsGoal> goals = openGoals.get(entry.getCustomerId());
+            if (goals == null || goals.isEmpty()) continue;
+
+            SavingsGoal goal = goals.peekFirst();
+            goal.setCurrentAmount(goal.getCurrentAmount().add(entry.getAmount()));
+            if (goal.getCurrentAmount().compareTo(goal.getTargetAmount()) >= 0) {
+                goal.setCompleted(true);
+                goals.pollFirst();
             }
+            touched.add(goal);
         }
+
+        savingsGoalRepository.saveAll(touched);
+        outboxRepository.deleteAllInBatch(pending);
+        log.debug("Redondeos aplicados: {} entradas, {} metas actualizadas", pending.size(), touched.size());
+        return pending.size();
     }
 }
@@ -0,0 +1,27 @@
+package com.bank.atlasbank.savings;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Meta de ahorro tal como la expone la API, sin el cliente embebido. */
+public record SavingsGoalView(
+        Long id,
+        String name,
+        BigDecimal targetAmount,
+        BigDecimal currentAmount,
+        LocalDate deadline,
+        boolean completed,
+        BigDecimal weeklySuggestion
+) {
+    // Constructor de las consultas; la sugerencia semanal se calcula aquí
+    public SavingsGoalView(Long id, String name, BigDecimal targetAmount, BigDecimal currentAmount,
+                           LocalDate deadline, boolean completed) {
+        this(id, name, targetAmount, currentAmount, deadline, completed,
+                SavingsGoal.weeklySuggestion(targetAmount, currentAmount, deadline));
+    }
+
+    public static SavingsGoalView from(SavingsGoal goal) {
+        return new SavingsGoalView(goal.getId(), goal.getName(), goal.getTargetAmount(), goal.getCurrentAmount(),
+                goal.getDeadline(), goal.isCompleted());
+    }
+}
@@ -1,18 +1,71 @@
 package com.bank.atlasbank.security;
 
+import com.bank.atlasbank.common.exception.BusinessException;
 import com.bank.atlasbank.customer.Customer;
 import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.customer.CustomerStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class AntiFraudService {
 
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VelocityTracker velocityTracker;
+    private final boolean velocityEnabled;
+    private final TransactionTemplate blockTemplate;
+    private final ExecutorService blockWriter;
     private static final BigDecimal MAX_SAFE_AMOUNT = new BigDecimal("10000");
 
-    public AntiFraudService(CustomerRepository customerRepository) {
+    // Velocity limits (amounts in cents)
+    private final long maxPerMinute;
+    private final long maxPerHour;
+    private final long maxCentsPerHour;
+    private final long maxCentsPerDay;
+    private final int maxTargetsPerDay;
+
+    public AntiFraudService(CustomerRepository customerRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            VelocityTracker velocityTracker,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${atlasbank.antifraud.velocity-enabled:false}") boolean velocityEnabled,
+                            @Value("${atlasbank.antifraud.velocity-max-per-minute:5}") long maxPerMinute,
+                            @Value("${atlasbank.antifraud.velocity-max-per-hour:30}") long maxPerHour,
+                            @Value("${atlasbank.antifraud.velocity-max-amount-per-hour:20000}") BigDecimal maxAmountPerHour,
+                            @Value("${atlasbank.antifraud.velocity-max-amount-per-day:50000}") BigDecimal maxAmountPerDay,
+                            @Value("${atlasbank.antifraud.velocity-max-targets-per-day:10}") int maxTargetsPerDay) {
         this.customerRepository = customerRepository;
+        this.eventPublisher = eventPublisher;
+        this.velocityTracker = velocityTracker;
+        this.velocityEnabled = velocityEnabled;
+        this.maxPerMinute = maxPerMinute;
+        this.maxPerHour = maxPerHour;
+        this.maxCentsPerHour = maxAmountPerHour.movePointRight(2).longValue();
+        this.maxCentsPerDay = maxAmountPerDay.movePointRight(2).longValue();
+        this.maxTargetsPerDay = maxTargetsPerDay;
+        this.blockTemplate = new TransactionTemplate(transactionManager);
+        this.blockWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "fraud-block-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        blockWriter.shutdown();
     }
 
     /**
@@ -20,6 +73,17 @@ public class AntiFraudService {
      * @return true if fraud is detected, false otherwise.
      */
     public boolean analyzeTransaction(Customer customer, BigDecimal amount, String location) {
+        return analyzeTransaction(customer, amount, location, null);
+    }
+
+    /**
+     * Same as {@link #analyzeTransaction(Customer, BigDecimal, String)}, also feeding the
+     * customer's in-memory velocity windows with the target account
+     * ({@code atlasbank.antifraud.velocity-enabled}, off by default).
+     * A velocity limit only rejects this movement: it throws a {@link BusinessException}
+     * and the customer is not blocked.
+     */
+    public boolean analyzeTransaction(Customer customer, BigDecimal amount, String location, Long targetAccountId) {
         boolean suspicious = false;
         String reason = "";
 
@@ -35,18 +99,77 @@ public class AntiFraudService {
             reason = "Acceso o compra desde país no habitual: " + location;
         }
 
+        // Pattern 3: Velocity (sliding windows, current attempt included)
+        if (!suspicious && velocityEnabled && customer.getCustomerId() != null) {
+            String velocityReason = velocityViolation(
+                    velocityTracker.record(customer.getCustomerId(), amount, targetAccountId));
+            if (velocityReason != null) {
+                throw new BusinessException("Transacción rechazada por límite de operaciones: " + velocityReason);
+            }
+        }
+
         if (suspicious) {
-            blockAccount(customer, reason);
+            blockAccount(customer, reason, amount, location);
             return true;
         }
 
         return false;
     }
 
-    private void blockAccount(Customer customer, String reason) {
+    private String velocityViolation(VelocityFeatures f) {
+        if (f.countLastMinute() > maxPerMinute) {
+            return "Demasiadas operaciones en el último minuto: " + f.countLastMinute();
+        }
+        if (f.countLastHour() > maxPerHour) {
+            return "Demasiadas operaciones en la última hora: " + f.countLastHour();
+        }
+        if (f.sumLastHour() > maxCentsPerHour) {
+            return "Monto acumulado inusual en la última hora: $" + BigDecimal.valueOf(f.sumLastHour(), 2);
+        }
+        if (f.sumLastDay() > maxCentsPerDay) {
+            return "Monto acumulado inusual en 24h: $" + BigDecimal.valueOf(f.sumLastDay(), 2);
+        }
+        if (f.distinctTargetsLastDay() > maxTargetsPerDay) {
+            return "Demasiadas cuentas destino distintas en 24h: " + f.distinctTargetsLastDay();
+        }
+        return null;
+    }
+
+    /**
+     * El bloqueo se confirma en su propia transacción: la operación que lo dispara se
+     * rechaza y se revierte, pero el cliente debe quedar bloqueado. Dentro de una
+     * transacción se escribe cuando esta termina y desde otro hilo, así el movimiento ya
+     * soltó sus filas y su conexión y no espera por una segunda. Los eventos se publican
+     * dentro de la transacción del bloqueo y los oyentes los reciben tras su commit.
+     */
+    private void blockAccount(Customer customer, String reason, BigDecimal amount, String location) {
+        String previousStatus = customer.getStatus();
         customer.setStatus("BLOCKED");
-        // In a real app we'd save the reason in an audit log
-        customerRepository.save(customer);
+        Runnable block = () -> persistBlock(customer, previousStatus, reason, amount, location);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    blockWriter.execute(block);
+                }
+            });
+        } else {
+            block.run();
+        }
         System.out.println("ALERT: Account " + customer.getCustomerId() + " blocked due to: " + reason);
     }
+
+    private void persistBlock(Customer customer, String previousStatus, String reason, BigDecimal amount, String location) {
+        blockTemplate.executeWithoutResult(status -> {
+            // La instancia recibida pertenece a la transacción del movimiento
+            Customer stored = customer.getId() == null ? customer
+                    : customerRepository.findById(customer.getId()).orElse(customer);
+            stored.setStatus("BLOCKED");
+            // In a real app we'd save the reason in an audit log
+            customerRepository.save(stored);
+            eventPublisher.publishEvent(new CustomerStatusChangedEvent(stored.getId(), stored.getCustomerId(), previousStatus, "BLOCKED"));
+            eventPublisher.publishEvent(new FraudBlockedEvent(stored.getId(), stored.getCustomerId(), reason,
+                    amount, location, LocalDateTime.now()));
+        });
+    }
 }
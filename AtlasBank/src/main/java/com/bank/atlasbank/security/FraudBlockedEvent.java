@@ -0,0 +1,19 @@
+package com.bank.atlasbank.security;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Bloqueo de un cliente por el sistema antifraude. Se publica en la transacción propia
+ * que confirma el bloqueo (no en la operación rechazada, que se revierte), así que los
+ * oyentes pueden usar {@code @TransactionalEventListener}.
+ */
+public record FraudBlockedEvent(
+        Long id,
+        String customerId,
+        String reason,
+        BigDecimal amount,
+        String location,
+        LocalDateTime blockedAt
+) {
+}
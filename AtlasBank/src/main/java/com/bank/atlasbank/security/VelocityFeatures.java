@@ -0,0 +1,16 @@
+package com.bank.atlasbank.security;
+
+/**
+ * Métricas de velocidad de un cliente, incluyendo el movimiento que se está evaluando.
+ * Los montos van en centavos.
+ */
+public record VelocityFeatures(
+        long countLastMinute,
+        long sumLastMinute,
+        long countLastHour,
+        long sumLastHour,
+        long countLastDay,
+        long sumLastDay,
+        int distinctTargetsLastDay
+) {
+}
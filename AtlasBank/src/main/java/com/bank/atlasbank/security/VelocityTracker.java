@@ -0,0 +1,151 @@
+package com.bank.atlasbank.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Métricas de velocidad por cliente (1 min, 1 h, 24 h y cuentas destino distintas)
+ * mantenidas en memoria, sin consultas a BD ni locks.
+ *
+ * Cada cliente ocupa unos 2 KB (48 cubetas y 16 destinos recientes), así que el
+ * límite por defecto de {@code atlasbank.antifraud.max-tracked-customers} (50 000)
+ * ronda los 100 MB. Con el mapa lleno un cliente nuevo no se admite: su movimiento se
+ * evalúa solo y se cuenta como no seguido hasta que el barrido libere sitio. Los hilos
+ * que admiten a la vez pueden pasar el límite por unas pocas entradas.
+ *
+ * Los clientes sin actividad por más de un día se descartan en el barrido periódico,
+ * que además devuelve el mapa al límite. Registrar un movimiento nunca recorre el mapa.
+ */
+@Component
+public class VelocityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(VelocityTracker.class);
+
+    private static final long DAY_SECONDS = 24 * 3600;
+    private static final int RECENT_TARGETS = 16;
+
+    private final int maxCustomers;
+    private final Map<String, CustomerVelocity> customers = new ConcurrentHashMap<>();
+    private final AtomicLong untracked = new AtomicLong();
+
+    public VelocityTracker(@Value("${atlasbank.antifraud.max-tracked-customers:50000}") int maxCustomers) {
+        this.maxCustomers = maxCustomers;
+    }
+
+    /** Registra el movimiento y devuelve las métricas que ya lo incluyen. */
+    public VelocityFeatures record(String customerId, BigDecimal amount, Long targetAccountId) {
+        return record(customerId, amount, targetAccountId, System.currentTimeMillis() / 1000);
+    }
+
+    VelocityFeatures record(String customerId, BigDecimal amount, Long targetAccountId, long now) {
+        long cents = amount.movePointRight(2).longValue();
+
+        CustomerVelocity velocity = customers.get(customerId);
+        if (velocity == null) {
+            if (customers.size() >= maxCustomers) {
+                untracked.incrementAndGet();
+                return new VelocityFeatures(1, cents, 1, cents, 1, cents, targetAccountId != null ? 1 : 0);
+            }
+            velocity = customers.computeIfAbsent(customerId, id -> new CustomerVelocity());
+        }
+        velocity.lastSeen = now;
+        velocity.minute.add(now, cents);
+        velocity.hour.add(now, cents);
+        velocity.day.add(now, cents);
+        if (targetAccountId != null) {
+            velocity.addTarget(now, targetAccountId);
+        }
+        return velocity.features(now);
+    }
+
+    public int trackedCustomers() {
+        return customers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${atlasbank.antifraud.eviction-interval-ms:60000}")
+    public void evictIdleCustomers() {
+        evictIdleCustomers(System.currentTimeMillis() / 1000);
+    }
+
+    void evictIdleCustomers(long now) {
+        evictIdle(now - DAY_SECONDS);
+        if (customers.size() > maxCustomers) {
+            evictIdle(now - 3600);
+        }
+    }
+
+    private void evictIdle(long idleBefore) {
+        int before = customers.size();
+        customers.values().removeIf(v -> v.lastSeen < idleBefore);
+        // Si aun así se excede el límite se descartan entradas cualesquiera
+        Iterator<String> it = customers.keySet().iterator();
+        while (customers.size() > maxCustomers && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        int removed = before - customers.size();
+        if (removed > 0) {
+            log.debug("Velocidad antifraude: {} clientes inactivos descartados", removed);
+        }
+        long refused = untracked.getAndSet(0);
+        if (refused > 0) {
+            log.warn("Velocidad antifraude: límite de {} clientes alcanzado, {} movimientos de clientes nuevos sin seguimiento",
+                    maxCustomers, refused);
+        }
+    }
+
+    private static final class CustomerVelocity {
+
+        // Cubetas de 5 s y 5 min: el borde de la ventana se mueve a saltos, basta para fraude
+        private final VelocityWindow minute = new VelocityWindow(5, 12);
+        private final VelocityWindow hour = new VelocityWindow(300, 12);
+        private final VelocityWindow day = new VelocityWindow(3600, 24);
+        private final AtomicLongArray targetIds = new AtomicLongArray(RECENT_TARGETS);
+        private final AtomicLongArray targetTimes = new AtomicLongArray(RECENT_TARGETS);
+        private final AtomicInteger targetCursor = new AtomicInteger();
+        private volatile long lastSeen;
+
+        void addTarget(long now, long targetAccountId) {
+            int slot = Math.floorMod(targetCursor.getAndIncrement(), RECENT_TARGETS);
+            targetIds.set(slot, targetAccountId);
+            targetTimes.set(slot, now);
+        }
+
+        int distinctTargets(long now) {
+            long[] seen = new long[RECENT_TARGETS];
+            int distinct = 0;
+            for (int i = 0; i < RECENT_TARGETS; i++) {
+                if (now - targetTimes.get(i) >= DAY_SECONDS) continue;
+                long id = targetIds.get(i);
+                boolean repeated = false;
+                for (int j = 0; j < distinct; j++) {
+                    if (seen[j] == id) {
+                        repeated = true;
+                        break;
+                    }
+                }
+                if (!repeated) seen[distinct++] = id;
+            }
+            return distinct;
+        }
+
+        VelocityFeatures features(long now) {
+            return new VelocityFeatures(
+                    minute.count(now), minute.sumCents(now),
+                    hour.count(now), hour.sumCents(now),
+                    day.count(now), day.sumCents(now),
+                    distinctTargets(now));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bank.atlasbank.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ventana deslizante en anillo de cubetas de tiempo, sin locks.
+ *
+ * Cada cubeta guarda su época (segundo de inicio / tamaño de cubeta), el número de
+ * movimientos y la suma en centavos. Si dos hilos del mismo cliente giran la misma
+ * cubeta a la vez se puede perder un incremento; para señales de fraude basta.
+ */
+final class VelocityWindow {
+
+    private final int bucketSeconds;
+    private final int buckets;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray sums;
+
+    VelocityWindow(int bucketSeconds, int buckets) {
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets);
+        this.sums = new AtomicLongArray(buckets);
+    }
+
+    void add(long nowSeconds, long cents) {
+        long epoch = nowSeconds / bucketSeconds;
+        int slot = (int) (epoch % buckets);
+        long current = epochs.get(slot);
+        if (current != epoch && epochs.compareAndSet(slot, current, epoch)) {
+            counts.set(slot, 0);
+            sums.set(slot, 0);
+        }
+        counts.incrementAndGet(slot);
+        sums.addAndGet(slot, cents);
+    }
+
+    long count(long nowSeconds) {
+        long oldest = nowSeconds / bucketSeconds - buckets;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (epochs.get(i) > oldest) total += counts.get(i);
+        }
+        return total;
+    }
+
+    long sumCents(long nowSeconds) {
+        long oldest = nowSeconds / bucketSeconds - buckets;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (epochs.get(i) > oldest) total += sums.get(i);
+        }
+        return total;
+    }
+}
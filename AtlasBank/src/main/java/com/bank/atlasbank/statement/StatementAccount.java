@@ -0,0 +1,8 @@
+package com.bank.atlasbank.statement;
+
+import java.math.BigDecimal;
+
+/** Cabecera de un estado de cuenta; {@code currentBalance} incluye las franjas de saldo. */
+record StatementAccount(long id, String accountNumber, String accountType, String customerId,
+                        String customerName, BigDecimal currentBalance) {
+}
@@ -0,0 +1,113 @@
+package com.bank.atlasbank.statement;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Estado de cuenta de una cuenta en escritura. Se escribe en un {@code .tmp} junto al
+ * destino y solo se renombra al cerrarse, de modo que un archivo presente siempre está
+ * completo y una nueva ejecución puede saltárselo sin más comprobaciones.
+ */
+class StatementFile {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER = "fecha,movimiento,tipo,contraparte,importe,saldo";
+
+    private final StatementService.Format format;
+    private final Path target;
+    private final Path tmp;
+    private final Writer writer;
+    private BigDecimal balance;
+    private long movements;
+
+    StatementFile(StatementService.Format format, Path target, YearMonth month, StatementAccount account,
+                  BigDecimal openingBalance) throws IOException {
+        this.format = format;
+        this.target = target;
+        this.tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8);
+        this.balance = openingBalance;
+
+        if (format == StatementService.Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            line(month.atDay(1).atStartOfDay(), null, "SALDO_INICIAL", null, null);
+        } else {
+            writer.write("ESTADO DE CUENTA " + month + '\n');
+            writer.write("Cuenta: " + account.accountNumber() + " (" + account.accountType() + ")\n");
+            writer.write("Cliente: " + account.customerId() + ' ' + account.customerName() + '\n');
+            writer.write("Saldo inicial: " + openingBalance.toPlainString() + '\n');
+        }
+    }
+
+    /** Añade un movimiento; {@code delta} es el efecto con signo sobre esta cuenta. */
+    void append(LocalDateTime createdAt, long transactionId, String type, String counterpart,
+                BigDecimal delta) throws IOException {
+        balance = balance.add(delta);
+        movements++;
+        line(createdAt, transactionId, type, counterpart, delta);
+    }
+
+    long movements() {
+        return movements;
+    }
+
+    /** Escribe el saldo final y publica el archivo. */
+    void complete(YearMonth month) throws IOException {
+        if (format == StatementService.Format.CSV) {
+            line(month.plusMonths(1).atDay(1).atStartOfDay(), null, "SALDO_FINAL", null, null);
+        } else {
+            writer.write("Saldo final: " + balance.toPlainString() + " (" + movements + " movimientos)\n");
+        }
+        writer.close();
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Descarta el archivo a medias tras un error. */
+    void abort() {
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // el temporal se borra igualmente
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException ignored) {
+            // se sobrescribe en la siguiente ejecución
+        }
+    }
+
+    private void line(LocalDateTime at, Long transactionId, String type, String counterpart,
+                      BigDecimal delta) throws IOException {
+        if (format == StatementService.Format.CSV) {
+            writer.write(at.toString());
+            writer.write(',');
+            writer.write(transactionId == null ? "" : transactionId.toString());
+            writer.write(',');
+            writer.write(type);
+            writer.write(',');
+            writer.write(counterpart == null ? "" : csv(counterpart));
+            writer.write(',');
+            writer.write(delta == null ? "" : delta.toPlainString());
+            writer.write(',');
+            writer.write(balance.toPlainString());
+        } else {
+            writer.write(String.format("%s  %-8s %14s  %14s  %s", TIMESTAMP.format(at), type,
+                    delta.toPlainString(), balance.toPlainString(), counterpart == null ? "" : counterpart));
+        }
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.atlasbank.statement;
+
+import java.time.YearMonth;
+
+/**
+ * Resultado de una generación de estados de cuenta. {@code skipped} son las cuentas
+ * cuyo archivo ya existía de una ejecución anterior; con {@code failedPartitions > 0}
+ * basta con relanzar el mismo mes para completar las que faltan.
+ */
+public record StatementRunResult(
+        YearMonth month,
+        StatementService.Format format,
+        String directory,
+        long accounts,
+        long generated,
+        long skipped,
+        long movements,
+        int failedPartitions,
+        long durationMs
+) {
+}
@@ -0,0 +1,323 @@
+package com.bank.atlasbank.statement;
+
+import com.bank.atlasbank.account.BalanceSql;
+import com.bank.atlasbank.common.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estados de cuenta mensuales en archivos, uno por cuenta, bajo
+ * {@code atlasbank.statements.dir/AAAA-MM/}. Las cuentas se reparten en particiones de
+ * ids {@code [inicio, inicio + partition-size)} sobre un pool de
+ * {@code atlasbank.statements.parallelism} hilos. Cada partición, en una transacción de
+ * solo lectura REPEATABLE_READ (una sola foto de la BD):
+ * <ol>
+ *     <li>lee la cabecera y el saldo actual de sus cuentas por la PK y descarta las que
+ *     ya tienen archivo,</li>
+ *     <li>obtiene el saldo inicial restando al actual el neto de movimientos desde el
+ *     primer día del mes (una agregación por partición),</li>
+ *     <li>recorre con un cursor los movimientos del mes ordenados por cuenta, fecha e id
+ *     y los va escribiendo en el archivo de la cuenta en curso.</li>
+ * </ol>
+ * Cada hilo retiene como mucho una partición de cabeceras y un lote del cursor
+ * ({@code atlasbank.statements.fetch-size} filas), sea cual sea el volumen del mes.
+ */
+@Service
+public class StatementService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementService.class);
+
+    public enum Format { CSV, TXT }
+
+    private static final String PARTITION_ACCOUNTS = """
+            select a.id, a.account_number, a.account_type, c.customer_id, c.full_name, %s
+            from accounts a join customers c on c.id = a.customer_id
+            where a.id >= ? and a.id < ?
+            order by a.id""".formatted(BalanceSql.totalBalance("a"));
+
+    private static final String MONTH_MOVEMENTS = """
+            select m.account_id, m.id, m.type, m.delta, m.counterpart, m.created_at from (
+                select t.source_account_id as account_id, t.id, t.type, %s as delta,
+                       ta.account_number as counterpart, t.created_at
+                from bank_transactions t left join accounts ta on ta.id = t.target_account_id
+                where t.source_account_id >= ? and t.source_account_id < ?
+                  and t.created_at >= ? and t.created_at < ?
+                union all
+                select t.target_account_id, t.id, t.type, t.amount, sa.account_number, t.created_at
+                from bank_transactions t join accounts sa on sa.id = t.source_account_id
+                where t.target_account_id >= ? and t.target_account_id < ?
+                  and t.created_at >= ? and t.created_at < ?
+            ) m order by m.account_id, m.created_at, m.id""".formatted(BalanceSql.SOURCE_DELTA);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final Path baseDir;
+    private final Format defaultFormat;
+    private final int partitionSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StatementService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${atlasbank.statements.dir:./statements}") String dir,
+                            @Value("${atlasbank.statements.format:csv}") String format,
+                            @Value("${atlasbank.statements.partition-size:1000}") int partitionSize,
+                            @Value("${atlasbank.statements.parallelism:0}") int parallelism,
+                            @Value("${atlasbank.statements.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(Math.max(1, fetchSize));
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.baseDir = Paths.get(dir);
+        this.defaultFormat = parseFormat(format);
+        this.partitionSize = Math.max(1, partitionSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static Format parseFormat(String value) {
+        if (value == null || value.isBlank()) return Format.CSV;
+        try {
+            return Format.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato de estado de cuenta no soportado: " + value);
+        }
+    }
+
+    /** Al arrancar cada mes se generan los estados del mes anterior. */
+    @Scheduled(cron = "${atlasbank.statements.cron:-}")
+    public void scheduledGeneration() {
+        try {
+            generate(YearMonth.now().minusMonths(1), defaultFormat);
+        } catch (BusinessException e) {
+            log.warn("Generación de estados de cuenta omitida: {}", e.getMessage());
+        }
+    }
+
+    public StatementRunResult generate(YearMonth month, Format format) {
+        if (month == null || !month.isBefore(YearMonth.now())) {
+            throw new BusinessException("Solo se generan estados de cuenta de meses cerrados");
+        }
+        Format effective = format == null ? defaultFormat : format;
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("Ya hay una generación de estados de cuenta en curso");
+        }
+        try {
+            return run(month, effective);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private StatementRunResult run(YearMonth month, Format format) {
+        long start = System.nanoTime();
+        Path dir = baseDir.resolve(month.toString());
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo crear el directorio de estados de cuenta: " + dir);
+        }
+
+        Map<String, Object> range = jdbcTemplate.queryForMap("select min(id) as lo, max(id) as hi from accounts");
+        long first = range.get("lo") == null ? 1 : ((Number) range.get("lo")).longValue();
+        long last = range.get("hi") == null ? 0 : ((Number) range.get("hi")).longValue();
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "statements-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long accounts = 0;
+        long generated = 0;
+        long skipped = 0;
+        long movements = 0;
+        int failed = 0;
+        try {
+            List<Long> starts = new ArrayList<>();
+            List<Future<PartitionResult>> futures = new ArrayList<>();
+            for (long from = first; from <= last; from += partitionSize) {
+                long partitionFrom = from;
+                long to = from + partitionSize;
+                starts.add(from);
+                futures.add(pool.submit(() -> generatePartition(month, format, dir, partitionFrom, to)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    PartitionResult partition = futures.get(i).get();
+                    accounts += partition.accounts();
+                    generated += partition.generated();
+                    skipped += partition.skipped();
+                    movements += partition.movements();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Estados {}: partición desde la cuenta {} fallida: {}",
+                            month, starts.get(i), e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Generación de estados de cuenta interrumpida");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Estados {} ({}): {} cuentas, {} generados, {} ya existentes, {} movimientos, {} particiones fallidas en {} ms",
+                month, format, accounts, generated, skipped, movements, failed, durationMs);
+        return new StatementRunResult(month, format, dir.toAbsolutePath().normalize().toString(),
+                accounts, generated, skipped, movements, failed, durationMs);
+    }
+
+    private PartitionResult generatePartition(YearMonth month, Format format, Path dir, long from, long to) {
+        return snapshotTemplate.execute(status -> {
+            List<StatementAccount> pending = new ArrayList<>();
+            int[] total = new int[1];
+            jdbcTemplate.query(PARTITION_ACCOUNTS, rs -> {
+                total[0]++;
+                StatementAccount account = new StatementAccount(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getString(5), rs.getBigDecimal(6));
+                if (!Files.exists(target(dir, account, format))) {
+                    pending.add(account);
+                }
+            }, from, to);
+            if (pending.isEmpty()) {
+                return new PartitionResult(total[0], 0, total[0], 0);
+            }
+
+            LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+            Map<Long, BigDecimal> netSinceStart = new HashMap<>();
+            jdbcTemplate.query(BalanceSql.RANGE_NET_SINCE, rs -> {
+                netSinceStart.put(rs.getLong(1), rs.getBigDecimal(2));
+            }, from, to, Timestamp.valueOf(monthStart), from, to, Timestamp.valueOf(monthStart));
+
+            PartitionWriter writer = new PartitionWriter(month, format, dir, pending, netSinceStart);
+            try {
+                cursorTemplate.query(MONTH_MOVEMENTS, writer,
+                        from, to, Timestamp.valueOf(monthStart), Timestamp.valueOf(monthEnd),
+                        from, to, Timestamp.valueOf(monthStart), Timestamp.valueOf(monthEnd));
+                writer.finish();
+            } catch (RuntimeException e) {
+                writer.abort();
+                throw e;
+            }
+            return new PartitionResult(total[0], pending.size(), total[0] - pending.size(), writer.movements);
+        });
+    }
+
+    private static Path target(Path dir, StatementAccount account, Format format) {
+        return dir.resolve(account.accountNumber() + (format == Format.CSV ? ".csv" : ".txt"));
+    }
+
+    /**
+     * Consume el cursor de la partición (ordenado por cuenta) manteniendo abierto solo el
+     * archivo de la cuenta en curso; las cuentas sin movimientos en el mes reciben un
+     * estado con saldo inicial y final.
+     */
+    private final class PartitionWriter implements RowCallbackHandler {
+
+        private final YearMonth month;
+        private final Format format;
+        private final Path dir;
+        private final Iterator<StatementAccount> pending;
+        private final Map<Long, BigDecimal> netSinceStart;
+        private StatementAccount current;
+        private StatementFile file;
+        private long movements;
+
+        PartitionWriter(YearMonth month, Format format, Path dir, List<StatementAccount> pending,
+                        Map<Long, BigDecimal> netSinceStart) {
+            this.month = month;
+            this.format = format;
+            this.dir = dir;
+            this.pending = pending.iterator();
+            this.netSinceStart = netSinceStart;
+            advance();
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long accountId = rs.getLong(1);
+            while (current != null && current.id() < accountId) {
+                advance();
+            }
+            // Movimientos de una cuenta cuyo estado ya existía
+            if (current == null || current.id() != accountId) {
+                return;
+            }
+            try {
+                file.append(rs.getTimestamp(6).toLocalDateTime(), rs.getLong(2), rs.getString(3),
+                        rs.getString(5), rs.getBigDecimal(4));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() {
+            while (current != null) {
+                advance();
+            }
+        }
+
+        void abort() {
+            if (file != null) {
+                file.abort();
+            }
+        }
+
+        private void advance() {
+            try {
+                if (file != null) {
+                    file.complete(month);
+                    movements += file.movements();
+                    file = null;
+                }
+                current = pending.hasNext() ? pending.next() : null;
+                if (current != null) {
+                    BigDecimal opening = current.currentBalance()
+                            .subtract(netSinceStart.getOrDefault(current.id(), BigDecimal.ZERO));
+                    file = new StatementFile(format, target(dir, current, format), month, current, opening);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private record PartitionResult(long accounts, long generated, long skipped, long movements) {
+    }
+}
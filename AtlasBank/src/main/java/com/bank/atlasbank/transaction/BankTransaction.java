@@ -7,11 +7,25 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bank_transactions")
+@Table(name = "bank_transactions", indexes = {
+        @Index(name = "idx_bank_tx_source_created", columnList = "source_account_id, created_at, id"),
+        @Index(name = "idx_bank_tx_target_created", columnList = "target_account_id, created_at, id"),
+        @Index(name = "idx_bank_tx_created", columnList = "created_at, id")
+})
+@NamedEntityGraph(name = BankTransaction.WITH_ACCOUNTS,
+        attributeNodes = {
+                @NamedAttributeNode(value = "sourceAccount", subgraph = "account"),
+                @NamedAttributeNode(value = "targetAccount", subgraph = "account")
+        },
+        subgraphs = @NamedSubgraph(name = "account", attributeNodes = @NamedAttributeNode("customer")))
 public class BankTransaction {
 
+    /** Ambas cuentas con su cliente: la forma completa que devuelve el modo compatible. */
+    public static final String WITH_ACCOUNTS = "BankTransaction.accounts";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bank_transactions_seq")
+    @SequenceGenerator(name = "bank_transactions_seq", sequenceName = "bank_transactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -21,11 +35,11 @@ public class BankTransaction {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal amount;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "source_account_id")
     private Account sourceAccount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "target_account_id")
     private Account targetAccount;
 
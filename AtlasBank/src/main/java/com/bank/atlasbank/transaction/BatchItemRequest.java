@@ -0,0 +1,17 @@
+package com.bank.atlasbank.transaction;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public record BatchItemRequest(
+        @NotNull(message = "type es obligatorio") TransactionType type,
+        @NotNull(message = "accountId es obligatorio") Long accountId,
+        Long targetAccountId,
+        @NotNull(message = "amount es obligatorio")
+        @DecimalMin(value = "0.01", inclusive = true, message = "El monto debe ser mayor a cero")
+        BigDecimal amount,
+        String location
+) {
+}
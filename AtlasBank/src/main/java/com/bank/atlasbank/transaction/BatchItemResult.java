@@ -0,0 +1,16 @@
+package com.bank.atlasbank.transaction;
+
+public record BatchItemResult(
+        int index,
+        String status,
+        Long transactionId,
+        String message
+) {
+    static BatchItemResult accepted(int index, Long transactionId) {
+        return new BatchItemResult(index, "ACCEPTED", transactionId, null);
+    }
+
+    static BatchItemResult rejected(int index, String message) {
+        return new BatchItemResult(index, "REJECTED", null, message);
+    }
+}
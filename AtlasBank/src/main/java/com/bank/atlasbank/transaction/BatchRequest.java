@@ -0,0 +1,14 @@
+package com.bank.atlasbank.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchRequest(
+        @NotEmpty(message = "items es obligatorio")
+        @Size(max = 5000, message = "Máximo 5000 movimientos por lote")
+        List<@Valid BatchItemRequest> items
+) {
+}
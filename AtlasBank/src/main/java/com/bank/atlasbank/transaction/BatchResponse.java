@@ -0,0 +1,10 @@
+package com.bank.atlasbank.transaction;
+
+import java.util.List;
+
+public record BatchResponse(
+        int accepted,
+        int rejected,
+        List<BatchItemResult> results
+) {
+}
@@ -0,0 +1,77 @@
+package com.bank.atlasbank.transaction;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key ya confirmada y el movimiento que produjo. Se inserta en la misma
+ * transacción que el movimiento; la clave primaria impide registrar dos veces la
+ * misma clave aunque lleguen a nodos distintos.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_created", columnList = "created_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = IdempotencyService.MAX_KEY_LENGTH)
+    private String key;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // La clave la asigna el cliente: sin esto save() haría merge en lugar de insert
+    @Transient
+    private boolean isNew = true;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    protected IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String fingerprint, Long transactionId) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.transactionId = transactionId;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
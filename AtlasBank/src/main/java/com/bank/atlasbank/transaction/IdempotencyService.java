@@ -0,0 +1,168 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.common.cache.BoundedCache;
+import com.bank.atlasbank.common.cache.CacheStats;
+import com.bank.atlasbank.common.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Soporte de la cabecera {@code Idempotency-Key} en depósitos, retiros y transferencias.
+ *
+ * Los resultados confirmados se guardan en una caché LRU acotada y, como respaldo,
+ * en la tabla {@code idempotency_keys}, insertada en la misma transacción que el
+ * movimiento. Un reintento con la misma clave devuelve el {@link BankTransaction}
+ * original sin volver a tocar las cuentas. Si llegan duplicados mientras la primera
+ * solicitud sigue en curso, esperan a que termine en lugar de ejecutarse en paralelo;
+ * si la primera falla, la siguiente la reintenta.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long waitTimeoutMs;
+    private final long ttlHours;
+    private final BoundedCache<String, Stored> completed;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              TransactionRepository transactionRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${atlasbank.idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${atlasbank.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${atlasbank.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.recordRepository = recordRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.ttlHours = ttlHours;
+        this.completed = new BoundedCache<>("idempotency", maxEntries, TimeUnit.HOURS.toMillis(ttlHours));
+    }
+
+    /** Resultado de una solicitud: el movimiento y si se trata de una repetición. */
+    public record Outcome(BankTransaction transaction, boolean replayed) {
+    }
+
+    private record Stored(String fingerprint, BankTransaction transaction) {
+    }
+
+    /** Huella de los parámetros de la solicitud; los montos se normalizan (10 y 10.00 coinciden). */
+    public static String fingerprint(String operation, Object... parts) {
+        StringJoiner joiner = new StringJoiner(":", operation + ":", "");
+        for (Object part : parts) {
+            joiner.add(part instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString()
+                    : String.valueOf(part));
+        }
+        return joiner.toString();
+    }
+
+    public Outcome execute(String key, String fingerprint, Supplier<BankTransaction> action) {
+        if (key == null || key.isBlank()) {
+            return new Outcome(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key no puede superar " + MAX_KEY_LENGTH + " caracteres");
+        }
+
+        while (true) {
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                await(running);
+                continue;
+            }
+            try {
+                Stored done = completed.get(key, this::load).orElse(null);
+                if (done != null) {
+                    return replay(done, fingerprint);
+                }
+                return run(key, fingerprint, action);
+            } finally {
+                inFlight.remove(key, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    public CacheStats cacheStats() {
+        return completed.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${atlasbank.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int removed = recordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (removed > 0) {
+            log.info("Idempotencia: {} claves vencidas eliminadas", removed);
+        }
+    }
+
+    private Outcome run(String key, String fingerprint, Supplier<BankTransaction> action) {
+        BankTransaction tx;
+        try {
+            tx = transactionTemplate.execute(status -> {
+                BankTransaction result = action.get();
+                recordRepository.saveAndFlush(new IdempotencyRecord(key, fingerprint, result.getId()));
+                return result;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo confirmó la misma clave primero; su movimiento es el que cuenta
+            Stored other = load(key);
+            if (other == null) throw e;
+            completed.put(key, other);
+            return replay(other, fingerprint);
+        }
+        completed.put(key, new Stored(fingerprint, tx));
+        return new Outcome(tx, false);
+    }
+
+    private Outcome replay(Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new BusinessException("La Idempotency-Key ya se usó con otra solicitud");
+        }
+        return new Outcome(stored.transaction(), true);
+    }
+
+    // En una transacción de escritura: con réplica de lectura, una clave recién confirmada
+    // por otro nodo puede no haber llegado aún y el reintento volvería a mover el dinero
+    private Stored load(String key) {
+        return transactionTemplate.execute(status -> recordRepository.findById(key)
+                .flatMap(record -> transactionRepository.findWithAccountsById(record.getTransactionId())
+                        .map(tx -> new Stored(record.getFingerprint(), tx)))
+                .orElse(null));
+    }
+
+    private void await(CompletableFuture<Void> running) {
+        try {
+            running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException("Hay una solicitud en curso con la misma Idempotency-Key, intenta de nuevo");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Operación interrumpida");
+        } catch (ExecutionException e) {
+            // No ocurre: el futuro siempre se completa sin error y el bucle vuelve a mirar
+        }
+    }
+}
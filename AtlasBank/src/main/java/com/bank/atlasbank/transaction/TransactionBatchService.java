@@ -0,0 +1,196 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.account.BalanceSlotService;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.savings.SavingsGoalService;
+import com.bank.atlasbank.security.AntiFraudService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aplica un lote de depósitos, retiros y transferencias por tandas de
+ * {@code atlasbank.batch.lock-window} movimientos, cada tanda en su propia transacción.
+ *
+ * Cada tanda bloquea en la BD, en orden de id, las filas de sus cuentas y luego las
+ * carga con una única consulta, así cada entidad llega con el saldo confirmado. Si otra
+ * transacción retiene una de esas filas, la tanda la espera. Los saldos se modifican
+ * sobre esas entidades y los movimientos se insertan juntos al final de la tanda, de
+ * modo que Hibernate los agrupa en sentencias batch. Al confirmar, la tanda suelta sus
+ * filas: un lote nunca retiene más cuentas que las de una tanda.
+ *
+ * Un movimiento rechazado no aplica ningún cambio y el resto del lote continúa. Si falla
+ * la escritura de una tanda, se deshace solo esa tanda y sus movimientos se informan
+ * como rechazados; las tandas ya confirmadas se mantienen.
+ */
+@Service
+public class TransactionBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionBatchService.class);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceSlotService balanceSlots;
+    private final SavingsGoalService savingsGoalService;
+    private final AntiFraudService antiFraudService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int lockWindow;
+
+    public TransactionBatchService(AccountRepository accountRepository,
+                                   TransactionRepository transactionRepository,
+                                   BalanceSlotService balanceSlots,
+                                   SavingsGoalService savingsGoalService,
+                                   AntiFraudService antiFraudService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${atlasbank.batch.lock-window:50}") int lockWindow) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.balanceSlots = balanceSlots;
+        this.savingsGoalService = savingsGoalService;
+        this.antiFraudService = antiFraudService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.lockWindow = Math.max(1, lockWindow);
+    }
+
+    public BatchResponse post(List<BatchItemRequest> items) {
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += lockWindow) {
+            int first = from;
+            List<BatchItemRequest> window = items.subList(first, Math.min(first + lockWindow, items.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> postWindow(window, first)));
+            } catch (DataAccessException e) {
+                log.warn("Lote: tanda de {} movimientos deshecha: {}", window.size(), e.getMostSpecificCause().getMessage());
+                for (int i = first; i < first + window.size(); i++) {
+                    results.add(BatchItemResult.rejected(i, "No se pudo guardar la tanda; reintenta este movimiento"));
+                }
+            }
+        }
+
+        int accepted = (int) results.stream().filter(r -> r.transactionId() != null).count();
+        log.info("Lote procesado: {} aceptados, {} rechazados", accepted, items.size() - accepted);
+        return new BatchResponse(accepted, items.size() - accepted, results);
+    }
+
+    /** Una tanda; {@code first} es el índice en el lote de su primer movimiento. */
+    private List<BatchItemResult> postWindow(List<BatchItemRequest> window, int first) {
+        Map<Long, Account> accounts = lockAndLoad(window);
+
+        List<BankTransaction> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        List<BatchItemResult> results = new ArrayList<>(window.size());
+        for (int i = 0; i < window.size(); i++) {
+            try {
+                toSave.add(apply(window.get(i), accounts));
+                savedIndexes.add(i);
+                results.add(null);
+            } catch (BusinessException e) {
+                results.add(BatchItemResult.rejected(first + i, e.getMessage()));
+            }
+        }
+
+        transactionRepository.saveAll(toSave);
+        toSave.forEach(tx -> eventPublisher.publishEvent(TransactionPostedEvent.of(tx)));
+        for (int k = 0; k < toSave.size(); k++) {
+            int index = savedIndexes.get(k);
+            results.set(index, BatchItemResult.accepted(first + index, toSave.get(k).getId()));
+        }
+        return results;
+    }
+
+    /** Filas bloqueadas antes de cargar: las entidades de la tanda llegan con el saldo confirmado. */
+    private Map<Long, Account> lockAndLoad(List<BatchItemRequest> window) {
+        Set<Long> ids = new HashSet<>();
+        for (BatchItemRequest item : window) {
+            ids.add(item.accountId());
+            if (item.targetAccountId() != null) ids.add(item.targetAccountId());
+        }
+        accountRepository.lockByIdIn(ids);
+        Map<Long, Account> accounts = new HashMap<>();
+        accountRepository.findWithCustomerByIdIn(ids).forEach(a -> accounts.put(a.getId(), a));
+        return accounts;
+    }
+
+    private BankTransaction apply(BatchItemRequest item, Map<Long, Account> accounts) {
+        Account source = require(accounts, item.accountId());
+        BankTransaction tx = new BankTransaction();
+        tx.setType(item.type());
+        tx.setAmount(item.amount());
+        tx.setSourceAccount(source);
+
+        switch (item.type()) {
+            case DEPOSIT -> credit(source, item.amount());
+            case WITHDRAW -> {
+                debit(source, item.amount());
+                roundup(source, item.amount());
+            }
+            case TRANSFER -> {
+                if (item.targetAccountId() == null) {
+                    throw new BusinessException("targetAccountId es obligatorio para transferencias");
+                }
+                Account target = require(accounts, item.targetAccountId());
+                if (source.getId().equals(target.getId())) {
+                    throw new BusinessException("No se puede transferir a la misma cuenta");
+                }
+                if (source.getCustomer() != null
+                        && antiFraudService.analyzeTransaction(source.getCustomer(), item.amount(), item.location(), target.getId())) {
+                    throw new BusinessException("Transacción bloqueada por el sistema antifraude. Tu cuenta ha sido restringida por seguridad.");
+                }
+                debit(source, item.amount());
+                credit(target, item.amount());
+                tx.setTargetAccount(target);
+                roundup(source, item.amount());
+            }
+            case INTEREST -> throw new BusinessException("Los intereses no se pueden registrar en un lote");
+        }
+        return tx;
+    }
+
+    private void credit(Account account, BigDecimal amount) {
+        if (account.isSharded()) {
+            balanceSlots.credit(account, amount);
+            return;
+        }
+        account.setBalance(account.getBalance().add(amount));
+    }
+
+    private void debit(Account account, BigDecimal amount) {
+        if (account.isSharded()) {
+            balanceSlots.debit(account, amount);
+            return;
+        }
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new BusinessException("Saldo insuficiente");
+        }
+        account.setBalance(account.getBalance().subtract(amount));
+    }
+
+    private void roundup(Account account, BigDecimal amount) {
+        savingsGoalService.enqueueRoundup(account.getCustomer(), amount);
+    }
+
+    private static Account require(Map<Long, Account> accounts, Long id) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            throw new BusinessException("Cuenta no encontrada: " + id);
+        }
+        return account;
+    }
+}
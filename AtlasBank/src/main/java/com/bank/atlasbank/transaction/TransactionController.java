@@ -1,37 +1,110 @@
 package com.bank.atlasbank.transaction;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TransactionService service;
+    private final TransactionBatchService batchService;
+    private final TransactionExportService exportService;
+    private final IdempotencyService idempotency;
+    // Compatibilidad: devuelve las entidades completas en lugar de TransactionView
+    private final boolean legacyEntities;
 
-    public TransactionController(TransactionService service) {
+    public TransactionController(TransactionService service,
+                                 TransactionBatchService batchService,
+                                 TransactionExportService exportService,
+                                 IdempotencyService idempotency,
+                                 @Value("${atlasbank.api.legacy-entities:false}") boolean legacyEntities) {
         this.service = service;
+        this.batchService = batchService;
+        this.exportService = exportService;
+        this.idempotency = idempotency;
+        this.legacyEntities = legacyEntities;
     }
 
     @PostMapping("/deposit/{accountId}")
-    public BankTransaction deposit(@PathVariable Long accountId, @Valid @RequestBody AmountRequest request) {
-        return service.deposit(accountId, request.amount());
+    public ResponseEntity<Object> deposit(@PathVariable Long accountId, @Valid @RequestBody AmountRequest request,
+                                                   @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String key) {
+        return respond(idempotency.execute(key,
+                IdempotencyService.fingerprint("DEPOSIT", accountId, request.amount()),
+                () -> service.deposit(accountId, request.amount())));
     }
 
     @PostMapping("/withdraw/{accountId}")
-    public BankTransaction withdraw(@PathVariable Long accountId, @Valid @RequestBody AmountRequest request) {
-        return service.withdraw(accountId, request.amount());
+    public ResponseEntity<Object> withdraw(@PathVariable Long accountId, @Valid @RequestBody AmountRequest request,
+                                                    @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String key) {
+        return respond(idempotency.execute(key,
+                IdempotencyService.fingerprint("WITHDRAW", accountId, request.amount()),
+                () -> service.withdraw(accountId, request.amount())));
     }
 
     @PostMapping("/transfer")
-    public BankTransaction transfer(@Valid @RequestBody TransferRequest request) {
-        return service.transfer(request);
+    public ResponseEntity<Object> transfer(@Valid @RequestBody TransferRequest request,
+                                                    @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String key) {
+        return respond(idempotency.execute(key,
+                IdempotencyService.fingerprint("TRANSFER", request.sourceAccountId(), request.targetAccountId(),
+                        request.amount(), request.location()),
+                () -> service.transfer(request)));
+    }
+
+    @PostMapping("/batch")
+    public BatchResponse batch(@Valid @RequestBody BatchRequest request) {
+        return batchService.post(request.items());
     }
 
     @GetMapping
-    public List<BankTransaction> findAll() {
-        return service.findAll();
+    public List<?> findAll() {
+        return legacyEntities ? service.findAll() : service.findAllViews();
+    }
+
+    @GetMapping("/account/{accountId}")
+    public TransactionPage<?> history(@PathVariable Long accountId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer size) {
+        return legacyEntities ? service.historyByAccount(accountId, cursor, size)
+                : service.historyViewsByAccount(accountId, cursor, size);
+    }
+
+    @GetMapping("/recent")
+    public TransactionPage<?> recent(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer size) {
+        return legacyEntities ? service.recent(cursor, size) : service.recentViews(cursor, size);
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                       @RequestParam(required = false) String format,
+                       HttpServletResponse response) throws IOException {
+        TransactionExportService.Format exportFormat = TransactionExportService.parseFormat(format);
+        TransactionExportService.validateRange(from, to);
+
+        boolean csv = exportFormat == TransactionExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"transacciones_" + from + "_" + to + (csv ? ".csv" : ".ndjson") + "\"");
+        exportService.export(from, to, exportFormat, response.getOutputStream());
+    }
+
+    private ResponseEntity<Object> respond(IdempotencyService.Outcome outcome) {
+        Object body = legacyEntities ? outcome.transaction() : TransactionView.from(outcome.transaction());
+        if (outcome.replayed()) {
+            return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(body);
+        }
+        return ResponseEntity.ok(body);
     }
 }
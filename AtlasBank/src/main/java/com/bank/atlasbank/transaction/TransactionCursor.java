@@ -0,0 +1,42 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posición de paginación por llave (keyset) sobre {@code (createdAt, id)}, en orden
+ * descendente. Se expone al cliente como una cadena opaca.
+ */
+public record TransactionCursor(LocalDateTime createdAt, Long id) {
+
+    /** Cursor anterior a cualquier movimiento: devuelve la primera página. */
+    public static final TransactionCursor START = new TransactionCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static TransactionCursor decode(String value) {
+        if (value == null || value.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor de paginación inválido");
+        }
+    }
+
+    public static TransactionCursor of(BankTransaction tx) {
+        return new TransactionCursor(tx.getCreatedAt(), tx.getId());
+    }
+
+    public static TransactionCursor of(TransactionView tx) {
+        return new TransactionCursor(tx.createdAt(), tx.id());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
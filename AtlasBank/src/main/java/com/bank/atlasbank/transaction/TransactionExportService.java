@@ -0,0 +1,154 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta movimientos de un rango de fechas directamente a un stream de salida.
+ *
+ * Las filas se leen con un cursor de BD y se escriben una a una; cada
+ * {@value #CLEAR_EVERY} filas se vacía el contexto de persistencia para que la
+ * memoria usada no dependa del tamaño de la exportación.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final int CLEAR_EVERY = 1000;
+    private static final String CSV_HEADER =
+            "id,type,amount,sourceAccountId,sourceAccountNumber,targetAccountId,targetAccountNumber,createdAt";
+
+    public enum Format { NDJSON, CSV }
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public static Format parseFormat(String value) {
+        if (value == null || value.isBlank()) return Format.NDJSON;
+        try {
+            return Format.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato de exportación no soportado: " + value);
+        }
+    }
+
+    public static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BusinessException("Rango de fechas inválido");
+        }
+    }
+
+    /** Escribe los movimientos de {@code from} a {@code to} (ambos días incluidos). */
+    @Transactional(readOnly = true)
+    public long export(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        validateRange(from, to);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator json = null;
+        if (format == Format.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<BankTransaction> stream = transactionRepository.streamByCreatedAtRange(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Iterator<BankTransaction> it = stream.iterator();
+            while (it.hasNext()) {
+                BankTransaction tx = it.next();
+                if (json != null) {
+                    writeJson(json, tx);
+                } else {
+                    writeCsv(writer, tx);
+                }
+                if (++rows % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        if (json != null) json.flush();
+        writer.flush();
+        log.info("Exportación {} de {} a {}: {} movimientos", format, from, to, rows);
+        return rows;
+    }
+
+    private static void writeJson(JsonGenerator json, BankTransaction tx) throws IOException {
+        Account source = tx.getSourceAccount();
+        Account target = tx.getTargetAccount();
+        json.writeStartObject();
+        json.writeNumberField("id", tx.getId());
+        json.writeStringField("type", tx.getType().name());
+        json.writeNumberField("amount", tx.getAmount());
+        json.writeNumberField("sourceAccountId", source.getId());
+        json.writeStringField("sourceAccountNumber", source.getAccountNumber());
+        if (target != null) {
+            json.writeNumberField("targetAccountId", target.getId());
+            json.writeStringField("targetAccountNumber", target.getAccountNumber());
+        } else {
+            json.writeNullField("targetAccountId");
+            json.writeNullField("targetAccountNumber");
+        }
+        json.writeStringField("createdAt", tx.getCreatedAt().toString());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsv(Writer writer, BankTransaction tx) throws IOException {
+        Account source = tx.getSourceAccount();
+        Account target = tx.getTargetAccount();
+        writer.write(String.valueOf(tx.getId()));
+        writer.write(',');
+        writer.write(tx.getType().name());
+        writer.write(',');
+        writer.write(tx.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(source.getId()));
+        writer.write(',');
+        writer.write(csv(source.getAccountNumber()));
+        writer.write(',');
+        writer.write(target == null ? "" : String.valueOf(target.getId()));
+        writer.write(',');
+        writer.write(target == null ? "" : csv(target.getAccountNumber()));
+        writer.write(',');
+        writer.write(tx.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,13 @@
+package com.bank.atlasbank.transaction;
+
+import java.util.List;
+
+/**
+ * Página de movimientos ({@link TransactionView} o, en modo compatible, {@link BankTransaction}).
+ * {@code nextCursor} es null cuando no hay más resultados.
+ */
+public record TransactionPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,26 @@
+package com.bank.atlasbank.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Se publica cada vez que se registra un movimiento. Los oyentes deben usar
+ * {@code @TransactionalEventListener} para reaccionar solo a lo confirmado.
+ */
+public record TransactionPostedEvent(
+        Long transactionId,
+        TransactionType type,
+        BigDecimal amount,
+        Long sourceAccountId,
+        Long targetAccountId,
+        String customerId,
+        LocalDateTime createdAt
+) {
+    public static TransactionPostedEvent of(BankTransaction tx) {
+        Long targetId = tx.getTargetAccount() == null ? null : tx.getTargetAccount().getId();
+        String customerId = tx.getSourceAccount().getCustomer() == null ? null
+                : tx.getSourceAccount().getCustomer().getCustomerId();
+        return new TransactionPostedEvent(tx.getId(), tx.getType(), tx.getAmount(),
+                tx.getSourceAccount().getId(), targetId, customerId, tx.getCreatedAt());
+    }
+}
@@ -1,6 +1,135 @@
 package com.bank.atlasbank.transaction;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<BankTransaction, Long> {
+
+    long countByAmountGreaterThanEqual(BigDecimal amount);
+
+    // Cuentas y clientes en la misma consulta (las relaciones son LAZY)
+    @EntityGraph(BankTransaction.WITH_ACCOUNTS)
+    Optional<BankTransaction> findWithAccountsById(Long id);
+
+    @EntityGraph(BankTransaction.WITH_ACCOUNTS)
+    List<BankTransaction> findAllWithAccountsBy();
+
+    @Query("select t.createdAt, t.amount from BankTransaction t where t.createdAt > :since")
+    List<Object[]> findAmountsCreatedAfter(@Param("since") LocalDateTime since);
+
+    // Paginación keyset: cada consulta recorre un índice (cuenta, created_at, id). El
+    // "created_at <= :createdAt" es redundante pero da al planificador el límite del rango
+    // del índice; el OR solo no le permite empezar el recorrido en el cursor.
+
+    @Query("""
+            select t from BankTransaction t
+            join fetch t.sourceAccount sa join fetch sa.customer
+            left join fetch t.targetAccount ta left join fetch ta.customer
+            where sa.id = :accountId
+              and t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))
+            order by t.createdAt desc, t.id desc""")
+    List<BankTransaction> findSourceHistory(@Param("accountId") Long accountId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable page);
+
+    @Query("""
+            select t from BankTransaction t
+            join fetch t.sourceAccount sa join fetch sa.customer
+            join fetch t.targetAccount ta join fetch ta.customer
+            where ta.id = :accountId
+              and t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))
+            order by t.createdAt desc, t.id desc""")
+    List<BankTransaction> findTargetHistory(@Param("accountId") Long accountId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable page);
+
+    @Query("""
+            select t from BankTransaction t
+            join fetch t.sourceAccount sa join fetch sa.customer
+            left join fetch t.targetAccount ta left join fetch ta.customer
+            where t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))
+            order by t.createdAt desc, t.id desc""")
+    List<BankTransaction> findRecent(@Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable page);
+
+    // Proyecciones para la API: mismas consultas, solo id y número de cada cuenta
+
+    @Query("""
+            select new com.bank.atlasbank.transaction.TransactionView(
+                t.id, t.type, t.amount, sa.id, sa.accountNumber, ta.id, ta.accountNumber, t.createdAt)
+            from BankTransaction t
+            join t.sourceAccount sa left join t.targetAccount ta""")
+    List<TransactionView> findAllViews();
+
+    @Query("""
+            select new com.bank.atlasbank.transaction.TransactionView(
+                t.id, t.type, t.amount, sa.id, sa.accountNumber, ta.id, ta.accountNumber, t.createdAt)
+            from BankTransaction t
+            join t.sourceAccount sa left join t.targetAccount ta
+            where sa.id = :accountId
+              and t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))
+            order by t.createdAt desc, t.id desc""")
+    List<TransactionView> findSourceHistoryViews(@Param("accountId") Long accountId,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable page);
+
+    @Query("""
+            select new com.bank.atlasbank.transaction.TransactionView(
+                t.id, t.type, t.amount, sa.id, sa.accountNumber, ta.id, ta.accountNumber, t.createdAt)
+            from BankTransaction t
+            join t.sourceAccount sa join t.targetAccount ta
+            where ta.id = :accountId
+              and t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))
+            order by t.createdAt desc, t.id desc""")
+    List<TransactionView> findTargetHistoryViews(@Param("accountId") Long accountId,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable page);
+
+    @Query("""
+            select new com.bank.atlasbank.transaction.TransactionView(
+                t.id, t.type, t.amount, sa.id, sa.accountNumber, ta.id, ta.accountNumber, t.createdAt)
+            from BankTransaction t
+            join t.sourceAccount sa left join t.targetAccount ta
+            where t.createdAt <= :createdAt
+              and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))
+            order by t.createdAt desc, t.id desc""")
+    List<TransactionView> findRecentViews(@Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable page);
+
+    // Exportación: cursor de BD con fetch size, sin snapshot de dirty-checking
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t from BankTransaction t
+            join fetch t.sourceAccount
+            left join fetch t.targetAccount
+            where t.createdAt >= :from and t.createdAt < :to
+            order by t.createdAt, t.id""")
+    Stream<BankTransaction> streamByCreatedAtRange(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
 }
@@ -3,96 +3,212 @@ package com.bank.atlasbank.transaction;
 import com.bank.atlasbank.account.Account;
 import com.bank.atlasbank.account.AccountService;
 import com.bank.atlasbank.common.exception.BusinessException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final Comparator<BankTransaction> NEWEST_FIRST = Comparator
+            .comparing(BankTransaction::getCreatedAt)
+            .thenComparing(BankTransaction::getId)
+            .reversed();
+
+    private static final Comparator<TransactionView> NEWEST_VIEW_FIRST = Comparator
+            .comparing(TransactionView::createdAt)
+            .thenComparing(TransactionView::id)
+            .reversed();
+
     private final AccountService accountService;
     private final TransactionRepository transactionRepository;
     private final com.bank.atlasbank.savings.SavingsGoalService savingsGoalService;
     private final com.bank.atlasbank.security.AntiFraudService antiFraudService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferMetrics metrics;
 
     public TransactionService(AccountService accountService, 
                               TransactionRepository transactionRepository,
                               com.bank.atlasbank.savings.SavingsGoalService savingsGoalService,
-                              com.bank.atlasbank.security.AntiFraudService antiFraudService) {
+                              com.bank.atlasbank.security.AntiFraudService antiFraudService,
+                              ApplicationEventPublisher eventPublisher,
+                              TransferMetrics metrics) {
         this.accountService = accountService;
         this.transactionRepository = transactionRepository;
         this.savingsGoalService = savingsGoalService;
         this.antiFraudService = antiFraudService;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
     }
 
     @Transactional
     public BankTransaction deposit(Long accountId, BigDecimal amount) {
+        // Fila bloqueada antes de cargar: el saldo escrito parte del confirmado
+        accountService.lockForUpdate(List.of(accountId));
+        // Se carga con el cliente antes de moverla; deposit() reutiliza la misma instancia
+        Account account = accountService.findWithCustomerById(accountId);
         accountService.deposit(accountId, amount);
-        Account account = accountService.findById(accountId);
 
         BankTransaction tx = new BankTransaction();
         tx.setType(TransactionType.DEPOSIT);
         tx.setAmount(amount);
         tx.setSourceAccount(account);
-        return transactionRepository.save(tx);
+        BankTransaction saved = transactionRepository.save(tx);
+        eventPublisher.publishEvent(TransactionPostedEvent.of(saved));
+        return saved;
     }
 
     @Transactional
     public BankTransaction withdraw(Long accountId, BigDecimal amount) {
+        accountService.lockForUpdate(List.of(accountId));
+        Account account = accountService.findWithCustomerById(accountId);
         accountService.withdraw(accountId, amount);
-        Account account = accountService.findById(accountId);
 
         BankTransaction tx = new BankTransaction();
         tx.setType(TransactionType.WITHDRAW);
         tx.setAmount(amount);
         tx.setSourceAccount(account);
         BankTransaction saved = transactionRepository.save(tx);
+        eventPublisher.publishEvent(TransactionPostedEvent.of(saved));
         
-        // Process roundup
-        if (account.getCustomer() != null) {
-            savingsGoalService.processRoundup(account.getCustomer().getCustomerId(), amount);
-        }
+        // Process roundup (queued, applied by RoundupWorker)
+        savingsGoalService.enqueueRoundup(account.getCustomer(), amount);
         
         return saved;
     }
 
     @Transactional
     public BankTransaction transfer(TransferRequest request) {
-        Account source = accountService.findById(request.sourceAccountId());
-        Account target = accountService.findById(request.targetAccountId());
-
-        // Anti-fraud check
-        if (source.getCustomer() != null) {
-            if (antiFraudService.analyzeTransaction(source.getCustomer(), request.amount(), request.location())) {
-                throw new BusinessException("Transacción bloqueada por el sistema antifraude. Tu cuenta ha sido restringida por seguridad.");
+        TransferMetrics.Phase phase = TransferMetrics.Phase.LOOKUP;
+        long start = metrics.now();
+        long t = start;
+        try {
+            // Filas bloqueadas antes de cargar: las entidades ya llegan con el saldo confirmado
+            accountService.lockForUpdate(List.of(request.sourceAccountId(), request.targetAccountId()));
+            Account source = accountService.findWithCustomerById(request.sourceAccountId());
+            Account target = accountService.findWithCustomerById(request.targetAccountId());
+            t = metrics.lap(phase, t);
+
+            // Anti-fraud check, solo sobre transferencias válidas: lo rechazado no suma velocidad
+            phase = TransferMetrics.Phase.ANTI_FRAUD;
+            if (request.sourceAccountId().equals(request.targetAccountId())) {
+                throw new BusinessException("No se puede transferir a la misma cuenta");
             }
+            if (source.getCustomer() != null) {
+                if (antiFraudService.analyzeTransaction(source.getCustomer(), request.amount(), request.location(), target.getId())) {
+                    throw new BusinessException("Transacción bloqueada por el sistema antifraude. Tu cuenta ha sido restringida por seguridad.");
+                }
+            }
+            t = metrics.lap(phase, t);
+
+            phase = TransferMetrics.Phase.DEBIT;
+            accountService.withdraw(request.sourceAccountId(), request.amount());
+            t = metrics.lap(phase, t);
+            phase = TransferMetrics.Phase.CREDIT;
+            accountService.deposit(request.targetAccountId(), request.amount());
+            t = metrics.lap(phase, t);
+
+            phase = TransferMetrics.Phase.INSERT;
+            BankTransaction tx = new BankTransaction();
+            tx.setType(TransactionType.TRANSFER);
+            tx.setAmount(request.amount());
+            tx.setSourceAccount(source);
+            tx.setTargetAccount(target);
+            BankTransaction saved = transactionRepository.save(tx);
+            eventPublisher.publishEvent(TransactionPostedEvent.of(saved));
+            t = metrics.lap(phase, t);
+
+            // Process roundup (from source account owner, queued)
+            phase = TransferMetrics.Phase.ROUNDUP;
+            savingsGoalService.enqueueRoundup(source.getCustomer(), request.amount());
+            metrics.lap(phase, t);
+
+            metrics.lap(TransferMetrics.Phase.TOTAL, start);
+            return saved;
+        } catch (RuntimeException e) {
+            metrics.failed(phase);
+            throw e;
         }
+    }
 
-        if (request.sourceAccountId().equals(request.targetAccountId())) {
-            throw new BusinessException("No se puede transferir a la misma cuenta");
-        }
+    @Transactional(readOnly = true)
+    public List<BankTransaction> findAll() {
+        return transactionRepository.findAllWithAccountsBy();
+    }
 
-        accountService.withdraw(request.sourceAccountId(), request.amount());
-        accountService.deposit(request.targetAccountId(), request.amount());
+    @Transactional(readOnly = true)
+    public List<TransactionView> findAllViews() {
+        return transactionRepository.findAllViews();
+    }
 
-        BankTransaction tx = new BankTransaction();
-        tx.setType(TransactionType.TRANSFER);
-        tx.setAmount(request.amount());
-        tx.setSourceAccount(source);
-        tx.setTargetAccount(target);
-        BankTransaction saved = transactionRepository.save(tx);
+    /**
+     * Historial de una cuenta (como origen o destino), del más reciente al más antiguo.
+     * Se consulta cada lado por su índice y se mezclan los resultados, así el costo
+     * por página no depende de cuántos movimientos tenga la cuenta.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage<BankTransaction> historyByAccount(Long accountId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        TransactionCursor from = TransactionCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<BankTransaction> merged = new ArrayList<>(
+                transactionRepository.findSourceHistory(accountId, from.createdAt(), from.id(), page));
+        merged.addAll(transactionRepository.findTargetHistory(accountId, from.createdAt(), from.id(), page));
+        merged.sort(NEWEST_FIRST);
+        return toPage(merged, pageSize, TransactionCursor::of);
+    }
 
-        // Process roundup (from source account owner)
-        if (source.getCustomer() != null) {
-            savingsGoalService.processRoundup(source.getCustomer().getCustomerId(), request.amount());
-        }
+    /** Igual que {@link #historyByAccount} pero leyendo solo las columnas de {@link TransactionView}. */
+    @Transactional(readOnly = true)
+    public TransactionPage<TransactionView> historyViewsByAccount(Long accountId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        TransactionCursor from = TransactionCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<TransactionView> merged = new ArrayList<>(
+                transactionRepository.findSourceHistoryViews(accountId, from.createdAt(), from.id(), page));
+        merged.addAll(transactionRepository.findTargetHistoryViews(accountId, from.createdAt(), from.id(), page));
+        merged.sort(NEWEST_VIEW_FIRST);
+        return toPage(merged, pageSize, TransactionCursor::of);
+    }
 
-        return saved;
+    @Transactional(readOnly = true)
+    public TransactionPage<BankTransaction> recent(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        TransactionCursor from = TransactionCursor.decode(cursor);
+        return toPage(transactionRepository.findRecent(from.createdAt(), from.id(), PageRequest.of(0, pageSize + 1)),
+                pageSize, TransactionCursor::of);
     }
 
-    public List<BankTransaction> findAll() {
-        return transactionRepository.findAll();
+    @Transactional(readOnly = true)
+    public TransactionPage<TransactionView> recentViews(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        TransactionCursor from = TransactionCursor.decode(cursor);
+        return toPage(transactionRepository.findRecentViews(from.createdAt(), from.id(), PageRequest.of(0, pageSize + 1)),
+                pageSize, TransactionCursor::of);
+    }
+
+    private static <T> TransactionPage<T> toPage(List<T> rows, int pageSize, Function<T, TransactionCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new TransactionPage<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new TransactionPage<>(items, cursorOf.apply(items.get(pageSize - 1)).encode());
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 }
@@ -3,5 +3,7 @@ package com.bank.atlasbank.transaction;
 public enum TransactionType {
     DEPOSIT,
     WITHDRAW,
-    TRANSFER
+    TRANSFER,
+    /** Abono de intereses del cierre diario; solo lo genera {@code InterestAccrualService}. */
+    INTEREST
 }
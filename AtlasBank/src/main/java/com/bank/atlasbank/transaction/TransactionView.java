@@ -0,0 +1,40 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.account.Account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento tal como lo expone la API. Las cuentas se reducen a {@code id} y
+ * {@code accountNumber}, que es lo que muestran las pantallas, en lugar de la
+ * cuenta completa con su cliente.
+ */
+public record TransactionView(
+        Long id,
+        TransactionType type,
+        BigDecimal amount,
+        AccountRef sourceAccount,
+        AccountRef targetAccount,
+        LocalDateTime createdAt
+) {
+    public record AccountRef(Long id, String accountNumber) {
+    }
+
+    // Constructor de las consultas: columnas planas, destino opcional
+    public TransactionView(Long id, TransactionType type, BigDecimal amount,
+                           Long sourceId, String sourceNumber, Long targetId, String targetNumber,
+                           LocalDateTime createdAt) {
+        this(id, type, amount, new AccountRef(sourceId, sourceNumber),
+                targetId == null ? null : new AccountRef(targetId, targetNumber), createdAt);
+    }
+
+    public static TransactionView from(BankTransaction tx) {
+        return new TransactionView(tx.getId(), tx.getType(), tx.getAmount(),
+                ref(tx.getSourceAccount()), ref(tx.getTargetAccount()), tx.getCreatedAt());
+    }
+
+    private static AccountRef ref(Account account) {
+        return account == null ? null : new AccountRef(account.getId(), account.getAccountNumber());
+    }
+}
@@ -0,0 +1,68 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.common.metrics.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latencia por fase de las transferencias ({@code atlasbank.metrics.transfer-phases.enabled}).
+ *
+ * Uso: {@code t = now()} al empezar y {@code t = lap(fase, t)} al cerrar cada fase.
+ * Deshabilitado, {@link #now()} y {@link #lap} devuelven 0 sin leer el reloj.
+ * {@code TOTAL} cubre el método completo salvo el commit, que ocurre al salir del
+ * proxy transaccional.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Phase { LOOKUP, ANTI_FRAUD, DEBIT, CREDIT, INSERT, ROUNDUP, TOTAL }
+
+    private final boolean enabled;
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final LatencyHistogram[] byOrdinal = new LatencyHistogram[Phase.values().length];
+
+    public TransferMetrics(@Value("${atlasbank.metrics.transfer-phases.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histograms.put(phase, histogram);
+            byOrdinal[phase.ordinal()] = histogram;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long now() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** Registra lo transcurrido desde {@code since} en la fase y devuelve el instante actual. */
+    public long lap(Phase phase, long since) {
+        if (!enabled) return 0L;
+        long now = System.nanoTime();
+        byOrdinal[phase.ordinal()].record(now - since);
+        return now;
+    }
+
+    /** Anota un fallo en la fase en curso y en el total. */
+    public void failed(Phase phase) {
+        if (!enabled) return;
+        byOrdinal[phase.ordinal()].recordError();
+        byOrdinal[Phase.TOTAL.ordinal()].recordError();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        Map<String, Object> phases = new LinkedHashMap<>();
+        histograms.forEach((phase, histogram) -> phases.put(phase.name(), histogram.summary()));
+        result.put("phases", phases);
+        return result;
+    }
+}
@@ -462,34 +462,107 @@
     async function renderMovements() {
         if (!guardCustomer()) return;
         customerShell("Movimientos", "/movimientos",
-            '<section class="card panel"><h3>Historial operativo</h3><div id="mov-table" class="muted">Cargando...</div></section>'
+            '<section class="card panel"><h3>Historial operativo</h3><div id="mov-table" class="muted">Cargando...</div>' +
+            '<button id="mov-more" class="secondary" type="button" hidden>Cargar mas</button></section>'
         );
 
         var session = customerSession();
         var accounts = await api("/api/accounts/customer/" + encodeURIComponent(session.customerId));
-        var ids = accounts.map(function (a) { return a.id; });
-        var allTx = await api("/api/transactions");
-        var movements = allTx.filter(function (tx) {
-            var sourceId = tx.sourceAccount ? tx.sourceAccount.id : null;
-            var targetId = tx.targetAccount ? tx.targetAccount.id : null;
-            return ids.indexOf(sourceId) !== -1 || ids.indexOf(targetId) !== -1;
-        });
+        // Cursor por cuenta: undefined = sin pedir, null = sin mas paginas
+        var cursors = {};
+        var seen = {};
+        var movements = [];
+        var moreButton = document.getElementById("mov-more");
+
+        async function loadMore() {
+            var pending = accounts.filter(function (acc) { return cursors[acc.id] !== null; });
+            var pages = await Promise.all(pending.map(function (acc) {
+                var url = "/api/transactions/account/" + acc.id + "?size=50" +
+                    (cursors[acc.id] ? "&cursor=" + encodeURIComponent(cursors[acc.id]) : "");
+                return api(url).then(function (page) { return { id: acc.id, page: page }; });
+            }));
+            pages.forEach(function (result) {
+                cursors[result.id] = result.page.nextCursor;
+                result.page.items.forEach(function (tx) {
+                    if (seen[tx.id]) return;
+                    seen[tx.id] = true;
+                    movements.push(tx);
+                });
+            });
+            movements.sort(function (a, b) {
+                if (a.createdAt === b.createdAt) return b.id - a.id;
+                return a.createdAt < b.createdAt ? 1 : -1;
+            });
+            renderRows();
+        }
 
-        var rows = movements.map(function (tx) {
-            var sourceLabel = tx.sourceAccount ? tx.sourceAccount.accountNumber : "-";
-            var targetLabel = tx.targetAccount ? tx.targetAccount.accountNumber : "-";
-            return "<tr>" +
-                "<td>" + escapeHtml(tx.type || "-") + "</td>" +
-                "<td>" + formatMoney(tx.amount) + "</td>" +
-                "<td class='mono'>" + escapeHtml(sourceLabel) + "</td>" +
-                "<td class='mono'>" + escapeHtml(targetLabel) + "</td>" +
-                "<td>" + formatDate(tx.createdAt) + "</td>" +
-                "</tr>";
-        }).join("");
+        function renderRows() {
+            var rows = movements.map(function (tx) {
+                var sourceLabel = tx.sourceAccount ? tx.sourceAccount.accountNumber : "-";
+                var targetLabel = tx.targetAccount ? tx.targetAccount.accountNumber : "-";
+                return "<tr>" +
+                    "<td>" + escapeHtml(tx.type || "-") + "</td>" +
+                    "<td>" + formatMoney(tx.amount) + "</td>" +
+                    "<td class='mono'>" + escapeHtml(sourceLabel) + "</td>" +
+                    "<td class='mono'>" + escapeHtml(targetLabel) + "</td>" +
+                    "<td>" + formatDate(tx.createdAt) + "</td>" +
+                    "</tr>";
+            }).join("");
+
+            document.getElementById("mov-table").innerHTML = rows ?
+                '<table><thead><tr><th>Tipo</th><th>Monto</th><th>Origen</th><th>Destino</th><th>Fecha</th></tr></thead><tbody>' + rows + "</tbody></table>" :
+                '<p class="muted">No se encontraron movimientos.</p>';
+            moreButton.hidden = !accounts.some(function (acc) { return cursors[acc.id] !== null; });
+        }
+
+        moreButton.addEventListener("click", loadMore);
+        openLiveFeed();
+        await loadMore();
+    }
+
+    // Las paginas se recargan al navegar, asi que el navegador cierra la conexion solo
+    function openLiveFeed() {
+        var MAX_LIVE_ITEMS = 50;
+        var feed = document.getElementById("live-feed");
+        var status = document.getElementById("live-status");
+        var source = new EventSource("/api/admin/monitoring/stream");
+
+        function prepend(html, className) {
+            var item = document.createElement("li");
+            if (className) item.className = className;
+            item.innerHTML = html;
+            feed.insertBefore(item, feed.firstChild);
+            while (feed.children.length > MAX_LIVE_ITEMS) feed.removeChild(feed.lastChild);
+        }
 
-        document.getElementById("mov-table").innerHTML = rows ?
-            '<table><thead><tr><th>Tipo</th><th>Monto</th><th>Origen</th><th>Destino</th><th>Fecha</th></tr></thead><tbody>' + rows + "</tbody></table>" :
-            '<p class="muted">No se encontraron movimientos.</p>';
+        source.onopen = function () {
+            status.textContent = "Conectado";
+        };
+        source.onerror = function () {
+            status.textContent = "Reconectando...";
+        };
+        source.addEventListener("stats", function (event) {
+            var stats = JSON.parse(event.data);
+            if ("totalUsers" in stats) document.getElementById("stat-users").textContent = String(stats.totalUsers);
+            if ("pendingAccounts" in stats) document.getElementById("stat-pending").textContent = String(stats.pendingAccounts);
+            if ("volume24h" in stats) document.getElementById("stat-volume").textContent = formatMoney(stats.volume24h);
+            if ("riskAlerts" in stats) document.getElementById("stat-risk").textContent = String(stats.riskAlerts);
+        });
+        source.addEventListener("transaction", function (event) {
+            var tx = JSON.parse(event.data);
+            prepend("<strong>" + escapeHtml(tx.type || "-") + "</strong> " + formatMoney(tx.amount) +
+                " <span class='mono'>#" + escapeHtml(tx.sourceAccountId) + (tx.targetAccountId ? " &rarr; #" + escapeHtml(tx.targetAccountId) : "") + "</span>" +
+                " <span class='muted'>" + formatDate(tx.createdAt) + "</span>");
+        });
+        source.addEventListener("fraud-block", function (event) {
+            var block = JSON.parse(event.data);
+            prepend("<strong>BLOQUEO</strong> " + escapeHtml(block.customerId || "-") + ": " + escapeHtml(block.reason || "-") +
+                " <span class='muted'>" + formatDate(block.blockedAt) + "</span>", "alert");
+        });
+        source.addEventListener("dropped", function (event) {
+            var dropped = JSON.parse(event.data);
+            prepend("<span class='muted'>" + escapeHtml(dropped.count) + " movimientos omitidos por saturacion</span>");
+        });
     }
 
     async function findCurrentCustomer() {
@@ -693,23 +766,44 @@
     async function renderAdminTransactions() {
         if (!guardAdmin()) return;
         adminShell("Monitoreo de Transacciones", "/admin/monitoreo",
-            '<section class="card panel"><h3>Transacciones recientes</h3><div id="admin-tx-table" class="muted">Cargando...</div></section>'
+            '<div class="kpi-grid">' +
+            '<section class="kpi-card"><small>USUARIOS</small><div class="stat" id="stat-users">0</div></section>' +
+            '<section class="kpi-card"><small>PENDIENTES</small><div class="stat" id="stat-pending">0</div></section>' +
+            '<section class="kpi-card"><small>VOLUMEN 24H</small><div class="stat" id="stat-volume">$0.00</div></section>' +
+            '<section class="kpi-card warning"><small>ALERTAS RIESGO</small><div class="stat" id="stat-risk">0</div></section>' +
+            "</div>" +
+            '<section class="card panel"><h3>En vivo</h3><p id="live-status" class="muted">Conectando...</p><ul id="live-feed" class="live-feed"></ul></section>' +
+            '<section class="card panel"><h3>Transacciones recientes</h3><div id="admin-tx-table" class="muted">Cargando...</div>' +
+            '<button id="admin-tx-more" class="secondary" type="button" hidden>Cargar mas</button></section>'
         );
-        var allTx = await api("/api/transactions");
-        var rows = allTx.map(function (tx) {
-            var sourceLabel = tx.sourceAccount ? tx.sourceAccount.accountNumber : "-";
-            var targetLabel = tx.targetAccount ? tx.targetAccount.accountNumber : "-";
-            return "<tr>" +
-                "<td>" + escapeHtml(tx.type || "-") + "</td>" +
-                "<td>" + formatMoney(tx.amount) + "</td>" +
-                "<td class='mono'>" + escapeHtml(sourceLabel) + "</td>" +
-                "<td class='mono'>" + escapeHtml(targetLabel) + "</td>" +
-                "<td>" + formatDate(tx.createdAt) + "</td>" +
-                "</tr>";
-        }).join("");
-        document.getElementById("admin-tx-table").innerHTML = rows ?
-            '<table><thead><tr><th>Tipo</th><th>Monto</th><th>Origen</th><th>Destino</th><th>Fecha</th></tr></thead><tbody>' + rows + "</tbody></table>" :
-            '<p class="muted">Sin transacciones registradas.</p>';
+        var allTx = [];
+        var cursor = null;
+        var moreButton = document.getElementById("admin-tx-more");
+
+        async function loadMore() {
+            var page = await api("/api/transactions/recent?size=100" + (cursor ? "&cursor=" + encodeURIComponent(cursor) : ""));
+            allTx = allTx.concat(page.items);
+            cursor = page.nextCursor;
+
+            var rows = allTx.map(function (tx) {
+                var sourceLabel = tx.sourceAccount ? tx.sourceAccount.accountNumber : "-";
+                var targetLabel = tx.targetAccount ? tx.targetAccount.accountNumber : "-";
+                return "<tr>" +
+                    "<td>" + escapeHtml(tx.type || "-") + "</td>" +
+                    "<td>" + formatMoney(tx.amount) + "</td>" +
+                    "<td class='mono'>" + escapeHtml(sourceLabel) + "</td>" +
+                    "<td class='mono'>" + escapeHtml(targetLabel) + "</td>" +
+                    "<td>" + formatDate(tx.createdAt) + "</td>" +
+                    "</tr>";
+            }).join("");
+            document.getElementById("admin-tx-table").innerHTML = rows ?
+                '<table><thead><tr><th>Tipo</th><th>Monto</th><th>Origen</th><th>Destino</th><th>Fecha</th></tr></thead><tbody>' + rows + "</tbody></table>" :
+                '<p class="muted">Sin transacciones registradas.</p>';
+            moreButton.hidden = !cursor;
+        }
+
+        moreButton.addEventListener("click", loadMore);
+        await loadMore();
     }
 
     async function renderAdminUsers() {
@@ -0,0 +1,127 @@
+package com.bank.atlasbank;
+
+import com.bank.atlasbank.transaction.TransactionService;
+import com.bank.atlasbank.transaction.TransferRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cuenta las sentencias SQL de cada endpoint antes y después de multiplicar los datos:
+ * con las relaciones LAZY y los grafos de entidad, el número no depende de las filas.
+ * Se usa el modo compatible porque es el que serializa las relaciones completas.
+ */
+@ActiveProfiles("test")
+// Sin ventanas de velocidad (muchas transferencias desde la misma cuenta) y sin el
+// sondeo del RoundupWorker, que sumaría sus consultas a las del endpoint medido
+@SpringBootTest(properties = {
+        "atlasbank.api.legacy-entities=true",
+        "atlasbank.antifraud.velocity-enabled=false",
+        "atlasbank.savings.roundup-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class FetchPlanQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void historyAndListsUseAFixedNumberOfStatements() throws Exception {
+        Long main = newAccount("1000.00");
+        transferToNewAccounts(main, 3);
+
+        long history = statements(get("/api/transactions/account/" + main).param("size", "200"));
+        long recent = statements(get("/api/transactions/recent").param("size", "200"));
+        long transactions = statements(get("/api/transactions"));
+        long accounts = statements(get("/api/accounts"));
+        long customers = statements(get("/api/admin/customers"));
+
+        transferToNewAccounts(main, 20);
+
+        assertEquals(2, history);
+        assertEquals(1, recent);
+        assertEquals(1, transactions);
+        assertEquals(1, accounts);
+        assertEquals(1, customers);
+        assertEquals(history, statements(get("/api/transactions/account/" + main).param("size", "200")));
+        assertEquals(recent, statements(get("/api/transactions/recent").param("size", "200")));
+        assertEquals(transactions, statements(get("/api/transactions")));
+        assertEquals(accounts, statements(get("/api/accounts")));
+        assertEquals(customers, statements(get("/api/admin/customers")));
+    }
+
+    @Test
+    void transferLoadsBothAccountsWithTheirOwnersOnce() throws Exception {
+        Long source = newAccount("1000.00");
+        Long target = newAccount("0.00");
+        // Calienta el pool de la secuencia de movimientos
+        transactionService.transfer(new TransferRequest(source, target, BigDecimal.ONE, "Local"));
+
+        long first = statements(transfer(source, target));
+        transferToNewAccounts(source, 10);
+
+        // el bloqueo de ambas filas, origen y destino con su cliente, los dos UPDATE en un lote
+        // y el INSERT del movimiento
+        assertEquals(5, first);
+        assertEquals(first, statements(transfer(source, target)));
+    }
+
+    private long statements(RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static RequestBuilder transfer(Long source, Long target) {
+        return post("/api/transactions/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sourceAccountId\":" + source + ",\"targetAccountId\":" + target
+                        + ",\"amount\":1,\"location\":\"Local\"}");
+    }
+
+    private void transferToNewAccounts(Long source, int count) {
+        for (int i = 0; i < count; i++) {
+            transactionService.transfer(new TransferRequest(source, newAccount("0.00"), BigDecimal.ONE, "Local"));
+        }
+    }
+
+    private Long newAccount(String balance) {
+        return fixtures.account("fetch-" + SEQUENCE.incrementAndGet(), balance);
+    }
+}
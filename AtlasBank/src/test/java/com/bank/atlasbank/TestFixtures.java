@@ -0,0 +1,55 @@
+package com.bank.atlasbank;
+
+import com.bank.atlasbank.account.Account;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.account.AccountType;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Clientes activos y cuentas con saldo inicial para las pruebas. Se guardan directo con
+ * los repositorios, sin pasar por los servicios ni publicar sus eventos.
+ */
+@Component
+public class TestFixtures {
+
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+
+    public TestFixtures(CustomerRepository customerRepository, AccountRepository accountRepository) {
+        this.customerRepository = customerRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    /** Cliente activo; {@code customerId} debe ser único dentro del contexto de la prueba. */
+    public Customer customer(String customerId) {
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setFullName("Test " + customerId);
+        customer.setEmail(customerId + "@test.local");
+        customer.setPhone("");
+        customer.setStatus("ACTIVE");
+        return customerRepository.save(customer);
+    }
+
+    public Long account(Customer customer, String accountNumber, String balance) {
+        return account(customer, AccountType.SAVINGS, accountNumber, balance);
+    }
+
+    public Long account(Customer customer, AccountType type, String accountNumber, String balance) {
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountType(type);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal(balance));
+        return accountRepository.save(account).getId();
+    }
+
+    /** Cliente nuevo con una cuenta de ahorro {@code AT-<customerId>}. */
+    public Long account(String customerId, String balance) {
+        return account(customer(customerId), "AT-" + customerId.toUpperCase(), balance);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bank.atlasbank;
+
+import com.bank.atlasbank.account.AccountType;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.savings.SavingsGoal;
+import com.bank.atlasbank.savings.SavingsGoalRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ViewEndpointsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SavingsGoalRepository savingsGoalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void accountsAndCustomersAreReturnedAsViews() throws Exception {
+        Customer customer = fixtures.customer("views-accounts");
+        customer.setPassword("secreto");
+        customerRepository.save(customer);
+        Long savings = fixtures.account(customer, "AT-VIEWS-1", "150.25");
+        fixtures.account(customer, AccountType.CHECKING, "AT-VIEWS-2", "0.00");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        mockMvc.perform(get("/api/accounts/customer/views-accounts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(savings))
+                .andExpect(jsonPath("$[0].accountNumber").value("AT-VIEWS-1"))
+                .andExpect(jsonPath("$[0].accountType").value("SAVINGS"))
+                .andExpect(jsonPath("$[0].balance").value(150.25))
+                .andExpect(jsonPath("$[0].customerId").value("views-accounts"))
+                .andExpect(jsonPath("$[0].customer").doesNotExist())
+                .andExpect(jsonPath("$[1].accountType").value("CHECKING"));
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        // Una sola consulta con la proyección: el cliente no se carga aparte
+        assertEquals(1, statements);
+
+        mockMvc.perform(get("/api/accounts/" + savings))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value("views-accounts"))
+                .andExpect(jsonPath("$.customer").doesNotExist());
+
+        mockMvc.perform(get("/api/customers/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value("views-accounts"))
+                .andExpect(jsonPath("$.email").value("views-accounts@test.local"))
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+        mockMvc.perform(get("/api/customers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.customerId == 'views-accounts')].fullName").value("Test views-accounts"))
+                .andExpect(jsonPath("$[*].password").isEmpty());
+    }
+
+    @Test
+    void historyKeepsTheNestedAccountShape() throws Exception {
+        Customer customer = fixtures.customer("views-history");
+        Long main = fixtures.account(customer, "AT-VIEWS-MAIN", "0.00");
+        Long other = fixtures.account(customer, "AT-VIEWS-OTHER", "0.00");
+        LocalDateTime t = LocalDateTime.of(2025, 6, 1, 8, 0);
+        insert(710_001, "DEPOSIT", main, null, t);
+        insert(710_002, "TRANSFER", main, other, t.plusMinutes(1));
+
+        mockMvc.perform(get("/api/transactions/account/" + main).param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(710_002))
+                .andExpect(jsonPath("$.items[0].type").value("TRANSFER"))
+                .andExpect(jsonPath("$.items[0].sourceAccount.id").value(main))
+                .andExpect(jsonPath("$.items[0].sourceAccount.accountNumber").value("AT-VIEWS-MAIN"))
+                .andExpect(jsonPath("$.items[0].sourceAccount.customer").doesNotExist())
+                .andExpect(jsonPath("$.items[0].targetAccount.accountNumber").value("AT-VIEWS-OTHER"))
+                .andExpect(jsonPath("$.items[1].targetAccount").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    void savingsGoalsIncludeTheWeeklySuggestion() throws Exception {
+        Customer customer = fixtures.customer("views-goals");
+        SavingsGoal goal = new SavingsGoal();
+        goal.setName("Viaje");
+        goal.setTargetAmount(new BigDecimal("1000"));
+        goal.setCurrentAmount(new BigDecimal("300"));
+        goal.setDeadline(LocalDate.now().plusWeeks(7));
+        goal.setCustomer(customer);
+        savingsGoalRepository.save(goal);
+
+        mockMvc.perform(get("/api/savings/goals/views-goals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Viaje"))
+                .andExpect(jsonPath("$[0].completed").value(false))
+                .andExpect(jsonPath("$[0].weeklySuggestion").value(
+                        goal.getWeeklySuggestion().doubleValue()))
+                .andExpect(jsonPath("$[0].customer").doesNotExist());
+    }
+
+    private void insert(long id, String type, Long source, Long target, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into bank_transactions (id, type, amount, source_account_id, target_account_id, created_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                id, type, BigDecimal.TEN, source, target, Timestamp.valueOf(createdAt));
+    }
+}
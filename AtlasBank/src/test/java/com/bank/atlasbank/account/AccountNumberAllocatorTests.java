@@ -0,0 +1,118 @@
+package com.bank.atlasbank.account;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class AccountNumberAllocatorTests {
+
+    @Autowired
+    private AccountNumberBlockRepository blocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void clabeCheckDigitMatchesKnownExample() {
+        assertEquals(9, AccountNumberAllocator.clabeCheckDigit("03218000011835971"));
+    }
+
+    @Test
+    void concurrentAllocationNeverRepeatsAndIsChecksumValid() throws Exception {
+        AtomicLong highWater = new AtomicLong(1);
+        // Bloques pequeños para forzar muchas reservas concurrentes
+        AccountNumberAllocator allocator = new AccountNumberAllocator(() -> highWater.getAndAdd(7), 7);
+
+        int threads = 8;
+        int perThread = 2_000;
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        Set<String> clabes = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        AccountNumberAllocator.AccountNumbers numbers = allocator.next();
+                        assertTrue(accountNumbers.add(numbers.accountNumber()), numbers.accountNumber());
+                        assertTrue(clabes.add(numbers.clabe()), numbers.clabe());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(threads * perThread, clabes.size());
+        for (String clabe : clabes) {
+            assertEquals(18, clabe.length());
+            assertEquals(clabe.charAt(17) - '0', AccountNumberAllocator.clabeCheckDigit(clabe.substring(0, 17)));
+        }
+        for (String number : accountNumbers) {
+            String digits = number.substring(3);
+            assertEquals(digits.charAt(10) - '0', AccountNumberAllocator.luhnDigit(digits.substring(0, 10)));
+        }
+    }
+
+    @Test
+    void blocksNeverOverlapWhenTheBlockSizeChanges() {
+        // Un nodo con bloques grandes y otro reiniciado con bloques más pequeños
+        AccountNumberAllocator large = new AccountNumberAllocator(blocks, transactionTemplate, 1000);
+        AccountNumberAllocator small = new AccountNumberAllocator(blocks, transactionTemplate, 10);
+
+        Set<Long> serials = new HashSet<>();
+        long firstLarge = large.nextSerial();
+        assertTrue(serials.add(firstLarge));
+        for (int i = 0; i < 25; i++) {
+            long serial = small.nextSerial();
+            assertTrue(serials.add(serial), "Serial repetido: " + serial);
+            assertTrue(serial >= firstLarge + 1000, "Serial dentro del bloque grande: " + serial);
+        }
+        for (int i = 0; i < 999; i++) {
+            assertTrue(serials.add(large.nextSerial()));
+        }
+        assertTrue(serials.add(large.nextSerial()));
+    }
+
+    @Test
+    void aBlockReservedBeforeARolledBackCallerStaysReserved() {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(blocks, transactionTemplate, 50);
+        long reserved = allocator.nextSerial();
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(reserved + 1, allocator.nextSerial());
+            status.setRollbackOnly();
+        });
+
+        // La reserva se confirmó antes: otro asignador empieza después del bloque
+        AccountNumberAllocator other = new AccountNumberAllocator(blocks, transactionTemplate, 50);
+        assertTrue(other.nextSerial() >= reserved + 50);
+    }
+
+    @Test
+    void anExhaustedBlockIsNotRefilledInsideACallerTransaction() {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(blocks, transactionTemplate, 1);
+        allocator.nextSerial();
+        assertThrows(IllegalStateException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> allocator.nextSerial()));
+    }
+}
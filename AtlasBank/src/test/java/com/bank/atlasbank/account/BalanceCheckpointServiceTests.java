@@ -0,0 +1,121 @@
+package com.bank.atlasbank.account;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class BalanceCheckpointServiceTests {
+
+    @Autowired
+    private BalanceCheckpointService checkpointService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextTransactionId = 800_000;
+
+    @Test
+    void answersFromTheNearestCheckpointAndReplaysOnlyTheGap() {
+        Customer customer = fixtures.customer("as-of-test");
+        // Saldos actuales, ya con todos los movimientos de abajo aplicados
+        Long main = newAccount(customer, "AT-ASOF-MAIN", "1000.00");
+        Long other = newAccount(customer, "AT-ASOF-OTHER", "50.00");
+
+        insert("DEPOSIT", "100.00", main, null, LocalDateTime.of(2025, 3, 1, 10, 0));
+        insert("WITHDRAW", "30.00", main, null, LocalDateTime.of(2025, 3, 2, 12, 0));
+        insert("TRANSFER", "50.00", main, other, LocalDateTime.of(2025, 3, 2, 15, 0));
+        insert("DEPOSIT", "500.00", main, null, LocalDateTime.of(2025, 3, 3, 9, 0));
+
+        // Sin cierres: se parte del saldo actual hacia atrás
+        BalanceAsOf fromCurrent = checkpointService.balanceAsOf(main, LocalDateTime.of(2025, 3, 2, 12, 0));
+        assertBalance("550.00", fromCurrent);
+        assertNull(fromCurrent.checkpointDate());
+        assertEquals(2, fromCurrent.replayedTransactions());
+
+        LocalDate march1 = LocalDate.of(2025, 3, 1);
+        assertTrue(((Number) checkpointService.checkpoint(march1).get("accounts")).longValue() >= 2);
+        assertEquals(0L, checkpointService.checkpoint(march1).get("accounts"));
+
+        // Con el cierre del 1 (580.00) solo se aplican los movimientos del día 2
+        BalanceAsOf beforeWithdraw = checkpointService.balanceAsOf(main, LocalDateTime.of(2025, 3, 2, 11, 59, 59));
+        assertBalance("580.00", beforeWithdraw);
+        assertEquals(march1, beforeWithdraw.checkpointDate());
+        assertEquals(0, beforeWithdraw.replayedTransactions());
+
+        BalanceAsOf atWithdraw = checkpointService.balanceAsOf(main, LocalDateTime.of(2025, 3, 2, 12, 0));
+        assertBalance("550.00", atWithdraw);
+        assertEquals(1, atWithdraw.replayedTransactions());
+
+        assertBalance("500.00", checkpointService.balanceAsOf(main, LocalDateTime.of(2025, 3, 2, 23, 0)));
+        assertBalance("50.00", checkpointService.balanceAsOf(other, LocalDateTime.of(2025, 3, 2, 23, 0)));
+
+        // Antes del primer cierre se deshace hacia atrás desde él
+        BalanceAsOf beforeFirst = checkpointService.balanceAsOf(main, LocalDateTime.of(2025, 3, 1, 9, 0));
+        assertBalance("480.00", beforeFirst);
+        assertEquals(march1, beforeFirst.checkpointDate());
+
+        assertThrows(BusinessException.class,
+                () -> checkpointService.balanceAsOf(main, LocalDateTime.of(2025, 1, 1, 0, 0)));
+        assertThrows(BusinessException.class,
+                () -> checkpointService.balanceAsOf(main, LocalDateTime.now().plusDays(1)));
+        assertThrows(BusinessException.class, () -> checkpointService.checkpoint(LocalDate.now()));
+    }
+
+    @Test
+    void purgesCheckpointsOlderThanTheRetentionWindow() {
+        Long account = fixtures.account("retention-test", "10.00");
+        LocalDate today = LocalDate.now();
+        LocalDate expired = today.minusDays(401);
+        LocalDate kept = today.minusDays(399);
+        for (LocalDate day : new LocalDate[]{expired, kept}) {
+            jdbcTemplate.update("insert into account_balance_checkpoints (id, account_id, business_date, closing_balance) "
+                    + "values (nextval('account_balance_checkpoints_seq'), ?, ?, ?)", account, day, new BigDecimal("10.00"));
+        }
+
+        assertTrue(checkpointService.purgeExpired() >= 1);
+        assertEquals(0, countCheckpoints(account, expired));
+        assertEquals(1, countCheckpoints(account, kept));
+    }
+
+    private int countCheckpoints(Long accountId, LocalDate day) {
+        return jdbcTemplate.queryForObject("select count(*) from account_balance_checkpoints where account_id = ? and business_date = ?",
+                Integer.class, accountId, day);
+    }
+
+    private static void assertBalance(String expected, BalanceAsOf actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.balance()), () -> "saldo " + actual);
+    }
+
+    private void insert(String type, String amount, Long source, Long target, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into bank_transactions (id, type, amount, source_account_id, target_account_id, created_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                ++nextTransactionId, type, new BigDecimal(amount), source, target, Timestamp.valueOf(createdAt));
+    }
+
+    private Long newAccount(Customer customer, String number, String balance) {
+        Long id = fixtures.account(customer, number, balance);
+        jdbcTemplate.update("update accounts set created_at = ? where id = ?",
+                Timestamp.valueOf(LocalDateTime.of(2025, 2, 1, 0, 0)), id);
+        return id;
+    }
+}
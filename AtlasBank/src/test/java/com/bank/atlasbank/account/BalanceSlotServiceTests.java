@@ -0,0 +1,140 @@
+package com.bank.atlasbank.account;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.transaction.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class BalanceSlotServiceTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentCreditsAndDebitsKeepTheExactTotal() throws Exception {
+        Long id = fixtures.account("slots-concurrent", "100.00");
+        accountService.configureBalanceSlots(id, 8);
+
+        AtomicInteger withdrawn = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            boolean credit = i % 2 == 0;
+            futures.add(pool.submit(() -> {
+                if (credit) {
+                    transactionService.deposit(id, new BigDecimal("3.00"));
+                    return;
+                }
+                try {
+                    transactionService.withdraw(id, new BigDecimal("5.00"));
+                    withdrawn.incrementAndGet();
+                } catch (BusinessException e) {
+                    assertEquals("Saldo insuficiente", e.getMessage());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        BigDecimal expected = new BigDecimal("700.00").subtract(new BigDecimal("5.00").multiply(BigDecimal.valueOf(withdrawn.get())));
+        BigDecimal total = accountService.findById(id).getTotalBalance();
+        assertTrue(total.signum() >= 0);
+        assertEquals(0, expected.compareTo(total), "Total " + total + ", esperado " + expected);
+        assertTrue(withdrawn.get() > 0);
+    }
+
+    @Test
+    void creditsToAShardedAccountDoNotWaitForItsRow() throws Exception {
+        Long id = fixtures.account("slots-overlap", "0.00");
+        accountService.configureBalanceSlots(id, 16);
+
+        // Otra transacción retiene la fila de la cuenta, como un cargo en curso
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    accountRepository.lockBalanceById(id);
+                    locked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> credits = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                credits.add(pool.submit(() -> transactionService.deposit(id, new BigDecimal("1.00"))));
+            }
+            // Todos los abonos confirman entre sí y con la fila aún retenida
+            for (Future<?> credit : credits) {
+                credit.get(5, TimeUnit.SECONDS);
+            }
+            assertFalse(holder.isDone());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+        holder.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, new BigDecimal("20.00").compareTo(accountService.findById(id).getTotalBalance()));
+    }
+
+    @Test
+    void debitBorrowsFromSlotsAndRejectsOnlyWhenTheTotalIsShort() {
+        Long id = fixtures.account("slots-borrow", "10.00");
+        accountService.configureBalanceSlots(id, 4);
+        for (int i = 0; i < 6; i++) {
+            transactionService.deposit(id, new BigDecimal("5.00"));
+        }
+
+        assertThrows(BusinessException.class, () -> transactionService.withdraw(id, new BigDecimal("40.01")));
+        transactionService.withdraw(id, new BigDecimal("40.00"));
+        assertEquals(0, accountService.findById(id).getTotalBalance().signum());
+
+        transactionService.deposit(id, new BigDecimal("7.50"));
+        Account consolidated = accountService.configureBalanceSlots(id, 1);
+        assertEquals(0, new BigDecimal("7.50").compareTo(consolidated.getBalance()));
+        assertEquals(0, new BigDecimal("7.50").compareTo(consolidated.getTotalBalance()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.atlasbank.admin;
+
+import com.bank.atlasbank.customer.CustomerStatusChangedEvent;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import com.bank.atlasbank.transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DashboardStatsAggregatorTests {
+
+    // Los eventos y snapshot() no tocan los repositorios; solo rebuild() los usa
+    private final DashboardStatsAggregator aggregator = new DashboardStatsAggregator(null, null);
+
+    @Test
+    void volumeCoversTheLast24HoursInMinuteBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        posted("100.00", now);
+        posted("25.50", now);
+        posted("50.00", now.minusHours(23).minusMinutes(58));
+        posted("70.00", now.minusHours(24).minusMinutes(1));
+        posted("30.00", now.minusDays(3));
+        posted(null, now);
+
+        Map<String, Object> stats = aggregator.snapshot();
+        assertEquals(0, new BigDecimal("175.50").compareTo((BigDecimal) stats.get("volume24h")));
+    }
+
+    @Test
+    void riskAlertsCountMovementsAtOrAboveTheThreshold() {
+        LocalDateTime now = LocalDateTime.now();
+        posted("4999.99", now);
+        posted("5000.00", now);
+        posted("12000.00", now.minusDays(2));
+
+        // Las alertas no caducan con la ventana de volumen
+        assertEquals(2L, aggregator.snapshot().get("riskAlerts"));
+    }
+
+    @Test
+    void statusChangesMoveTheUserAndPendingCounters() {
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(1L, "C1", null, "PENDING"));
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(2L, "C2", null, "PENDING"));
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(3L, "C3", null, "ACTIVE"));
+        assertEquals(3L, aggregator.snapshot().get("totalUsers"));
+        assertEquals(2L, aggregator.snapshot().get("pendingAccounts"));
+
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(1L, "C1", "PENDING", "ACTIVE"));
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(3L, "C3", "ACTIVE", "BLOCKED"));
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(3L, "C3", "BLOCKED", "pending"));
+        assertEquals(3L, aggregator.snapshot().get("totalUsers"));
+        assertEquals(2L, aggregator.snapshot().get("pendingAccounts"));
+    }
+
+    private void posted(String amount, LocalDateTime createdAt) {
+        aggregator.onTransactionPosted(new TransactionPostedEvent(1L, TransactionType.DEPOSIT,
+                amount == null ? null : new BigDecimal(amount), 1L, null, "C1", createdAt));
+    }
+}
@@ -0,0 +1,165 @@
+package com.bank.atlasbank.admin;
+
+import com.bank.atlasbank.customer.CustomerStatusChangedEvent;
+import com.bank.atlasbank.transaction.TransactionPostedEvent;
+import com.bank.atlasbank.transaction.TransactionType;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonitoringFeedTests {
+
+    private final DashboardStatsAggregator aggregator = new DashboardStatsAggregator(null, null);
+    private MonitoringFeed feed;
+
+    @AfterEach
+    void stop() {
+        if (feed != null) feed.stop();
+    }
+
+    @Test
+    void statsTicksSendOnlyTheFieldsThatChanged() throws Exception {
+        feed = feed(4, 15000);
+        RecordingEmitter console = new RecordingEmitter(null);
+        feed.subscribe(console);
+
+        String initial = console.next();
+        assertTrue(initial.startsWith("event:stats"), initial);
+        assertTrue(initial.contains("totalUsers") && initial.contains("volume24h"), initial);
+
+        // La primera pasada solo toma la foto de referencia: la consola ya la tiene completa
+        feed.publishStats();
+        assertTrue(console.next().startsWith(":latido"));
+
+        aggregator.onCustomerStatusChanged(new CustomerStatusChangedEvent(1L, "feed-1", null, "ACTIVE"));
+        feed.publishStats();
+        String delta = console.next();
+        assertTrue(delta.startsWith("event:stats"), delta);
+        assertTrue(delta.contains("\"totalUsers\":1"), delta);
+        assertFalse(delta.contains("volume24h") || delta.contains("pendingAccounts"), delta);
+
+        feed.publishStats();
+        assertTrue(console.next().startsWith(":latido"));
+    }
+
+    @Test
+    void aStalledConsoleIsEvictedAndItsSenderReplaced() throws Exception {
+        feed = feed(1, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        feed.subscribe(stalled);
+        assertTrue(stalled.entered.await(5, TimeUnit.SECONDS));
+
+        // El único emisor está atascado: la segunda consola espera en la cola
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        feed.subscribe(healthy);
+        assertNull(healthy.events.poll(200, TimeUnit.MILLISECONDS));
+
+        feed.publishStats();
+        assertEquals(1L, feed.stats().get("evicted"));
+        assertEquals(1, feed.stats().get("subscribers"));
+        assertEquals(1, feed.stats().get("stalledSenders"));
+        assertTrue(stalled.completed);
+        assertTrue(healthy.next().startsWith("event:stats"));
+
+        // Cuando la escritura atascada por fin vuelve, el grupo recupera su tamaño
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(0).equals(feed.stats().get("stalledSenders")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, feed.stats().get("stalledSenders"));
+    }
+
+    @Test
+    void drainReportsDropsBeforeTheBufferedMovements() throws Exception {
+        feed = new MonitoringFeed(aggregator, JsonMapper.builder().findAndAddModules().build(),
+                2, 10, 1, 60000, 60000);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter console = new RecordingEmitter(release);
+        feed.subscribe(console);
+        assertTrue(console.entered.await(5, TimeUnit.SECONDS));
+
+        // Mientras se escriben las estadísticas iniciales llegan más movimientos de los que caben
+        for (long id = 1; id <= 5; id++) {
+            feed.onTransactionPosted(new TransactionPostedEvent(id, TransactionType.DEPOSIT, BigDecimal.TEN,
+                    1L, null, "feed-drain", LocalDateTime.now()));
+        }
+        release.countDown();
+
+        assertTrue(console.next().startsWith("event:stats"));
+        String dropped = console.next();
+        assertTrue(dropped.startsWith("event:dropped") && dropped.contains("\"count\":3"), dropped);
+        assertTrue(console.next().contains("\"transactionId\":1"));
+        assertTrue(console.next().contains("\"transactionId\":2"));
+        assertNull(console.events.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(5L, feed.stats().get("published"));
+        assertEquals(3L, feed.stats().get("dropped"));
+        assertEquals(2L, feed.stats().get("delivered"));
+    }
+
+    private MonitoringFeed feed(int senderThreads, long stallTimeoutMs) {
+        return new MonitoringFeed(aggregator, JsonMapper.builder().findAndAddModules().build(),
+                256, 10, senderThreads, 60000, stallTimeoutMs);
+    }
+
+    /** Guarda cada envío como texto; con una barrera, el primero se queda esperando a que se abra. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            List<String> parts = new ArrayList<>();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                parts.add(String.valueOf(data.getData()));
+            }
+            events.add(String.join("", parts));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "la consola no recibió nada");
+            return event;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bank.atlasbank.admin;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonitoringSubscriberTests {
+
+    @Test
+    void dropsNewestTransactionsLetsFraudInAndCoalescesStats() {
+        MonitoringSubscriber subscriber = new MonitoringSubscriber(1, new SseEmitter(), 3);
+        for (int i = 1; i <= 5; i++) {
+            subscriber.offer(new MonitoringSubscriber.Message(MonitoringFeed.TRANSACTION, "tx" + i, false));
+        }
+        assertEquals(3, subscriber.queued());
+        assertEquals(2, subscriber.droppedTotal());
+
+        // La alerta desplaza al movimiento más antiguo
+        assertFalse(subscriber.offer(new MonitoringSubscriber.Message(MonitoringFeed.FRAUD_BLOCK, "fraud", true)));
+        assertEquals(3, subscriber.droppedTotal());
+
+        subscriber.offerStats(Map.of("totalUsers", 10L, "volume24h", BigDecimal.ONE));
+        subscriber.offerStats(Map.of("volume24h", BigDecimal.TEN));
+        subscriber.offerHeartbeat();
+
+        assertEquals(3, subscriber.takeDroppedNotice());
+        assertEquals(-1, subscriber.takeDroppedNotice());
+        List<MonitoringSubscriber.Message> batch = subscriber.takeBatch(10);
+        assertEquals(List.of("tx2", "tx3", "fraud"), batch.stream().map(MonitoringSubscriber.Message::data).toList());
+        assertEquals(Map.of("totalUsers", 10L, "volume24h", BigDecimal.TEN), subscriber.takeStats());
+        assertNull(subscriber.takeStats());
+        // Había estadísticas pendientes, así que no hacía falta latido
+        assertFalse(subscriber.takeHeartbeat());
+        assertFalse(subscriber.hasPending());
+
+        subscriber.offerHeartbeat();
+        assertTrue(subscriber.hasPending());
+        subscriber.close();
+        assertFalse(subscriber.offer(new MonitoringSubscriber.Message(MonitoringFeed.TRANSACTION, "tarde", false)));
+        assertFalse(subscriber.hasPending());
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.atlasbank.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    @Test
+    void neverForgetsAndKeepsFalsePositivesNearTheTarget() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("CUS" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("CUS" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("otro" + i + "@mail.test")) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "Falsos positivos: " + falsePositives);
+    }
+}
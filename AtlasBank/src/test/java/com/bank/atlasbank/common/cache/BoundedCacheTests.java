@@ -0,0 +1,104 @@
+package com.bank.atlasbank.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTests {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryPastTheLimit() {
+        BoundedCache<String, String> cache = new BoundedCache<>("lru", 2, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", k -> load(k, loads));
+        cache.get("b", k -> load(k, loads));
+        // Leer "a" la deja como la más reciente: sale "b"
+        cache.get("a", k -> load(k, loads));
+        cache.get("c", k -> load(k, loads));
+        assertEquals(3, loads.get());
+
+        cache.get("a", k -> load(k, loads));
+        assertEquals(3, loads.get());
+        cache.get("b", k -> load(k, loads));
+        assertEquals(4, loads.get());
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.size());
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+        assertEquals(2, stats.evictions());
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>("ttl", 10, 50);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", k -> load(k, loads));
+        cache.get("a", k -> load(k, loads));
+        assertEquals(1, loads.get());
+
+        Thread.sleep(80);
+        assertEquals(Optional.of("a2"), cache.get("a", k -> load(k, loads)));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void nullLoadsAreNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("null", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        assertTrue(cache.get("x", k -> {
+            loads.incrementAndGet();
+            return null;
+        }).isEmpty());
+        cache.get("x", k -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void anInvalidationDuringTheLoadDiscardsTheLoadedValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>("epoch", 10, 60_000);
+        cache.put("other", "o");
+
+        // El valor leído es anterior a la invalidación: se devuelve pero no se guarda
+        assertEquals(Optional.of("viejo"), cache.get("a", k -> {
+            cache.invalidate("otra-clave");
+            return "viejo";
+        }));
+        assertEquals(Optional.of("nuevo"), cache.get("a", k -> "nuevo"));
+        assertEquals(Optional.of("nuevo"), cache.get("a", k -> "otro"));
+
+        assertEquals(Optional.of("x"), cache.get("b", k -> {
+            cache.invalidateIf(v -> false);
+            return "x";
+        }));
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingValues() {
+        BoundedCache<String, String> cache = new BoundedCache<>("predicate", 10, 60_000);
+        cache.put("a", "keep");
+        cache.put("b", "drop");
+        cache.put("c", "drop");
+        cache.invalidateIf("drop"::equals);
+        cache.invalidate("missing");
+
+        assertEquals(Optional.of("keep"), cache.get("a", k -> "reloaded"));
+        assertEquals(Optional.of("reloaded"), cache.get("b", k -> "reloaded"));
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    private static String load(String key, AtomicInteger loads) {
+        return key + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.atlasbank.common.datasource;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.account.AccountService;
+import com.bank.atlasbank.admin.AdminService;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.transaction.BankTransaction;
+import com.bank.atlasbank.transaction.IdempotencyService;
+import com.bank.atlasbank.transaction.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// Dos BD H2 en memoria: la "réplica" solo ve lo copiado con SCRIPT/RUNSCRIPT, así que
+// las lecturas se envían a ella recién después de copiar
+@SpringBootTest(properties = {"atlasbank.datasource.replica.enabled=true", "atlasbank.datasource.replica.route-reads=false",
+        "atlasbank.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=PostgreSQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1"})
+class ReadReplicaRoutingTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRouting;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void readOnlyWorkGoesToTheReplicaAndMoneyMovementToThePrimary() {
+        Long id = fixtures.account("replica-test", "100.00");
+
+        copyToReplica();
+
+        transactionService.deposit(id, new BigDecimal("50.00"));
+        // El hilo de la prueba corre dentro de una petición simulada y quedó fijado al
+        // primario al escribir; se limpia como lo haría el filtro al terminar la petición
+        assertTrue(ReplicaRouting.isPinnedToPrimary());
+        ReplicaRouting.clear();
+
+        // Las lecturas declaradas readOnly por un servicio van a la réplica, que no vio el depósito
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+                accountService.findByCustomerId("replica-test").get(0).getBalance()));
+
+        // Un findById suelto abre la transacción por defecto del repositorio: va al primario
+        assertEquals(0, new BigDecimal("150.00").compareTo(accountRepository.findById(id).orElseThrow().getBalance()));
+        assertFalse(ReplicaRouting.isPinnedToPrimary());
+
+        // El retiro valida contra el primario aunque la réplica diga 100
+        transactionService.withdraw(id, new BigDecimal("150.00"));
+        assertEquals(0, new JdbcTemplate(primary).queryForObject(
+                "select balance from accounts where id = ?", BigDecimal.class, id).signum());
+    }
+
+    @Test
+    void adminWritesDoNotReloadTheCustomerFromALaggingReplica() {
+        Customer customer = fixtures.customer("replica-admin");
+        copyToReplica();
+
+        // El antifraude bloquea en el primario; la réplica todavía lo ve ACTIVE
+        new JdbcTemplate(primary).update("update customers set status = 'BLOCKED' where id = ?", customer.getId());
+        adminService.resetPassword(customer.getId(), "nueva-clave");
+        ReplicaRouting.clear();
+
+        Customer stored = customerRepository.findById(customer.getId()).orElseThrow();
+        assertEquals("BLOCKED", stored.getStatus());
+        assertEquals("nueva-clave", stored.getPassword());
+    }
+
+    @Test
+    void idempotencyKeysConfirmedElsewhereAreFoundOnThePrimary() {
+        Long id = fixtures.account("replica-idem", "100.00");
+        copyToReplica();
+
+        // Otro nodo confirmó la clave; la réplica todavía no la tiene
+        BankTransaction first = transactionService.deposit(id, new BigDecimal("10.00"));
+        String fingerprint = IdempotencyService.fingerprint("deposit", id, new BigDecimal("10.00"));
+        new JdbcTemplate(primary).update(
+                "insert into idempotency_keys (idempotency_key, fingerprint, transaction_id, created_at) values (?, ?, ?, current_timestamp)",
+                "replica-idem-key", fingerprint, first.getId());
+        ReplicaRouting.clear();
+
+        IdempotencyService.Outcome outcome = idempotencyService.execute("replica-idem-key", fingerprint,
+                () -> transactionService.deposit(id, new BigDecimal("10.00")));
+        ReplicaRouting.clear();
+        assertTrue(outcome.replayed());
+        assertEquals(first.getId(), outcome.transaction().getId());
+        assertEquals(0, new BigDecimal("110.00").compareTo(new JdbcTemplate(primary).queryForObject(
+                "select balance from accounts where id = ?", BigDecimal.class, id)));
+    }
+
+    private void copyToReplica() {
+        String script = tmp.resolve("snapshot.sql").toString().replace('\\', '/');
+        new JdbcTemplate(primary).execute("SCRIPT DROP TO '" + script + "'");
+        new JdbcTemplate(replica).execute("RUNSCRIPT FROM '" + script + "'");
+        replicaRouting.setRouteReads(true);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.atlasbank.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    @Test
+    void everyValueFallsInsideItsBucketWithBoundedError() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 1023, 1024, 123_456_789L, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            long upper = LatencyHistogram.upperBoundOf(index);
+            long lower = index == 0 ? 0 : LatencyHistogram.upperBoundOf(index - 1) + 1;
+            assertTrue(lower <= value && value <= upper, value + " fuera de [" + lower + ", " + upper + "]");
+            assertTrue(upper - value <= value / 16, "error relativo alto para " + value);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndOrdered() {
+        int previous = LatencyHistogram.indexOf(0);
+        for (long value = 1; value < 1 << 20; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "salto en " + value);
+            if (index != previous) {
+                assertEquals(value - 1, LatencyHistogram.upperBoundOf(previous));
+            }
+            previous = index;
+        }
+    }
+
+    @Test
+    void percentilesOfAUniformSampleStayWithinSevenPercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        histogram.recordError();
+
+        Map<String, Object> summary = histogram.summary();
+        assertEquals(100_000L, summary.get("count"));
+        assertEquals(1L, summary.get("errors"));
+        assertEquals(1.0 / 100_001, (double) summary.get("errorRate"), 1e-12);
+        assertEquals(50_000.5, (double) summary.get("meanMicros"), 1e-6);
+        assertEquals(100_000.0, (double) summary.get("maxMicros"), 1e-9);
+        assertNear(50_000, (double) summary.get("p50Micros"));
+        assertNear(99_000, (double) summary.get("p99Micros"));
+        assertNear(99_900, (double) summary.get("p999Micros"));
+    }
+
+    @Test
+    void emptyAndNegativeSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Map<String, Object> empty = histogram.summary();
+        assertEquals(0L, empty.get("count"));
+        assertEquals(0.0, empty.get("errorRate"));
+        assertEquals(0.0, empty.get("p99Micros"));
+
+        // Un reloj que retrocede cuenta como cero
+        histogram.record(-5);
+        assertEquals(1L, histogram.summary().get("count"));
+        assertEquals(0.0, histogram.summary().get("maxMicros"));
+    }
+
+    private static void assertNear(double expected, double actual) {
+        // Siempre se informa el límite superior de la cubeta: nunca por debajo
+        assertTrue(actual >= expected && actual <= expected * 1.07, "esperado ~" + expected + " y fue " + actual);
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.atlasbank.customer;
+
+import com.bank.atlasbank.account.AccountRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// Bloques pequeños para cubrir duplicados entre bloques distintos
+@SpringBootTest(properties = "atlasbank.import.chunk-size=2")
+class CustomerImportServiceTests {
+
+    @Autowired
+    private CustomerImportService importService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void csvImportCreatesCustomersWithAccountsAndReportsBadRows() throws Exception {
+        String csv = """
+                customerId,fullName,email,phone,password
+                IMP-1,"Pérez, Ana",ana@test.local,555,secret
+                IMP-2,Luis Gómez,luis@test.local,,secret
+                IMP-3,Otra Ana,ana@test.local,,secret
+                IMP-1,Repetido,otro@test.local,,secret
+                ,Sin Id,sinid@test.local,,secret
+                IMP-4,Sin Clave,clave@test.local,,
+                """;
+
+        CustomerImportResult result = importService.importCustomers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CustomerImportService.Format.CSV);
+
+        assertEquals(2, result.imported());
+        assertEquals(4, result.rejected());
+        assertEquals(4, result.errors().get(0).line());
+        assertEquals("Ya existe un cliente con ese email", result.errors().get(0).message());
+        assertEquals("Pérez, Ana", customerRepository.findByCustomerId("IMP-1").orElseThrow().getFullName());
+        assertEquals(1, accountRepository.findByCustomer_CustomerId("IMP-2").size());
+        assertTrue(customerRepository.findByCustomerId("IMP-3").isEmpty());
+    }
+
+    @Nested
+    // Las tres filas en el mismo bloque
+    @TestPropertySource(properties = "atlasbank.import.chunk-size=10")
+    class WithinOneChunk {
+
+        @Test
+        void aRowRejectedForItsEmailDoesNotReserveItsCustomerId() throws Exception {
+            String csv = """
+                    customerId,fullName,email,phone,password
+                    IMP-10,Primera,repetido@test.local,,secret
+                    IMP-11,Segunda,repetido@test.local,,secret
+                    IMP-11,Tercera,tercera@test.local,,secret
+                    """;
+
+            CustomerImportResult result = importService.importCustomers(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CustomerImportService.Format.CSV);
+
+            assertEquals(2, result.imported());
+            assertEquals(1, result.rejected());
+            assertEquals(3, result.errors().get(0).line());
+            assertEquals("email repetido en el archivo", result.errors().get(0).message());
+            assertEquals("Tercera", customerRepository.findByCustomerId("IMP-11").orElseThrow().getFullName());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bank.atlasbank.customer;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.admin.AdminService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// Contexto propio: los totales solo cuentan los clientes de esta prueba
+@SpringBootTest(properties = "atlasbank.customer-search.max-terms=4")
+class CustomerSearchIndexTests {
+
+    @Autowired
+    private CustomerSearchIndex searchIndex;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void findsByPrefixAndSubstringIgnoringAccentsAndFollowsStatusChanges() {
+        Customer jose = customerService.create(new CreateCustomerRequest(
+                "SRCH-1", "José Quintanilla", null, null, "jose.q@search.test", "55 9876 1234", "secret"));
+        Customer ana = customerService.create(new CreateCustomerRequest(
+                "SRCH-2", "Ana Josefina Ruiz", null, null, "ana.r@search.test", null, "secret"));
+        Customer luis = customerService.create(new CreateCustomerRequest(
+                "SRCH-3", "Luis Gómez", null, null, "luis@quintanilla.test", null, "secret"));
+
+        // Prefijo de palabra primero, subcadena después
+        CustomerSearchPage byName = searchIndex.search("quintanilla", null, null, null);
+        assertTrue(byName.indexed());
+        assertEquals(2, byName.total());
+        assertEquals(List.of(jose.getId(), luis.getId()), ids(byName));
+        assertEquals(List.of(jose.getId(), luis.getId()), ids(searchIndex.search("Quin", null, null, null)));
+
+        // Uno o dos caracteres: solo prefijos de palabra
+        assertEquals(List.of(jose.getId()), ids(searchIndex.search("qu", null, null, null)));
+        assertEquals(List.of(jose.getId(), ana.getId()), ids(searchIndex.search("JOSE", null, null, null)));
+        assertEquals(List.of(luis.getId()), ids(searchIndex.search("gomez", null, null, null)));
+        assertEquals(List.of(jose.getId()), ids(searchIndex.search("jose quint", null, null, null)));
+        assertEquals(List.of(jose.getId()), ids(searchIndex.search("9876-1234", null, null, null)));
+        assertEquals(List.of(ana.getId()), ids(searchIndex.search("srch-2", null, null, null)));
+        assertEquals(0, searchIndex.search("quintanillas", null, null, null).total());
+
+        CustomerSearchPage second = searchIndex.search("quintanilla", null, 1, 1);
+        assertEquals(2, second.total());
+        assertEquals(List.of(luis.getId()), ids(second));
+
+        adminService.lockCustomer(jose.getId());
+        assertEquals(List.of(jose.getId()), ids(searchIndex.search("quintanilla", "locked", null, null)));
+        assertEquals(List.of(luis.getId()), ids(searchIndex.search("quintanilla", "PENDING", null, null)));
+        // Solo coincidencias por subcadena: se recorren todas y el total es exacto
+        CustomerSearchPage bySubstring = searchIndex.search(".test", null, null, null);
+        assertEquals(3, bySubstring.total());
+        assertTrue(bySubstring.totalExact());
+    }
+
+    @Test
+    void broadQueriesStopOnceThePageIsFullAndEstimateTheTotal() {
+        // Ids de BD crecientes pero indexados en orden inverso
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            customers.add(fixtures.customer("bulk-" + i));
+        }
+        for (int i = customers.size() - 1; i >= 0; i--) {
+            searchIndex.add(customers.get(i));
+        }
+        searchIndex.add(customers.get(0));
+
+        CustomerSearchPage first = searchIndex.search("bulk", null, 0, 20);
+        assertEquals(20, first.items().size());
+        assertFalse(first.totalExact());
+        assertEquals(250, first.total());
+
+        // La última página necesita recorrerlo todo: total exacto
+        CustomerSearchPage last = searchIndex.search("bulk", null, 12, 20);
+        assertEquals(10, last.items().size());
+        assertTrue(last.totalExact());
+        assertEquals(250, last.total());
+
+        // Los cambios de estado encuentran al cliente aunque se indexara fuera de orden
+        adminService.lockCustomer(customers.get(0).getId());
+        adminService.lockCustomer(customers.get(249).getId());
+        CustomerSearchPage locked = searchIndex.search("bulk", "LOCKED", null, null);
+        assertTrue(locked.totalExact());
+        assertEquals(List.of(customers.get(249).getId(), customers.get(0).getId()), ids(locked));
+    }
+
+    private static List<Long> ids(CustomerSearchPage page) {
+        return page.items().stream().map(CustomerView::id).toList();
+    }
+}
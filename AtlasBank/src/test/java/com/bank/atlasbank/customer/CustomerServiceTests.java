@@ -0,0 +1,67 @@
+package com.bank.atlasbank.customer;
+
+import com.bank.atlasbank.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class CustomerServiceTests {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerUniquenessIndex uniquenessIndex;
+
+    @Test
+    void duplicatesMissedByTheIndexGetTheSameMessages() {
+        // Simula un alta hecha en otro nodo: está en la BD pero no en el índice local
+        Customer other = new Customer();
+        other.setCustomerId("bloom-other");
+        other.setFullName("Otro Nodo");
+        other.setEmail("bloom-other@test.local");
+        other.setPhone("");
+        customerRepository.save(other);
+        assertFalse(uniquenessIndex.mightContainCustomerId("bloom-other"));
+
+        BusinessException byId = assertThrows(BusinessException.class, () -> customerService.create(
+                new CreateCustomerRequest("bloom-other", "Ana", null, null, "nueva@test.local", null, "secret")));
+        assertEquals("Ya existe un cliente con ese customerId", byId.getMessage());
+
+        BusinessException byEmail = assertThrows(BusinessException.class, () -> customerService.create(
+                new CreateCustomerRequest("bloom-new", "Ana", null, null, "bloom-other@test.local", null, "secret")));
+        assertEquals("Ya existe un cliente con ese email", byEmail.getMessage());
+
+        customerService.create(new CreateCustomerRequest("bloom-new", "Ana", null, null, "bloom-new@test.local", null, "secret"));
+        BusinessException again = assertThrows(BusinessException.class, () -> customerService.create(
+                new CreateCustomerRequest("bloom-new", "Ana", null, null, "otra@test.local", null, "secret")));
+        assertEquals("Ya existe un cliente con ese customerId", again.getMessage());
+    }
+
+    @Test
+    void aDuplicateIsReportedBeforeAMissingFullName() {
+        customerService.create(new CreateCustomerRequest("order-taken", "Ana", null, null, "order-taken@test.local", null, "secret"));
+
+        BusinessException byId = assertThrows(BusinessException.class, () -> customerService.create(
+                new CreateCustomerRequest("order-taken", null, null, null, "order-other@test.local", null, "secret")));
+        assertEquals("Ya existe un cliente con ese customerId", byId.getMessage());
+
+        BusinessException byEmail = assertThrows(BusinessException.class, () -> customerService.create(
+                new CreateCustomerRequest("order-new", null, null, null, "order-taken@test.local", null, "secret")));
+        assertEquals("Ya existe un cliente con ese email", byEmail.getMessage());
+
+        BusinessException noName = assertThrows(BusinessException.class, () -> customerService.create(
+                new CreateCustomerRequest("order-new", null, null, null, "order-new@test.local", null, "secret")));
+        assertEquals("fullName es obligatorio", noName.getMessage());
+    }
+}
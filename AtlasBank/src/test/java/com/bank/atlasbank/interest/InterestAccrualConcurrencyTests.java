@@ -0,0 +1,64 @@
+package com.bank.atlasbank.interest;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.transaction.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+// Tasa de 3.65 %: 0.01 % diario
+@SpringBootTest(properties = {
+        "atlasbank.interest.savings-rate=0.0365",
+        "atlasbank.interest.parallelism=2"
+})
+class InterestAccrualConcurrencyTests {
+
+    @Autowired
+    private InterestAccrualService accrualService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void aDepositInFlightDuringTheAccrualKeepsTheInterest() throws Exception {
+        Long id = fixtures.account("interest-race", "10000.00");
+        LocalDate day = LocalDate.of(2026, 5, 31);
+
+        CompletableFuture<InterestAccrualResult> accrual = new TransactionTemplate(transactionManager).execute(status -> {
+            // La cuenta ya está cargada y modificada, pero el depósito no ha confirmado
+            transactionService.deposit(id, new BigDecimal("100.00"));
+            CompletableFuture<InterestAccrualResult> started = CompletableFuture.supplyAsync(() -> accrualService.accrue(day));
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return started;
+        });
+
+        InterestAccrualResult result = accrual.get();
+        assertEquals(InterestAccrualRun.Status.COMPLETED, result.status());
+        // El bloque esperó al depósito: interés sobre 10100.00 y nada pisado al confirmar
+        assertEquals(0, new BigDecimal("10101.01").compareTo(accountRepository.findBalanceById(id).orElseThrow()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.bank.atlasbank.interest;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.account.AccountType;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.transaction.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+// Tasas de 3.65 % y 7.3 %: 0.01 % y 0.02 % diario; bloques de 2 cuentas en 3 hilos
+@SpringBootTest(properties = {
+        "atlasbank.interest.savings-rate=0.0365",
+        "atlasbank.interest.checking-rate=0",
+        "atlasbank.interest.investment-rate=0.073",
+        "atlasbank.interest.chunk-size=2",
+        "atlasbank.interest.parallelism=3"
+})
+class InterestAccrualServiceTests {
+
+    @Autowired
+    private InterestAccrualService accrualService;
+
+    @Autowired
+    private InterestAccrualRunRepository runRepository;
+
+    @Autowired
+    private InterestAccrualChunkRepository chunkRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void accruesByTypeOncePerDayAndResumesFromCheckpoints() {
+        Customer customer = fixtures.customer("interest-test");
+        Long savings = newAccount(customer, AccountType.SAVINGS, "10000.00");
+        Long checking = newAccount(customer, AccountType.CHECKING, "10000.00");
+        Long investment = newAccount(customer, AccountType.INVESTMENT, "5000.00");
+        Long empty = newAccount(customer, AccountType.SAVINGS, "0.00");
+        Long small = newAccount(customer, AccountType.SAVINGS, "20.00");
+
+        LocalDate day = LocalDate.of(2026, 3, 31);
+        InterestAccrualResult result = accrualService.accrue(day);
+
+        assertEquals(InterestAccrualRun.Status.COMPLETED, result.status());
+        assertEquals(0, result.failedChunks());
+        assertEquals(2, result.accounts());
+        assertEquals(0, new BigDecimal("2.00").compareTo(result.totalInterest()));
+        assertBalance(savings, "10001.00");
+        assertBalance(checking, "10000.00");
+        assertBalance(investment, "5001.00");
+        assertBalance(empty, "0.00");
+        assertBalance(small, "20.00");
+        assertEquals(2, transactionRepository.count());
+
+        // El mismo día no se acredita dos veces
+        assertEquals(0, accrualService.accrue(day).processedChunks());
+        assertBalance(savings, "10001.00");
+
+        // Reinicio: la ejecución quedó a medias con el primer bloque ya confirmado
+        LocalDate next = day.plusDays(1);
+        long first = Math.min(savings, Math.min(checking, investment));
+        runRepository.save(new InterestAccrualRun(next, 2, first, Math.max(small, empty)));
+        chunkRepository.save(new InterestAccrualChunk(next, first, first + 2, 1, new BigDecimal("1.00")));
+
+        InterestAccrualResult resumed = accrualService.accrue(next);
+
+        assertEquals(1, resumed.skippedChunks());
+        assertEquals(InterestAccrualRun.Status.COMPLETED, resumed.status());
+        assertBalance(savings, "10001.00");
+        assertBalance(investment, "5002.00");
+    }
+
+    private void assertBalance(Long accountId, String expected) {
+        assertEquals(0, new BigDecimal(expected).compareTo(accountRepository.findBalanceById(accountId).orElseThrow()));
+    }
+
+    private Long newAccount(Customer customer, AccountType type, String balance) {
+        return fixtures.account(customer, type, "AT-INT-" + type + "-" + balance, balance);
+    }
+}
@@ -0,0 +1,186 @@
+package com.bank.atlasbank.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedJournalTests {
+
+    // Segmentos pequeños para que 100 registros ocupen varios
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordTruncatedMidWayIsDiscardedAndAppendingContinues() throws IOException {
+        Map<Long, BigDecimal> expected = writeRecords(100);
+        Path last = lastSegment();
+        int end = usedBytes(last);
+        try (RandomAccessFile raf = new RandomAccessFile(last.toFile(), "rw")) {
+            raf.setLength(end - 7);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 0, replayed::add)) {
+            assertEquals(99, replayed.size());
+            assertEquals(99, journal.lastSequence());
+            assertEquals(100, journal.append(record(JournalRecord.Kind.DEPOSIT, 1, "5.00")));
+        }
+
+        Map<Long, BigDecimal> balances = replayAll(0);
+        // El registro 100 (transferencia de 1 a 2) se perdió
+        expected.merge(1L, new BigDecimal("12.34"), BigDecimal::add);
+        expected.merge(2L, new BigDecimal("-12.34"), BigDecimal::add);
+        expected.merge(1L, new BigDecimal("5.00"), BigDecimal::add);
+        assertBalances(expected, balances);
+    }
+
+    @Test
+    void corruptedTailFailsChecksumAndIsDiscarded() throws IOException {
+        writeRecords(100);
+        Path last = lastSegment();
+        int end = usedBytes(last);
+        try (RandomAccessFile raf = new RandomAccessFile(last.toFile(), "rw")) {
+            raf.seek(end - 3);
+            raf.write(0x7F);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 0, replayed::add)) {
+            assertEquals(99, journal.lastSequence());
+        }
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(i + 1, replayed.get(i).sequence());
+        }
+    }
+
+    @Test
+    void snapshotPlusReplayMatchesFullReplay() throws IOException {
+        writeRecords(60);
+        Map<Long, BigDecimal> atFifty = new HashMap<>();
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 0, r -> {
+            if (r.sequence() <= 50) r.applyTo(atFifty);
+        })) {
+            assertEquals(60, journal.lastSequence());
+        }
+        BalanceSnapshots.write(dir, 50, atFifty);
+
+        BalanceSnapshots.Snapshot snapshot = BalanceSnapshots.loadLatest(dir).orElseThrow();
+        assertEquals(50, snapshot.sequence());
+        Map<Long, BigDecimal> fromSnapshot = new HashMap<>(snapshot.balances());
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 50, r -> {
+            replayed.add(r);
+            r.applyTo(fromSnapshot);
+        })) {
+            assertEquals(60, journal.lastSequence());
+        }
+        assertEquals(10, replayed.size());
+        assertBalances(replayAll(0), fromSnapshot);
+    }
+
+    @Test
+    void segmentsCoveredBySnapshotsArePrunedAndRecoveryStillWorks() throws IOException {
+        Map<Long, BigDecimal> expected = writeRecords(100);
+        Map<Long, BigDecimal> atSeventy = new HashMap<>();
+        Map<Long, BigDecimal> atEighty = new HashMap<>();
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 0, r -> {
+            if (r.sequence() <= 70) r.applyTo(atSeventy);
+            if (r.sequence() <= 80) r.applyTo(atEighty);
+        })) {
+            int before = journal.segments().size();
+            BalanceSnapshots.write(dir, 30, new HashMap<>());
+            BalanceSnapshots.write(dir, 70, atSeventy);
+            // Se conservan dos fotos: la más antigua que queda es la de 70
+            assertEquals(70, BalanceSnapshots.write(dir, 80, atEighty));
+            assertTrue(journal.pruneThrough(70) > 0);
+            assertTrue(journal.segments().size() < before);
+        }
+
+        // Desde cualquiera de las dos fotos conservadas se llega al mismo saldo
+        Map<Long, BigDecimal> fromEighty = new HashMap<>(atEighty);
+        SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 80, r -> r.applyTo(fromEighty)).close();
+        assertBalances(expected, fromEighty);
+        Map<Long, BigDecimal> fromSeventy = new HashMap<>(atSeventy);
+        SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 70, r -> r.applyTo(fromSeventy)).close();
+        assertBalances(expected, fromSeventy);
+
+        // El segmento en uso nunca se borra
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 80, r -> { })) {
+            journal.pruneThrough(Long.MAX_VALUE);
+            assertEquals(1, journal.segments().size());
+            assertEquals(101, journal.append(record(JournalRecord.Kind.DEPOSIT, 1, "1.00")));
+        }
+    }
+
+    @Test
+    void appendedRecordsBecomeDurable() throws Exception {
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 50, 0, r -> { })) {
+            long sequence = journal.append(record(JournalRecord.Kind.OPEN, 1, "10.00"));
+            assertTrue(journal.awaitDurable(sequence, 2000));
+            assertEquals(sequence, journal.durableSequence());
+        }
+    }
+
+    // Abre la cuenta 1 y 2 y alterna depósitos y transferencias de 12.34
+    private Map<Long, BigDecimal> writeRecords(int count) throws IOException {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 0, r -> { })) {
+            for (int i = 1; i <= count; i++) {
+                JournalRecord record;
+                if (i <= 2) {
+                    record = record(JournalRecord.Kind.OPEN, i, "100.00");
+                } else if (i % 2 == 0) {
+                    record = new JournalRecord(0, JournalRecord.Kind.TRANSFER, i, 1, 2, new BigDecimal("12.34"));
+                } else {
+                    record = record(JournalRecord.Kind.DEPOSIT, 1, "1.50");
+                }
+                record.withSequence(journal.append(record)).applyTo(balances);
+            }
+        }
+        assertTrue(Files.list(dir).count() > 1, "se esperaban varios segmentos");
+        return balances;
+    }
+
+    private Map<Long, BigDecimal> replayAll(long after) throws IOException {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        SegmentedJournal.open(dir, SEGMENT_SIZE, 1, after, r -> r.applyTo(balances)).close();
+        return balances;
+    }
+
+    private Path lastSegment() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(dir, SEGMENT_SIZE, 1, 0, r -> { })) {
+            List<Path> segments = journal.segments();
+            return segments.get(segments.size() - 1);
+        }
+    }
+
+    private static int usedBytes(Path segment) throws IOException {
+        byte[] data = Files.readAllBytes(segment);
+        int end = data.length;
+        while (end > 0 && data[end - 1] == 0) end--;
+        return end;
+    }
+
+    private static JournalRecord record(JournalRecord.Kind kind, long accountId, String amount) {
+        return new JournalRecord(0, kind, JournalRecord.NONE, accountId, JournalRecord.NONE, new BigDecimal(amount));
+    }
+
+    private static void assertBalances(Map<Long, BigDecimal> expected, Map<Long, BigDecimal> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((id, balance) -> assertEquals(0, balance.compareTo(actual.get(id)), "cuenta " + id));
+    }
+}
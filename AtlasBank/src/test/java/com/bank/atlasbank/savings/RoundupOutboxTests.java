@@ -0,0 +1,121 @@
+package com.bank.atlasbank.savings;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// El RoundupWorker no drena por su cuenta: cada prueba aplica la bandeja a mano
+@SpringBootTest(properties = "atlasbank.savings.roundup-interval-ms=3600000")
+class RoundupOutboxTests {
+
+    @Autowired
+    private SavingsGoalService savingsGoalService;
+
+    @Autowired
+    private SavingsGoalRepository savingsGoalRepository;
+
+    @Autowired
+    private RoundupOutboxRepository outboxRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void roundsUpToTheNextThousand() {
+        assertEquals(0, new BigDecimal("500").compareTo(SavingsGoalService.calculateRoundup(new BigDecimal("2500"))));
+        assertEquals(0, new BigDecimal("0.01").compareTo(SavingsGoalService.calculateRoundup(new BigDecimal("999.99"))));
+        assertEquals(0, BigDecimal.ZERO.compareTo(SavingsGoalService.calculateRoundup(new BigDecimal("3000"))));
+    }
+
+    @Test
+    void coalescesEntriesPerGoalAndMovesOnWhenAGoalCompletes() {
+        Customer saver = roundupCustomer("roundup-saver");
+        SavingsGoal first = goal(saver, "Viaje", "1000");
+        SavingsGoal second = goal(saver, "Carro", "5000");
+        Customer other = roundupCustomer("roundup-other");
+        SavingsGoal otherGoal = goal(other, "Casa", "100000");
+        Customer noGoals = roundupCustomer("roundup-no-goals");
+        Customer optedOut = fixtures.customer("roundup-opted-out");
+
+        savingsGoalService.enqueueRoundup(saver, new BigDecimal("1400"));      // 600
+        savingsGoalService.enqueueRoundup(other, new BigDecimal("1900"));      // 100
+        savingsGoalService.enqueueRoundup(saver, new BigDecimal("2300"));      // 700 -> completa la primera
+        savingsGoalService.enqueueRoundup(saver, new BigDecimal("3000"));      // 0: no se encola
+        savingsGoalService.enqueueRoundup(saver, new BigDecimal("4800"));      // 200 -> segunda meta
+        savingsGoalService.enqueueRoundup(noGoals, new BigDecimal("4800"));    // sin metas: se descarta
+        savingsGoalService.enqueueRoundup(optedOut, new BigDecimal("4800"));   // sin redondeo activo
+        savingsGoalService.enqueueRoundup(other, new BigDecimal("1950"));      // 50
+        assertEquals(6, outboxRepository.count());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        assertEquals(6, savingsGoalService.applyPendingRoundups(100));
+        long goalUpdates = statistics.getEntityUpdateCount();
+        statistics.setStatisticsEnabled(false);
+
+        // Tres metas tocadas, una actualización por meta aunque reciban varias entradas
+        assertEquals(3, goalUpdates);
+        assertEquals(0, outboxRepository.count());
+        assertEquals(0, savingsGoalService.applyPendingRoundups(100));
+
+        SavingsGoal firstAfter = savingsGoalRepository.findById(first.getId()).orElseThrow();
+        assertTrue(firstAfter.isCompleted());
+        assertEquals(0, new BigDecimal("1300").compareTo(firstAfter.getCurrentAmount()));
+        SavingsGoal secondAfter = savingsGoalRepository.findById(second.getId()).orElseThrow();
+        assertFalse(secondAfter.isCompleted());
+        assertEquals(0, new BigDecimal("200").compareTo(secondAfter.getCurrentAmount()));
+        assertEquals(0, new BigDecimal("150").compareTo(
+                savingsGoalRepository.findById(otherGoal.getId()).orElseThrow().getCurrentAmount()));
+    }
+
+    @Test
+    void drainsTheOutboxInPagesOfTheGivenLimit() {
+        Customer saver = roundupCustomer("roundup-pages");
+        SavingsGoal goal = goal(saver, "Ahorro", "1000000");
+        for (int i = 0; i < 5; i++) {
+            savingsGoalService.enqueueRoundup(saver, new BigDecimal("900"));
+        }
+
+        assertEquals(2, savingsGoalService.applyPendingRoundups(2));
+        assertEquals(2, savingsGoalService.applyPendingRoundups(2));
+        assertEquals(1, savingsGoalService.applyPendingRoundups(2));
+        assertEquals(0, savingsGoalService.applyPendingRoundups(2));
+        assertEquals(0, new BigDecimal("500").compareTo(
+                savingsGoalRepository.findById(goal.getId()).orElseThrow().getCurrentAmount()));
+    }
+
+    private Customer roundupCustomer(String customerId) {
+        Customer customer = fixtures.customer(customerId);
+        customer.setRoundupEnabled(true);
+        return customerRepository.save(customer);
+    }
+
+    private SavingsGoal goal(Customer customer, String name, String target) {
+        SavingsGoal goal = new SavingsGoal();
+        goal.setName(name);
+        goal.setTargetAmount(new BigDecimal(target));
+        goal.setCustomer(customer);
+        return savingsGoalRepository.save(goal);
+    }
+}
@@ -0,0 +1,128 @@
+package com.bank.atlasbank.security;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.Customer;
+import com.bank.atlasbank.customer.CustomerRepository;
+import com.bank.atlasbank.transaction.BatchItemRequest;
+import com.bank.atlasbank.transaction.BatchResponse;
+import com.bank.atlasbank.transaction.TransactionBatchService;
+import com.bank.atlasbank.transaction.TransactionService;
+import com.bank.atlasbank.transaction.TransactionType;
+import com.bank.atlasbank.transaction.TransferRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "atlasbank.antifraud.velocity-enabled=true")
+class AntiFraudServiceTests {
+
+    @Autowired
+    private AntiFraudService antiFraudService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionBatchService batchService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void theSixthMovementWithinAMinuteIsRejectedWithoutBlockingTheCustomer() {
+        Customer customer = fixtures.customer("fraud-minute");
+        for (int i = 0; i < 5; i++) {
+            assertFalse(antiFraudService.analyzeTransaction(customer, BigDecimal.TEN, "Local", 1L));
+        }
+        BusinessException rejected = assertThrows(BusinessException.class,
+                () -> antiFraudService.analyzeTransaction(customer, BigDecimal.TEN, "Local", 1L));
+        assertTrue(rejected.getMessage().contains("último minuto"));
+        assertEquals("ACTIVE", status(customer));
+    }
+
+    @Test
+    void theHourlyAmountCapAddsUpSmallMovements() {
+        Customer customer = fixtures.customer("fraud-hour-sum");
+        assertFalse(antiFraudService.analyzeTransaction(customer, new BigDecimal("9000"), "Colombia", null));
+        assertFalse(antiFraudService.analyzeTransaction(customer, new BigDecimal("9000"), "Colombia", null));
+        assertThrows(BusinessException.class,
+                () -> antiFraudService.analyzeTransaction(customer, new BigDecimal("2000.01"), "Colombia", null));
+        assertEquals("ACTIVE", status(customer));
+    }
+
+    @Test
+    void aBatchRejectsOnlyTheTransferOverTheVelocityLimit() {
+        Customer customer = fixtures.customer("fraud-batch");
+        Long a = fixtures.account(customer, "AT-FRAUD-BATCH-A", "100.00");
+        Long b = fixtures.account(customer, "AT-FRAUD-BATCH-B", "0.00");
+        List<BatchItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            items.add(new BatchItemRequest(TransactionType.TRANSFER, a, b, BigDecimal.ONE, "Local"));
+        }
+        items.add(new BatchItemRequest(TransactionType.DEPOSIT, a, null, BigDecimal.ONE, null));
+
+        BatchResponse response = batchService.post(items);
+
+        assertEquals(6, response.accepted());
+        assertEquals("REJECTED", response.results().get(5).status());
+        assertTrue(response.results().get(5).message().contains("último minuto"));
+        assertEquals("ACCEPTED", response.results().get(6).status());
+        assertEquals("ACTIVE", status(customer));
+    }
+
+    @Test
+    void singleMovementRulesBlockRegardlessOfVelocity() {
+        Customer large = fixtures.customer("fraud-large");
+        assertTrue(antiFraudService.analyzeTransaction(large, new BigDecimal("10000.01"), "Local", null));
+        Customer abroad = fixtures.customer("fraud-abroad");
+        assertTrue(antiFraudService.analyzeTransaction(abroad, BigDecimal.ONE, "Panamá", null));
+        assertEquals("BLOCKED", status(abroad));
+    }
+
+    @Test
+    void rejectedTransfersDoNotCountTowardsVelocity() {
+        Customer customer = fixtures.customer("fraud-invalid");
+        Long a = fixtures.account(customer, "AT-FRAUD-A", "100.00");
+        Long b = fixtures.account(customer, "AT-FRAUD-B", "0.00");
+        for (int i = 0; i < 10; i++) {
+            assertThrows(BusinessException.class,
+                    () -> transactionService.transfer(new TransferRequest(a, a, BigDecimal.ONE, "Local")));
+        }
+        transactionService.transfer(new TransferRequest(a, b, BigDecimal.ONE, "Local"));
+        assertEquals("ACTIVE", status(customer));
+    }
+
+    @Test
+    void theBlockSurvivesTheRollbackOfTheTransferThatTriggeredIt() throws Exception {
+        Customer customer = fixtures.customer("fraud-rollback");
+        Long a = fixtures.account(customer, "AT-FRAUD-RB-A", "100.00");
+        Long b = fixtures.account(customer, "AT-FRAUD-RB-B", "0.00");
+        assertThrows(BusinessException.class,
+                () -> transactionService.transfer(new TransferRequest(a, b, BigDecimal.ONE, "Panamá")));
+        // El bloqueo se escribe cuando la transferencia ya terminó, desde otro hilo
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"BLOCKED".equals(status(customer)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("BLOCKED", status(customer));
+    }
+
+    private String status(Customer customer) {
+        return customerRepository.findById(customer.getId()).orElseThrow().getStatus();
+    }
+}
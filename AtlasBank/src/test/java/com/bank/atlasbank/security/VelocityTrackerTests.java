@@ -0,0 +1,77 @@
+package com.bank.atlasbank.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VelocityTrackerTests {
+
+    private static final long T0 = 1_700_000_000L;
+
+    @Test
+    void windowsForgetMovementsOnceTheyFallOut() {
+        VelocityTracker tracker = new VelocityTracker(100);
+        tracker.record("C1", new BigDecimal("10.00"), null, T0);
+        tracker.record("C1", new BigDecimal("2.50"), null, T0 + 30);
+
+        VelocityFeatures f = tracker.record("C1", new BigDecimal("1.00"), null, T0 + 59);
+        assertEquals(3, f.countLastMinute());
+        assertEquals(1350, f.sumLastMinute());
+
+        f = tracker.record("C1", new BigDecimal("1.00"), null, T0 + 61);
+        assertEquals(3, f.countLastMinute());
+        assertEquals(450, f.sumLastMinute());
+        assertEquals(4, f.countLastHour());
+
+        f = tracker.record("C1", new BigDecimal("1.00"), null, T0 + 3 * 3600);
+        assertEquals(1, f.countLastMinute());
+        assertEquals(1, f.countLastHour());
+        assertEquals(5, f.countLastDay());
+        assertEquals(1550, f.sumLastDay());
+
+        f = tracker.record("C1", new BigDecimal("1.00"), null, T0 + 3 * 3600 + 24 * 3600);
+        assertEquals(1, f.countLastDay());
+
+        // Cada cliente lleva sus propias ventanas
+        assertEquals(1, tracker.record("C2", BigDecimal.ONE, null, T0 + 59).countLastMinute());
+    }
+
+    @Test
+    void distinctTargetsIgnoreRepeatsAndExpireAfterADay() {
+        VelocityTracker tracker = new VelocityTracker(100);
+        for (long target = 1; target <= 4; target++) {
+            tracker.record("C1", BigDecimal.ONE, target, T0 + target);
+            tracker.record("C1", BigDecimal.ONE, target, T0 + target + 10);
+        }
+        assertEquals(4, tracker.record("C1", BigDecimal.ONE, null, T0 + 100).distinctTargetsLastDay());
+        assertEquals(1, tracker.record("C1", BigDecimal.ONE, 9L, T0 + 24 * 3600 + 50).distinctTargetsLastDay());
+    }
+
+    @Test
+    void newCustomersAreRefusedAtTheCapUntilTheSweepFreesRoom() {
+        VelocityTracker tracker = new VelocityTracker(3);
+        tracker.record("old", BigDecimal.ONE, null, T0);
+        tracker.record("idle", BigDecimal.ONE, null, T0 + 24 * 3600);
+        tracker.record("active-0", BigDecimal.ONE, null, T0 + 26 * 3600);
+
+        // Con el mapa lleno el cliente nuevo se evalúa solo y no ocupa sitio
+        VelocityFeatures f = tracker.record("active-1", new BigDecimal("2.00"), 7L, T0 + 26 * 3600);
+        assertEquals(1, f.countLastMinute());
+        assertEquals(200, f.sumLastDay());
+        assertEquals(1, f.distinctTargetsLastDay());
+        tracker.record("active-1", BigDecimal.ONE, null, T0 + 26 * 3600);
+        assertEquals(3, tracker.trackedCustomers());
+
+        // Los ya seguidos siguen acumulando
+        assertEquals(2, tracker.record("active-0", BigDecimal.ONE, null, T0 + 26 * 3600).countLastMinute());
+
+        // El barrido descarta al de más de un día y deja sitio
+        tracker.evictIdleCustomers(T0 + 26 * 3600);
+        assertEquals(2, tracker.trackedCustomers());
+        tracker.record("active-1", BigDecimal.ONE, null, T0 + 26 * 3600);
+        assertEquals(2, tracker.record("active-1", BigDecimal.ONE, null, T0 + 26 * 3600).countLastMinute());
+        assertEquals(3, tracker.trackedCustomers());
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.atlasbank.statement;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// Particiones de 2 cuentas en 2 hilos para cruzar límites de partición
+@SpringBootTest(properties = {
+        "atlasbank.statements.partition-size=2",
+        "atlasbank.statements.parallelism=2",
+        "atlasbank.statements.fetch-size=2"
+})
+class StatementServiceTests {
+
+    @TempDir
+    static Path statementsDir;
+
+    @DynamicPropertySource
+    static void statementProperties(DynamicPropertyRegistry registry) {
+        registry.add("atlasbank.statements.dir", () -> statementsDir.toString());
+    }
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextTransactionId = 900_000;
+
+    @Test
+    void writesOpeningAndClosingBalancesAndSkipsExistingStatements() throws Exception {
+        Customer customer = fixtures.customer("statement-test");
+        // Saldos actuales, ya con todos los movimientos de abajo aplicados
+        Long main = fixtures.account(customer, "AT-STMT-MAIN", "1000.00");
+        Long other = fixtures.account(customer, "AT-STMT-OTHER", "50.00");
+        fixtures.account(customer, "AT-STMT-IDLE", "7.00");
+
+        insert("DEPOSIT", "100.00", main, null, LocalDateTime.of(2025, 2, 27, 9, 0));
+        insert("WITHDRAW", "30.00", main, null, LocalDateTime.of(2025, 3, 20, 12, 0));
+        insert("DEPOSIT", "200.00", main, null, LocalDateTime.of(2025, 3, 5, 10, 0));
+        insert("TRANSFER", "50.00", main, other, LocalDateTime.of(2025, 3, 10, 11, 0));
+        insert("DEPOSIT", "500.00", main, null, LocalDateTime.of(2025, 4, 2, 8, 0));
+
+        YearMonth march = YearMonth.of(2025, 3);
+        StatementRunResult result = statementService.generate(march, StatementService.Format.CSV);
+
+        assertEquals(0, result.failedPartitions());
+        assertEquals(0, result.skipped());
+        assertEquals(result.accounts(), result.generated());
+
+        // 1000 - (200 - 50 - 30 + 500) = 380 al abrir el mes, en orden de fecha
+        Path month = statementsDir.resolve("2025-03");
+        List<String> mainLines = Files.readAllLines(month.resolve("AT-STMT-MAIN.csv"));
+        assertEquals(List.of(
+                "fecha,movimiento,tipo,contraparte,importe,saldo",
+                "2025-03-01T00:00,,SALDO_INICIAL,,,380.00",
+                "2025-03-05T10:00,900003,DEPOSIT,,200.00,580.00",
+                "2025-03-10T11:00,900004,TRANSFER,AT-STMT-OTHER,-50.00,530.00",
+                "2025-03-20T12:00,900002,WITHDRAW,,-30.00,500.00",
+                "2025-04-01T00:00,,SALDO_FINAL,,,500.00"), mainLines);
+        List<String> otherLines = Files.readAllLines(month.resolve("AT-STMT-OTHER.csv"));
+        assertEquals("2025-03-01T00:00,,SALDO_INICIAL,,,0.00", otherLines.get(1));
+        assertEquals("2025-03-10T11:00,900004,TRANSFER,AT-STMT-MAIN,50.00,50.00", otherLines.get(2));
+        assertEquals(List.of(
+                "fecha,movimiento,tipo,contraparte,importe,saldo",
+                "2025-03-01T00:00,,SALDO_INICIAL,,,7.00",
+                "2025-04-01T00:00,,SALDO_FINAL,,,7.00"), Files.readAllLines(month.resolve("AT-STMT-IDLE.csv")));
+
+        // Una nueva ejecución solo rehace los que falten
+        Files.delete(month.resolve("AT-STMT-OTHER.csv"));
+        StatementRunResult rerun = statementService.generate(march, StatementService.Format.CSV);
+        assertEquals(1, rerun.generated());
+        assertEquals(result.accounts() - 1, rerun.skipped());
+        assertEquals(otherLines, Files.readAllLines(month.resolve("AT-STMT-OTHER.csv")));
+
+        StatementRunResult text = statementService.generate(march, StatementService.Format.TXT);
+        assertEquals(result.accounts(), text.generated());
+        List<String> textLines = Files.readAllLines(month.resolve("AT-STMT-MAIN.txt"));
+        assertEquals("Saldo inicial: 380.00", textLines.get(3));
+        assertEquals("Saldo final: 500.00 (3 movimientos)", textLines.get(textLines.size() - 1));
+        try (Stream<Path> files = Files.list(month)) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".tmp")));
+        }
+    }
+
+    private void insert(String type, String amount, Long source, Long target, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into bank_transactions (id, type, amount, source_account_id, target_account_id, created_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                ++nextTransactionId, type, new BigDecimal(amount), source, target, Timestamp.valueOf(createdAt));
+    }
+}
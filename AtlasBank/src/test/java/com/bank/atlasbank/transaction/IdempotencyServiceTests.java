@@ -0,0 +1,57 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// Caché de una sola entrada para que las repeticiones salgan de la tabla
+@SpringBootTest(properties = "atlasbank.idempotency.max-entries=1")
+class IdempotencyServiceTests {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void replayReturnsTheStoredTransactionWithoutMovingMoney() {
+        Long id = fixtures.account("idempotency-test", "100.00");
+        BigDecimal amount = new BigDecimal("25.00");
+        String fingerprint = IdempotencyService.fingerprint("DEPOSIT", id, amount);
+
+        IdempotencyService.Outcome first = idempotencyService.execute("dep-1", fingerprint,
+                () -> transactionService.deposit(id, amount));
+        idempotencyService.execute("dep-2", IdempotencyService.fingerprint("DEPOSIT", id, BigDecimal.ONE),
+                () -> transactionService.deposit(id, BigDecimal.ONE));
+        IdempotencyService.Outcome replay = idempotencyService.execute("dep-1",
+                IdempotencyService.fingerprint("DEPOSIT", id, new BigDecimal("25")),
+                () -> transactionService.deposit(id, amount));
+
+        assertFalse(first.replayed());
+        assertTrue(replay.replayed());
+        assertEquals(first.transaction().getId(), replay.transaction().getId());
+        assertEquals(0, new BigDecimal("126.00").compareTo(accountRepository.findBalanceById(id).orElseThrow()));
+
+        assertThrows(BusinessException.class, () -> idempotencyService.execute("dep-1",
+                IdempotencyService.fingerprint("WITHDRAW", id, amount), () -> transactionService.withdraw(id, amount)));
+    }
+}
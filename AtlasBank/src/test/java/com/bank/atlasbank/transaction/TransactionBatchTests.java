@@ -0,0 +1,247 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.account.AccountService;
+import com.bank.atlasbank.customer.Customer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+// Sin ventanas de velocidad ni sondeo del RoundupWorker, que sumaría sentencias al lote medido
+@SpringBootTest(properties = {
+        "atlasbank.antifraud.velocity-enabled=false",
+        "atlasbank.savings.roundup-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class TransactionBatchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rejectsInvalidItemsOneByOneAndAppliesTheRest() throws Exception {
+        Customer customer = fixtures.customer("batch-items");
+        Long a = fixtures.account(customer, "AT-BATCH-A", "100.00");
+        Long b = fixtures.account(customer, "AT-BATCH-B", "0.00");
+
+        postBatch("""
+                [{"type":"DEPOSIT","accountId":%d,"amount":50},
+                 {"type":"WITHDRAW","accountId":%d,"amount":500},
+                 {"type":"TRANSFER","accountId":%d,"targetAccountId":%d,"amount":30,"location":"Local"},
+                 {"type":"TRANSFER","accountId":%d,"targetAccountId":%d,"amount":1},
+                 {"type":"TRANSFER","accountId":%d,"amount":1},
+                 {"type":"DEPOSIT","accountId":999999,"amount":1},
+                 {"type":"INTEREST","accountId":%d,"amount":1}]""".formatted(a, a, a, b, a, a, a, a))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(5))
+                .andExpect(jsonPath("$.results[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[1].message").value("Saldo insuficiente"))
+                .andExpect(jsonPath("$.results[2].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[3].message").value("No se puede transferir a la misma cuenta"))
+                .andExpect(jsonPath("$.results[4].message").value("targetAccountId es obligatorio para transferencias"))
+                .andExpect(jsonPath("$.results[5].message").value("Cuenta no encontrada: 999999"))
+                .andExpect(jsonPath("$.results[6].status").value("REJECTED"));
+
+        assertBalance(a, "120.00");
+        assertBalance(b, "30.00");
+
+        // Un elemento mal formado invalida la petición completa
+        long before = transactionRepository.count();
+        postBatch("""
+                [{"type":"DEPOSIT","accountId":%d,"amount":5},
+                 {"accountId":%d,"amount":5}]""".formatted(a, a))
+                .andExpect(status().isBadRequest());
+        assertEquals(before, transactionRepository.count());
+        assertBalance(a, "120.00");
+    }
+
+    @Test
+    void anOverdrawnShardedAccountRejectsOnlyItsItem() throws Exception {
+        Customer customer = fixtures.customer("batch-sharded");
+        Long hot = fixtures.account(customer, "AT-SHARDED-HOT", "20.00");
+        Long other = fixtures.account(customer, "AT-SHARDED-OTHER", "0.00");
+        accountService.configureBalanceSlots(hot, 4);
+
+        // El cargo rechazado no debe marcar para rollback la transacción del lote
+        postBatch("""
+                [{"type":"DEPOSIT","accountId":%d,"amount":10},
+                 {"type":"WITHDRAW","accountId":%d,"amount":500},
+                 {"type":"TRANSFER","accountId":%d,"targetAccountId":%d,"amount":25,"location":"Local"},
+                 {"type":"DEPOSIT","accountId":%d,"amount":5}]""".formatted(hot, hot, hot, other, other))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.results[1].message").value("Saldo insuficiente"));
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(accountService.findById(hot).getTotalBalance()));
+        assertBalance(other, "30.00");
+    }
+
+    @Test
+    void anAccountHeldElsewhereMakesTheBatchWaitForIt() throws Exception {
+        Customer customer = fixtures.customer("batch-busy");
+        Long a = fixtures.account(customer, "AT-BUSY-A", "100.00");
+        Long held = fixtures.account(customer, "AT-BUSY-HELD", "100.00");
+        Long b = fixtures.account(customer, "AT-BUSY-B", "0.00");
+
+        // Otra transacción retiene la fila de "held" mientras corre el lote
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    transactionService.deposit(held, new BigDecimal("1.00"));
+                    locked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<ResultActions> batch;
+        try {
+            batch = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return postBatch("""
+                            [{"type":"DEPOSIT","accountId":%d,"amount":10},
+                             {"type":"TRANSFER","accountId":%d,"targetAccountId":%d,"amount":5,"location":"Local"},
+                             {"type":"TRANSFER","accountId":%d,"targetAccountId":%d,"amount":20,"location":"Local"}]"""
+                            .formatted(a, a, held, a, b));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(300);
+            assertFalse(batch.isDone(), "El lote debe esperar la fila retenida");
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+
+        // Sin rechazos por cuenta ocupada: el lote parte del saldo que confirmó el otro
+        batch.get(10, TimeUnit.SECONDS)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3));
+        assertBalance(a, "85.00");
+        assertBalance(b, "20.00");
+        assertBalance(held, "106.00");
+    }
+
+    @Test
+    void aFailureWhileWritingRollsBackOnlyItsWindow() throws Exception {
+        Customer customer = fixtures.customer("batch-atomic");
+        Long a = fixtures.account(customer, "AT-ATOMIC-A", "100.00");
+        Long b = fixtures.account(customer, "AT-ATOMIC-B", "0.00");
+        long before = transactionRepository.count();
+
+        // Una tanda completa (50 por defecto) que confirma, y otra cuyo último importe no
+        // cabe en numeric(19,2): falla su flush con la tanda ya aplicada en memoria
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            items.append("{\"type\":\"DEPOSIT\",\"accountId\":").append(a).append(",\"amount\":1},");
+        }
+        items.append("""
+                {"type":"TRANSFER","accountId":%d,"targetAccountId":%d,"amount":40,"location":"Local"},
+                {"type":"DEPOSIT","accountId":%d,"amount":1000000000000000000}]""".formatted(a, b, b));
+
+        postBatch(items.toString())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(50))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[49].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[50].message").value("No se pudo guardar la tanda; reintenta este movimiento"))
+                .andExpect(jsonPath("$.results[51].index").value(51));
+
+        assertEquals(before + 50, transactionRepository.count());
+        assertBalance(a, "150.00");
+        assertBalance(b, "0.00");
+    }
+
+    @Test
+    void hundredsOfItemsBecomeAHandfulOfStatements() throws Exception {
+        Customer customer = fixtures.customer("batch-jdbc");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ids.add(fixtures.account(customer, "AT-JDBC-" + i, "10.00"));
+        }
+        StringBuilder items = new StringBuilder("[");
+        for (Long id : ids) {
+            if (items.length() > 1) items.append(',');
+            items.append("{\"type\":\"DEPOSIT\",\"accountId\":").append(id).append(",\"amount\":1}");
+        }
+        items.append(']');
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        postBatch(items.toString())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(120));
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        // Por tanda de 50: el bloqueo y la carga de cuentas, algún nextval y los INSERT/UPDATE en lote
+        assertTrue(statements < 20, "Sentencias preparadas: " + statements);
+        for (Long id : ids) {
+            assertBalance(id, "11.00");
+        }
+    }
+
+    private ResultActions postBatch(String items) throws Exception {
+        return mockMvc.perform(post("/api/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":" + items + "}"));
+    }
+
+    private void assertBalance(Long accountId, String expected) {
+        assertEquals(0, new BigDecimal(expected).compareTo(accountRepository.findBalanceById(accountId).orElseThrow()));
+    }
+}
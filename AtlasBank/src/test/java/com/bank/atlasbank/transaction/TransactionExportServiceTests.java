@@ -0,0 +1,133 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.Customer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+// Sin el sondeo del RoundupWorker: la cuenta de sentencias de Hibernate es global y
+// sumaría sus consultas a las de la exportación (la purga de idempotencia ya corre
+// solo al arrancar y cada hora)
+@SpringBootTest(properties = "atlasbank.savings.roundup-interval-ms=3600000")
+class TransactionExportServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 10);
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void writesCsvAndNdjsonForTheInclusiveDayRange() throws Exception {
+        Customer customer = fixtures.customer("export-formats");
+        Long main = fixtures.account(customer, "AT-EXP,\"1\"", "0.00");
+        Long other = fixtures.account(customer, "AT-EXP-2", "0.00");
+
+        insert(610_001, "DEPOSIT", "10.50", main, null, DAY.minusDays(1).atTime(23, 59, 59));
+        insert(610_002, "TRANSFER", "3.00", main, other, DAY.plusDays(1).atTime(12, 0));
+        insert(610_003, "DEPOSIT", "7.25", other, null, DAY.atStartOfDay());
+        insert(610_004, "WITHDRAW", "1.00", main, null, DAY.plusDays(2).atStartOfDay());
+
+        List<String> csv = lines(export(DAY, DAY.plusDays(1), TransactionExportService.Format.CSV));
+        assertEquals(List.of(
+                "id,type,amount,sourceAccountId,sourceAccountNumber,targetAccountId,targetAccountNumber,createdAt",
+                "610003,DEPOSIT,7.25," + other + ",AT-EXP-2,,,2024-06-10T00:00",
+                "610002,TRANSFER,3.00," + main + ",\"AT-EXP,\"\"1\"\"\"," + other + ",AT-EXP-2,2024-06-11T12:00"), csv);
+
+        List<String> ndjson = lines(export(DAY, DAY.plusDays(1), TransactionExportService.Format.NDJSON));
+        assertEquals(2, ndjson.size());
+        JsonNode first = objectMapper.readTree(ndjson.get(0));
+        assertEquals(610_003, first.get("id").asLong());
+        assertTrue(first.get("targetAccountId").isNull());
+        JsonNode second = objectMapper.readTree(ndjson.get(1));
+        assertEquals("TRANSFER", second.get("type").asText());
+        assertEquals(0, new BigDecimal("3.00").compareTo(second.get("amount").decimalValue()));
+        assertEquals("AT-EXP,\"1\"", second.get("sourceAccountNumber").asText());
+        assertEquals(other, second.get("targetAccountId").asLong());
+        assertEquals("2024-06-11T12:00", second.get("createdAt").asText());
+
+        assertThrows(BusinessException.class, () -> TransactionExportService.parseFormat("xml"));
+        assertEquals(TransactionExportService.Format.CSV, TransactionExportService.parseFormat(" csv "));
+        assertThrows(BusinessException.class, () -> TransactionExportService.validateRange(DAY, DAY.minusDays(1)));
+    }
+
+    @Test
+    void streamsLargeRangesWithASingleQuery() throws Exception {
+        Customer customer = fixtures.customer("export-stream");
+        Long source = fixtures.account(customer, "AT-EXP-STREAM-A", "0.00");
+        Long target = fixtures.account(customer, "AT-EXP-STREAM-B", "0.00");
+        LocalDate day = LocalDate.of(2024, 7, 1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            rows.add(new Object[]{620_000 + i, "TRANSFER", BigDecimal.ONE, source, target,
+                    Timestamp.valueOf(day.atStartOfDay().plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("insert into bank_transactions (id, type, amount, source_account_id, target_account_id, created_at) "
+                + "values (?, ?, ?, ?, ?, ?)", rows);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        String out = export(day, day, TransactionExportService.Format.CSV);
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        List<String> lines = lines(out);
+        // Cabecera + filas, en orden de fecha aunque el contexto se vacíe cada 1000
+        assertEquals(2501, lines.size());
+        assertTrue(lines.get(1).startsWith("620000,"));
+        assertTrue(lines.get(2500).startsWith("622499,"));
+        // Cuentas unidas en la misma consulta: nada de cargas por fila
+        assertEquals(1, statements);
+    }
+
+    private String export(LocalDate from, LocalDate to, TransactionExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(from, to, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> lines(String text) {
+        return text.lines().toList();
+    }
+
+    private void insert(long id, String type, String amount, Long source, Long target, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into bank_transactions (id, type, amount, source_account_id, target_account_id, created_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                id, type, new BigDecimal(amount), source, target, Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,86 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class TransactionHistoryTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2025, 3, 2, 10, 15, 30, 123_000_000), 42L);
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+        assertEquals(TransactionCursor.START, TransactionCursor.decode(null));
+        assertEquals(TransactionCursor.START, TransactionCursor.decode(" "));
+        assertThrows(BusinessException.class, () -> TransactionCursor.decode("no-es-un-cursor"));
+    }
+
+    @Test
+    void historyMergesBothSidesNewestFirstAcrossPages() {
+        Customer customer = fixtures.customer("history-test");
+        Long main = fixtures.account(customer, "AT-HIST-MAIN", "0.00");
+        Long other = fixtures.account(customer, "AT-HIST-OTHER", "0.00");
+        Long unrelated = fixtures.account(customer, "AT-HIST-UNRELATED", "0.00");
+
+        LocalDateTime t = LocalDateTime.of(2025, 5, 1, 9, 0);
+        insert(700_001, "DEPOSIT", main, null, t);
+        insert(700_002, "TRANSFER", other, main, t.plusMinutes(1));
+        insert(700_003, "WITHDRAW", main, null, t.plusMinutes(2));
+        // Mismo instante a ambos lados: desempata el id
+        insert(700_004, "TRANSFER", main, other, t.plusMinutes(3));
+        insert(700_005, "TRANSFER", other, main, t.plusMinutes(3));
+        insert(700_006, "TRANSFER", other, unrelated, t.plusMinutes(4));
+        insert(700_007, "DEPOSIT", main, null, t.plusMinutes(5));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage<TransactionView> page = transactionService.historyViewsByAccount(main, cursor, 2);
+            page.items().forEach(tx -> seen.add(tx.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(700_007L, 700_005L, 700_004L, 700_003L, 700_002L, 700_001L), seen);
+        assertEquals(3, pages);
+
+        // La variante con entidades sigue el mismo orden
+        TransactionPage<BankTransaction> entities = transactionService.historyByAccount(other, null, 10);
+        assertEquals(List.of(700_006L, 700_005L, 700_004L, 700_002L),
+                entities.items().stream().map(BankTransaction::getId).toList());
+        assertNull(entities.nextCursor());
+    }
+
+    private void insert(long id, String type, Long source, Long target, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into bank_transactions (id, type, amount, source_account_id, target_account_id, created_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                id, type, BigDecimal.ONE, source, target, Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,78 @@
+package com.bank.atlasbank.transaction;
+
+import com.bank.atlasbank.TestFixtures;
+import com.bank.atlasbank.account.AccountRepository;
+import com.bank.atlasbank.common.exception.BusinessException;
+import com.bank.atlasbank.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "atlasbank.antifraud.velocity-enabled=false")
+class TransferConcurrencyTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void concurrentTransfersNeverCreateOrLoseMoney() throws Exception {
+        Customer customer = fixtures.customer("transfer-race");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(fixtures.account(customer, "AT-RACE-" + i, "1000.00"));
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long source = ids.get(random.nextInt(ids.size()));
+                Long target = ids.get(random.nextInt(ids.size()));
+                if (source.equals(target)) return;
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 40000), 2);
+                try {
+                    transactionService.transfer(new TransferRequest(source, target, amount, null));
+                    completed.incrementAndGet();
+                } catch (BusinessException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Long id : ids) {
+            BigDecimal balance = accountRepository.findBalanceById(id).orElseThrow();
+            assertTrue(balance.signum() >= 0, "Saldo negativo en cuenta " + id);
+            total = total.add(balance);
+        }
+        assertEquals(0, new BigDecimal("10000.00").compareTo(total));
+        assertTrue(completed.get() > 0);
+    }
+}